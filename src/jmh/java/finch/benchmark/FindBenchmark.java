@@ -0,0 +1,60 @@
+package finch.benchmark;
+
+import finch.exception.FinchException;
+import finch.task.FuzzyMatch;
+import finch.task.Task;
+import finch.task.TaskList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link TaskList#findTasks(String)} on a large list, once its
+ * search index has been built, for keywords of different selectivity, and
+ * {@link TaskList#findFuzzy(String, int)} for the same keywords.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class FindBenchmark {
+
+    @Param({"100000"})
+    private int size;
+
+    // Shorter than a trigram, a word in 1/16 of the tasks, and a single task
+    @Param({"bo", "groceries", "review plan 99999"})
+    private String keyword;
+
+    private TaskList tasks;
+
+    @Setup
+    public void setUp() throws FinchException {
+        tasks = TaskFixtures.taskList(size);
+        tasks.findTasks(keyword);
+    }
+
+    @Benchmark
+    public List<Task> findTasks() throws FinchException {
+        return tasks.findTasks(keyword);
+    }
+
+    @Benchmark
+    public List<FuzzyMatch> findFuzzy() throws FinchException {
+        return tasks.findFuzzy(keyword, 10);
+    }
+}
@@ -0,0 +1,74 @@
+package finch.benchmark;
+
+import finch.command.Command;
+import finch.exception.FinchException;
+import finch.parser.Parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Parser#parse(String)} for a typical line of each command word.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    private static final Map<String, String> COMMANDS = Map.ofEntries(
+            Map.entry("todo", "todo read book"),
+            Map.entry("deadline", "deadline return book /by 2025-09-27 18:00"),
+            Map.entry("event", "event project meeting /from 2025-09-28 14:00 /to 2025-09-28 15:30"),
+            Map.entry("list", "list"),
+            Map.entry("mark", "mark 2"),
+            Map.entry("unmark", "unmark #15"),
+            Map.entry("delete", "delete 3"),
+            Map.entry("find", "find book"),
+            Map.entry("due", "due 2025-09-28"),
+            Map.entry("on", "on 2025-09-26"),
+            Map.entry("between", "between 2025-09-22 2025-09-28"),
+            Map.entry("next", "next"),
+            Map.entry("undo", "undo"),
+            Map.entry("redo", "redo"),
+            Map.entry("import", "import backup/tasks.csv"),
+            Map.entry("export", "export calendar.ics"),
+            Map.entry("stats", "stats"),
+            Map.entry("bye", "bye"));
+
+    @Param({"todo", "deadline", "event", "list", "mark", "unmark", "delete", "find", "due", "on", "between",
+            "next", "undo", "redo", "import", "export", "stats", "bye"})
+    private String commandWord;
+
+    private String line;
+
+    @Setup
+    public void setUp() {
+        // Fail rather than leave a command word Parser has gained unmeasured
+        if (!COMMANDS.keySet().equals(new HashSet<>(Parser.commandWords()))) {
+            throw new IllegalStateException("ParserBenchmark covers " + COMMANDS.keySet()
+                    + " but Parser recognises " + Parser.commandWords());
+        }
+        line = COMMANDS.get(commandWord);
+    }
+
+    @Benchmark
+    public Command parse() throws FinchException {
+        return Parser.parse(line);
+    }
+}
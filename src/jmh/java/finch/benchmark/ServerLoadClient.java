@@ -0,0 +1,178 @@
+package finch.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in client for {@code finch --serve}, used to check a running server
+ * under many concurrent connections.
+ * <p>
+ * Every client connects first and waits until all the others have connected
+ * too, so the server really holds that many sessions at once. Each client
+ * then adds its own todos, finds them again, and says {@code bye}. Replies
+ * are checked, and any mismatch or lost connection counts as a failure.
+ * <p>
+ * Run it with {@code gradle serverLoad -Pport=<port> [-Pclients=<n>] [-PcommandsPerClient=<m>]}.
+ */
+public class ServerLoadClient {
+
+    private static final String DIVIDER = "    ____________________________________________________________";
+
+    private final int port;
+    private final int commandsPerClient;
+
+    // Latency of every command, in nanoseconds, indexed by client and command
+    private final long[] latencies;
+
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicBoolean isFailureReported = new AtomicBoolean();
+
+    private ServerLoadClient(int port, int clients, int commandsPerClient) {
+        this.port = port;
+        this.commandsPerClient = commandsPerClient;
+        this.latencies = new long[clients * (commandsPerClient + 1)];
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: ServerLoadClient <port> [clients] [commands per client]");
+            System.exit(2);
+        }
+        int port = Integer.parseInt(args[0]);
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int commandsPerClient = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        System.exit(new ServerLoadClient(port, clients, commandsPerClient).run(clients) ? 0 : 1);
+    }
+
+    // Runs all clients on virtual threads and prints a summary; returns whether every reply was as expected
+    private boolean run(int clients) throws InterruptedException {
+        String runId = Long.toString(System.nanoTime(), 36);
+        CountDownLatch connected = new CountDownLatch(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[clients];
+        for (int i = 0; i < clients; i++) {
+            int client = i;
+            threads[i] = Thread.ofVirtual().start(() -> runClient(runId, client, connected, start));
+        }
+
+        connected.await();
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        int commands = latencies.length;
+        System.out.printf("%d clients, %d commands in %.2f s (%.0f commands/s)%n",
+                clients, commands, elapsedNanos / 1e9, commands / (elapsedNanos / 1e9));
+        System.out.printf("latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[sorted.length - 1] / 1e6);
+        System.out.println(failures.get() + " failures");
+        return failures.get() == 0;
+    }
+
+    // Runs one client's session: todos, then a find that must return all of them, then bye
+    private void runClient(String runId, int client, CountDownLatch connected, CountDownLatch start) {
+        boolean isConnected = false;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            readReply(in); // the welcome message
+            connected.countDown();
+            isConnected = true;
+            start.await();
+
+            String tag = "load" + runId + "c" + client + "z"; // the z keeps c1z from matching c10z
+            int slot = client * (commandsPerClient + 1);
+            for (int j = 0; j < commandsPerClient; j++) {
+                String reply = timed(in, out, "todo " + tag + " item " + j, slot + j);
+                expect(reply.contains("Got it. I've added this task:"), client, reply);
+            }
+            String found = timed(in, out, "find " + tag, slot + commandsPerClient);
+            expect(countLines(found, tag) == commandsPerClient, client, found);
+
+            send(out, "bye");
+            expect(readReply(in).contains("Bye!"), client, "no goodbye");
+        } catch (IOException | InterruptedException e) {
+            fail(client, e.toString());
+        } finally {
+            if (!isConnected) {
+                connected.countDown();
+            }
+        }
+    }
+
+    // Sends a command and records how long its reply took
+    private String timed(BufferedReader in, Writer out, String command, int slot) throws IOException {
+        long begin = System.nanoTime();
+        send(out, command);
+        String reply = readReply(in);
+        latencies[slot] = System.nanoTime() - begin;
+        return reply;
+    }
+
+    private static void send(Writer out, String command) throws IOException {
+        out.write(command);
+        out.write('\n');
+        out.flush();
+    }
+
+    // Reads one reply, which ends with its second divider line
+    private static String readReply(BufferedReader in) throws IOException {
+        StringBuilder reply = new StringBuilder();
+        int dividers = 0;
+        while (dividers < 2) {
+            String line = in.readLine();
+            if (line == null) {
+                throw new IOException("Connection closed mid-reply");
+            }
+            if (line.equals(DIVIDER)) {
+                dividers++;
+            }
+            reply.append(line).append('\n');
+        }
+        return reply.toString();
+    }
+
+    private static int countLines(String text, String needle) {
+        int count = 0;
+        for (String line : text.split("\n")) {
+            if (line.contains(needle)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void expect(boolean condition, int client, String reply) {
+        if (!condition) {
+            fail(client, "unexpected reply:\n" + reply);
+        }
+    }
+
+    // Counts a failure, printing only the first one in full
+    private void fail(int client, String message) {
+        failures.incrementAndGet();
+        if (isFailureReported.compareAndSet(false, true)) {
+            System.err.println("client " + client + ": " + message);
+        }
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[(int) Math.min(sorted.length - 1, sorted.length * fraction)] / 1e6;
+    }
+}
@@ -0,0 +1,86 @@
+package finch.benchmark;
+
+import finch.exception.FinchException;
+import finch.storage.Storage;
+import finch.task.TaskList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures {@link Storage#load()} and {@link Storage#save(TaskList)} of whole
+ * data files, in both the text and the binary format. The {@code lazy}
+ * format is the text format loaded lazily, which leaves decoding the tasks
+ * to whoever reads them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class StorageBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"text", "lazy", "binary"})
+    private String format;
+
+    private Path directory;
+    private Storage loadStorage;
+    private Storage saveStorage;
+    private TaskList tasks;
+
+    @Setup
+    public void setUp() throws IOException, FinchException {
+        directory = Files.createTempDirectory("finch-bench");
+        tasks = TaskFixtures.taskList(size);
+
+        loadStorage = openStorage("load.txt");
+        loadStorage.save(tasks);
+        saveStorage = openStorage("save.txt");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public TaskList load() throws FinchException {
+        return loadStorage.load();
+    }
+
+    @Benchmark
+    public void save() throws FinchException {
+        saveStorage.save(tasks);
+    }
+
+    // Opens a data file in the directory, in the format being measured
+    private Storage openStorage(String fileName) throws FinchException {
+        Storage storage = new Storage(directory.resolve(fileName).toString());
+        storage.setBinary(format.equals("binary"));
+        storage.setLazy(format.equals("lazy"));
+        return storage;
+    }
+}
@@ -0,0 +1,63 @@
+package finch.benchmark;
+
+import finch.exception.FinchException;
+import finch.task.Task;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding a save line with {@link Task#decode(String)} and encoding
+ * a task with {@link Task#toSaveFormat()}, for each task type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskCodecBenchmark {
+
+    @Param({"T", "D", "E"})
+    private String type;
+
+    private String line;
+    private Task task;
+
+    @Setup
+    public void setUp() throws FinchException {
+        switch (type) {
+        case "T":
+            line = "#1 | T | 0 | read book";
+            break;
+        case "D":
+            line = "#2 | D | 1 | return book | 2025-09-27T18:00";
+            break;
+        default:
+            line = "#3 | E | 0 | project meeting | 2025-09-28T14:00 | 2025-09-28T15:30";
+            break;
+        }
+        task = Task.decode(line);
+    }
+
+    @Benchmark
+    public Task decode() throws FinchException {
+        return Task.decode(line);
+    }
+
+    @Benchmark
+    public String toSaveFormat() {
+        return task.toSaveFormat();
+    }
+}
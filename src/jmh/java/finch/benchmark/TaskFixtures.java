@@ -0,0 +1,56 @@
+package finch.benchmark;
+
+import finch.exception.FinchException;
+import finch.task.TaskList;
+
+import java.time.LocalDateTime;
+
+/**
+ * Builds task lists of a given size for the benchmarks.
+ * <p>
+ * The lists mix todos, deadlines and events in equal parts, with
+ * descriptions drawn from a small vocabulary so that keyword searches have
+ * both common and rare matches. The same size always gives the same list.
+ */
+final class TaskFixtures {
+
+    private static final String[] WORDS = {
+        "read", "book", "return", "project", "meeting", "report", "submit", "call",
+        "buy", "groceries", "lecture", "tutorial", "review", "email", "plan", "trip",
+    };
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    private TaskFixtures() {
+    }
+
+    /**
+     * Returns a list of {@code size} tasks, every tenth of them marked as done.
+     *
+     * @param size the number of tasks
+     * @return the new list
+     * @throws FinchException if a task cannot be added
+     */
+    static TaskList taskList(int size) throws FinchException {
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < size; i++) {
+            String description = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+            LocalDateTime time = START.plusMinutes(15L * (i % 100_000));
+            switch (i % 3) {
+            case 0:
+                tasks.addTodo(description);
+                break;
+            case 1:
+                tasks.addDeadline(description, time);
+                break;
+            default:
+                tasks.addEvent(description, time, time.plusHours(2));
+                break;
+            }
+            if (i % 10 == 0) {
+                tasks.markTask(i);
+            }
+        }
+        return tasks;
+    }
+}
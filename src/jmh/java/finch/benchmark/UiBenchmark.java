@@ -0,0 +1,53 @@
+package finch.benchmark;
+
+import finch.exception.FinchException;
+import finch.task.TaskList;
+import finch.task.TaskSnapshot;
+import finch.ui.Ui;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering the whole list with {@link Ui#showTasks(TaskSnapshot, boolean)} into
+ * a sink that discards the output, so that only formatting and encoding are timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class UiBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private TaskList tasks;
+    private Ui ui;
+
+    @Setup
+    public void setUp() throws FinchException {
+        tasks = TaskFixtures.taskList(size);
+        ui = new Ui(InputStream.nullInputStream(), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void showTasks() {
+        ui.showTasks(tasks.snapshot(), false);
+        ui.flush();
+    }
+}
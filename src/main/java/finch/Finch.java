@@ -1,25 +1,87 @@
 package finch;
 
+import finch.task.Task;
 import finch.task.TaskList;
+import finch.task.UndoHistory;
 import finch.exception.FinchException;
+import finch.exception.UncheckedFinchException;
+import finch.metrics.CommandExecutedEvent;
+import finch.metrics.Metrics;
 import finch.storage.Storage;
 import finch.parser.Parser;
 import finch.ui.Ui;
 import finch.command.Command;
+import finch.server.Server;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * The main application class for Finch, a command-line task management chatbot.
  * <p>
  * Finch handles loading and saving tasks from persistent storage, processing
  * user commands, and interacting with the user via the {@link Ui} class.
+ * <p>
+ * When commands come from a batch script ({@code --batch}) or from piped
+ * standard input, Finch runs in batch mode: commands are executed and their
+ * output printed as usual, but the data file is only saved once per group of
+ * mutations ({@code --group}), or once at the end. Piped input only turns on
+ * batch mode if no option chose how changes are saved, so
+ * {@code finch --journal < script} journals every change as usual.
+ * <p>
+ * Tasks are loaded on a background thread, so the prompt is available
+ * straight away. Commands that do not need the tasks, such as {@code bye},
+ * run at once; the others wait for the load to finish, and an interactive
+ * user is told how far it has got while they wait.
+ * <p>
+ * In an interactive session, Finch watches for deadlines and events coming
+ * due in the background (see {@link finch.task.ReminderScheduler}). Each
+ * one is shown with the output of the next command.
+ * <p>
+ * With {@code --serve}, Finch does not read standard input at all. Instead,
+ * a {@link Server} runs the same commands for any number of clients
+ * connected over TCP on localhost, all sharing one task list. Each client
+ * has an undo history of its own.
  */
 public class Finch {
 
     // Handles reading from and writing to the data file (persistent storage for tasks)
     private final Storage storage;
 
-    // Use TaskList object to manage all tasks and task-related operations
-    private final TaskList tasks;
+    // Use TaskList object to manage all tasks and task-related operations; null until loaded
+    private TaskList tasks;
+
+    // Loads the tasks on a background thread, started by the constructor
+    private final FutureTask<TaskList> loading;
+
+    // Set by `gradle run`, whose forwarded standard input is never a console even when a user is typing
+    private static final String INTERACTIVE_PROPERTY = "finch.interactive";
+
+    // How often a command waiting for the tasks reports the loading progress
+    private static final long PROGRESS_INTERVAL_MILLIS = 500;
+
+    // Whether commands come from a script or pipe, where progress reports would only clutter the output
+    private final boolean isBatch;
+
+    // Most changes kept for undo, by the console or by each client when serving
+    private final int undoDepth;
+
+    // Changes made from the console, for undo and redo
+    private final UndoHistory history = new UndoHistory();
+
+    // Deadlines and events that came due since the last command, queued by the reminder thread
+    private final ConcurrentLinkedQueue<Task> dueReminders = new ConcurrentLinkedQueue<>();
 
     // Handles all user interactions (messages, input prompts, error messages)
     private final Ui ui;
@@ -27,31 +89,125 @@ public class Finch {
     /**
      * Constructs a Finch application instance.
      *
-     * <p>This constructor initializes the {@link Ui}, loads tasks from the
+     * <p>This constructor initializes the {@link Ui}, starts loading tasks from the
      * specified file path using {@link Storage}, and handles any errors
      * gracefully if storage cannot be initialized.
      *
      * @param filePath the path to the data file where tasks are stored
      */
     public Finch(String filePath) {
-        this.ui = new Ui();
-        Storage tempStorage;
+        this(new Ui(), filePath, null, false, true, UndoHistory.DEFAULT_DEPTH);
+    }
+
+    /**
+     * Constructs a Finch application instance configured by command-line options.
+     * <p>
+     * Batch mode is used if a batch script is given, or if standard input is
+     * not attached to a console and no other save mode was asked for, unless
+     * Finch is serving clients.
+     *
+     * @param options the parsed command-line options
+     * @throws FinchException if the batch script cannot be opened
+     */
+    public Finch(Options options) throws FinchException {
+        this(openUi(options.getBatchPath()), options.getFilePath(), options,
+                !options.isServing() && (options.getBatchPath() != null
+                        || (!options.hasSaveMode() && !isInteractive())),
+                isReminding(options), options.getUndoDepth());
+    }
+
+    // Shared constructor that sets up storage in the requested modes, then starts loading the tasks
+    private Finch(Ui ui, String filePath, Options options, boolean isBatch, boolean isReminding, int undoDepth) {
+        this.ui = ui;
+        this.isBatch = isBatch;
+        this.undoDepth = undoDepth;
+        history.setDepth(undoDepth);
+        // Every mode must be set before the loader starts, since load() reads them on the loader thread
+        this.storage = openStorage(ui, filePath, options, isBatch);
+
+        this.loading = new FutureTask<>(() -> {
+            TaskList loaded = storage != null ? storage.load() : new TaskList();
+            if (isReminding) {
+                loaded.getReminders().start(dueReminders::add);
+            }
+            return loaded;
+        });
+        Thread loader = new Thread(loading, "finch-loader");
+        loader.setDaemon(true); // exiting before the load finishes must not wait for it
+        loader.start(); // Thread.start() publishes the storage modes to the loader
+    }
+
+    // Opens the data file in the modes given by the options (the defaults if null); null if it cannot be opened
+    private static Storage openStorage(Ui ui, String filePath, Options options, boolean isBatch) {
         try {
-            tempStorage = new Storage(filePath); // may throw FinchException
+            Storage storage = new Storage(filePath); // may throw FinchException
+            if (options != null) {
+                storage.setBinary(options.isBinary());
+                storage.setLazy(options.isLazy());
+                // Options allows one save mode at most, and batch mode is only detected without one
+                if (options.isAsync()) {
+                    storage.setAsync(options.getFlushDelayMillis(), options.getFlushAfterMutations());
+                } else if (isBatch) {
+                    storage.setBatched(options.getGroupSize());
+                } else {
+                    storage.setJournaled(options.isJournaled());
+                }
+            }
+            return storage;
         } catch (FinchException e) {
             ui.showError("Failed to initialize storage: " + e.getMessage());
-            tempStorage = null; // or handle gracefully
+            return null; // or handle gracefully
         }
-        this.storage = tempStorage;
+    }
 
-        TaskList loadedTasks;
+    // Reminders are for a user at the console; with --lazy, finding the pending ones would decode every task up front
+    private static boolean isReminding(Options options) {
+        return !options.isServing() && options.getBatchPath() == null && isInteractive()
+                && !options.isLazy();
+    }
+
+    // Whether a user is typing the commands: standard input is a console, or `gradle run` forwards one
+    private static boolean isInteractive() {
+        return System.console() != null || Boolean.getBoolean(INTERACTIVE_PROPERTY);
+    }
+
+    // Waits for the tasks to finish loading, reporting progress to an interactive user; an empty list if loading failed
+    private TaskList awaitTasks() {
+        if (tasks != null) {
+            return tasks;
+        }
+        boolean isInterrupted = false;
+        while (tasks == null) {
+            try {
+                tasks = loading.get(PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (!isBatch && storage != null) {
+                    ui.showLoadingProgress(storage.getLoadPercent());
+                    ui.flush();
+                }
+            } catch (ExecutionException e) {
+                ui.showLoadingError(e.getCause().getMessage());
+                tasks = new TaskList();
+            } catch (InterruptedException e) {
+                isInterrupted = true; // the tasks are still needed, so keep waiting
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return tasks;
+    }
+
+    // Returns a Ui reading from the batch script, or from standard input if there is none
+    private static Ui openUi(String batchPath) throws FinchException {
+        if (batchPath == null) {
+            return new Ui();
+        }
         try {
-            loadedTasks = storage != null ? storage.load() : new TaskList();
-        } catch (FinchException e) {
-            ui.showLoadingError(e.getMessage());
-            loadedTasks = new TaskList();
+            return new Ui(Files.newInputStream(Paths.get(batchPath)));
+        } catch (IOException e) {
+            throw new FinchException("Failed to open batch script: " + batchPath);
         }
-        this.tasks = loadedTasks;
     }
 
     /**
@@ -60,42 +216,144 @@ public class Finch {
      *
      * <p>This method continuously reads user input, parses it into commands,
      * executes them, and handles exceptions. The loop exits when the user
-     * enters the "bye" command.
+     * enters the "bye" command or the input ends. In batch or asynchronous
+     * mode, any mutations not saved yet are saved before returning. If the
+     * tasks are still loading then, nothing needs saving and Finch exits
+     * without waiting for them.
      */
     public void run() {
         ui.showWelcomeMessage();
+        Metrics metrics = Metrics.get();
         boolean isExit = false;
 
-        while (!isExit) {
+        while (!isExit && ui.hasNextCommand()) {
             try {
                 // Read user input directly using Ui
                 String fullCommand = ui.readCommand();
 
                 ui.showLine();
 
-                // Parse and execute command
+                // Parse and execute command, waiting for the tasks only if it needs them
+                CommandExecutedEvent event = new CommandExecutedEvent();
+                event.begin();
+                long start = System.nanoTime();
+                long allocatedBefore = metrics.getAllocatedBytes();
                 Command command = Parser.parse(fullCommand);
-                command.execute(tasks, ui, storage);
+                long parseNanos = System.nanoTime() - start;
+                TaskList current = command.requiresTasks() ? awaitTasks() : tasks;
+                long executeStart = System.nanoTime();
+                try {
+                    command.execute(current, history, ui, storage);
+                } finally {
+                    metrics.recordCommand(command.getClass(), parseNanos, System.nanoTime() - executeStart,
+                            allocatedBefore);
+                    event.finish(command.getClass(), fullCommand, current == null ? 0 : current.size());
+                }
 
                 // Check exit condition
                 isExit = command.isExit();
 
             } catch (FinchException e) {
                 ui.showError(e.getMessage());
+            } catch (UncheckedFinchException e) {
+                ui.showError(e.getCause().getMessage()); // e.g. a lazily loaded task that cannot be decoded
             } catch (Exception e) {
                 ui.showError("Unexpected error: " + e.getMessage());
             } finally {
+                showDueReminders();
                 ui.showLine();
+                ui.flush(); // one write for the command's whole output
             }
         }
+
+        if (storage != null && tasks != null) {
+            try {
+                storage.flush(tasks);
+            } catch (FinchException e) {
+                ui.showError(e.getMessage());
+            }
+        }
+        ui.flush();
+    }
+
+    // Shows the deadlines and events that came due since the last command, if any
+    private void showDueReminders() {
+        List<Task> due = new ArrayList<>();
+        Task task;
+        while ((task = dueReminders.poll()) != null) {
+            due.add(task);
+        }
+        if (!due.isEmpty()) {
+            ui.showReminders(due);
+        }
+    }
+
+    /**
+     * Serves clients over TCP on localhost until the process is stopped.
+     * Each client gets its own session on a virtual thread, with its own undo
+     * history, as described in {@link Server}.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @throws FinchException if the port cannot be listened on
+     */
+    public void serve(int port) throws FinchException {
+        new Server(awaitTasks(), storage, ui, undoDepth).serve(port);
+    }
+
+    /**
+     * Converts the data file back to the text format, or writes a text copy of it.
+     *
+     * @param options the parsed command-line options, naming the data file and export path
+     * @throws FinchException if the tasks cannot be loaded or written
+     */
+    private static void exportText(Options options) throws FinchException {
+        Storage storage = new Storage(options.getFilePath());
+        TaskList tasks = storage.load();
+        if (options.getExportPath() == null) {
+            storage.setBinary(false);
+            storage.save(tasks);
+            System.out.println("Converted " + options.getFilePath() + " to text (" + tasks.size() + " tasks).");
+        } else {
+            storage.exportText(tasks, options.getExportPath());
+            System.out.println("Exported " + tasks.size() + " tasks to " + options.getExportPath() + ".");
+        }
+    }
+
+    // Prints the metrics to standard error, so that they stay out of the output of a batch run
+    private static void showStatsOnExit() {
+        Ui errors = new Ui(InputStream.nullInputStream(), new FileOutputStream(FileDescriptor.err));
+        errors.showLine();
+        errors.showStats(Metrics.get());
+        errors.showLine();
+        errors.flush();
     }
 
     /**
      * The main entry point for the Finch application.
      *
-     * @param args command-line arguments (not used)
+     * @param args command-line arguments, see {@link Options}
      */
     public static void main(String[] args) {
-        new Finch("data/tasks.txt").run();
+        Finch finch;
+        try {
+            Options options = Options.parse(args);
+            if (options.isExportText()) {
+                exportText(options);
+                return;
+            }
+            finch = new Finch(options);
+            if (options.isStatsOnExit()) {
+                Runtime.getRuntime().addShutdownHook(new Thread(Finch::showStatsOnExit, "finch-stats-on-exit"));
+            }
+            if (options.isServing()) {
+                finch.serve(options.getServePort());
+                return;
+            }
+        } catch (FinchException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+        finch.run();
     }
 }
\ No newline at end of file
@@ -0,0 +1,228 @@
+package finch;
+
+import finch.exception.FinchException;
+import finch.task.UndoHistory;
+
+/**
+ * Holds the command-line options that Finch was launched with.
+ * <p>
+ * Options are parsed once in {@link Finch#main(String[])} and then used to
+ * configure the {@link finch.storage.Storage} and the main loop.
+ *
+ * <p>Supported options:</p>
+ * <ul>
+ *     <li>{@code --journal} - append one record per mutation instead of rewriting the data file</li>
+ *     <li>{@code --binary} - write the data file in the compact binary format</li>
+ *     <li>{@code --lazy} - decode the tasks of a text data file only as they are first used,
+ *         so that large files open at once</li>
+ *     <li>{@code --file <path>} - use a different data file (default {@code data/tasks.txt})</li>
+ *     <li>{@code --batch <script>} - run the commands in a script file, then exit</li>
+ *     <li>{@code --group <n>} - in batch mode, save once every {@code n} mutations
+ *         instead of once at the end</li>
+ *     <li>{@code --async} - save in the background instead of before the next prompt</li>
+ *     <li>{@code --flush-delay <ms>} - in asynchronous mode, the longest a change may stay unsaved
+ *         (default 1000)</li>
+ *     <li>{@code --flush-after <n>} - in asynchronous mode, the most changes that may be unsaved
+ *         at once (default 1000)</li>
+ *     <li>{@code --undo-depth <n>} - the most changes that {@code undo} can go back through
+ *         (default 100); 0 turns undo off</li>
+ *     <li>{@code --stats-on-exit} - print the same timings as the {@code stats} command
+ *         to standard error when Finch exits</li>
+ *     <li>{@code --serve <port>} - serve clients over TCP on localhost instead of reading standard input;
+ *         port 0 picks a free port</li>
+ *     <li>{@code export-text [path]} - write the tasks out in the text format and exit;
+ *         without a path, the data file itself is converted back to text</li>
+ * </ul>
+ * <p>
+ * {@code --journal}, {@code --batch} and {@code --async} each choose how
+ * changes are saved, so at most one of them may be given, and {@code --group}
+ * only goes with batch mode.
+ */
+public class Options {
+
+    // Highest valid TCP port
+    private static final int MAX_PORT = 65535;
+
+    // Default location of the data file
+    private static final String DEFAULT_FILE_PATH = "data/tasks.txt";
+
+    private String filePath = DEFAULT_FILE_PATH;
+    private boolean isJournaled = false;
+    private boolean isBinary = false;
+    private boolean isLazy = false;
+    private String batchPath = null;
+    private int groupSize = 0;
+    private boolean isAsync = false;
+    private long flushDelayMillis = 1000;
+    private int flushAfterMutations = 1000;
+    private int undoDepth = UndoHistory.DEFAULT_DEPTH;
+    private boolean isStatsOnExit = false;
+    private int servePort = -1;
+    private boolean isExportText = false;
+    private String exportPath = null;
+
+    /**
+     * Parses the given command-line arguments into an {@code Options} object.
+     *
+     * @param args the raw command-line arguments
+     * @return the parsed options
+     * @throws FinchException if an option is unknown or is missing its value
+     */
+    public static Options parse(String[] args) throws FinchException {
+        Options options = new Options();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--journal":
+                options.isJournaled = true;
+                break;
+            case "--binary":
+                options.isBinary = true;
+                break;
+            case "--lazy":
+                options.isLazy = true;
+                break;
+            case "--file":
+                options.filePath = requireValue(args, ++i, "--file");
+                break;
+            case "--batch":
+                options.batchPath = requireValue(args, ++i, "--batch");
+                break;
+            case "--group":
+                options.groupSize = parseCount(requireValue(args, ++i, "--group"), "--group", 0);
+                break;
+            case "--async":
+                options.isAsync = true;
+                break;
+            case "--flush-delay":
+                options.flushDelayMillis = parseCount(requireValue(args, ++i, "--flush-delay"), "--flush-delay", 0);
+                break;
+            case "--flush-after":
+                options.flushAfterMutations = parseCount(requireValue(args, ++i, "--flush-after"), "--flush-after", 1);
+                break;
+            case "--undo-depth":
+                options.undoDepth = parseCount(requireValue(args, ++i, "--undo-depth"), "--undo-depth", 0);
+                break;
+            case "--stats-on-exit":
+                options.isStatsOnExit = true;
+                break;
+            case "--serve":
+                options.servePort = parseCount(requireValue(args, ++i, "--serve"), "--serve", 0);
+                if (options.servePort > MAX_PORT) {
+                    throw new FinchException("Option --serve requires a port of at most " + MAX_PORT);
+                }
+                break;
+            case "export-text":
+                options.isExportText = true;
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    options.exportPath = args[++i];
+                }
+                break;
+            default:
+                throw new FinchException("Unknown option: " + args[i]);
+            }
+        }
+        if (options.isServing() && options.batchPath != null) {
+            throw new FinchException("Use either --serve or --batch, not both.");
+        }
+        int saveModes = (options.isJournaled ? 1 : 0) + (options.batchPath != null ? 1 : 0)
+                + (options.isAsync ? 1 : 0);
+        if (saveModes > 1) {
+            throw new FinchException("Use only one of --journal, --batch and --async.");
+        }
+        if (options.groupSize > 0 && (options.isJournaled || options.isAsync)) {
+            throw new FinchException("Option --group only applies in batch mode, not with --journal or --async.");
+        }
+        return options;
+    }
+
+    // Returns the value following an option, or throws if it is missing
+    private static String requireValue(String[] args, int index, String option) throws FinchException {
+        if (index >= args.length || args[index].startsWith("--")) {
+            throw new FinchException("Option " + option + " requires a value");
+        }
+        return args[index];
+    }
+
+    // Parses the numeric value of an option, which must be at least the given minimum
+    private static int parseCount(String value, String option, int min) throws FinchException {
+        try {
+            int count = Integer.parseInt(value);
+            if (count >= min) {
+                return count;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
+        }
+        throw new FinchException("Option " + option + " requires a number of at least " + min + ": " + value);
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public boolean isJournaled() {
+        return isJournaled;
+    }
+
+    public boolean isBinary() {
+        return isBinary;
+    }
+
+    public boolean isLazy() {
+        return isLazy;
+    }
+
+    // Returns the batch script to run, or null to read commands from standard input
+    public String getBatchPath() {
+        return batchPath;
+    }
+
+    // Returns the number of mutations per save in batch mode, or 0 to save once at the end
+    public int getGroupSize() {
+        return groupSize;
+    }
+
+    public boolean isAsync() {
+        return isAsync;
+    }
+
+    // Returns whether an option chose how changes are saved, which piped input must not override
+    public boolean hasSaveMode() {
+        return isJournaled || batchPath != null || isAsync;
+    }
+
+    public long getFlushDelayMillis() {
+        return flushDelayMillis;
+    }
+
+    public int getFlushAfterMutations() {
+        return flushAfterMutations;
+    }
+
+    // Returns the number of changes kept for undo, or 0 if undo is off
+    public int getUndoDepth() {
+        return undoDepth;
+    }
+
+    public boolean isStatsOnExit() {
+        return isStatsOnExit;
+    }
+
+    public boolean isServing() {
+        return servePort >= 0;
+    }
+
+    // Returns the port to serve clients on, or -1 if Finch reads standard input
+    public int getServePort() {
+        return servePort;
+    }
+
+    public boolean isExportText() {
+        return isExportText;
+    }
+
+    // Returns the export target, or null to convert the data file in place
+    public String getExportPath() {
+        return exportPath;
+    }
+}
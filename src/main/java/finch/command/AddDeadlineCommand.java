@@ -1,13 +1,17 @@
 package finch.command;
 
+import finch.task.Change;
 import finch.task.Task;
 import finch.task.TaskList;
+import finch.task.UndoHistory;
 import finch.ui.Ui;
 import finch.storage.Storage;
 import finch.exception.FinchException;
+import finch.parser.Tokenizer;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeParseException;
+import java.time.DateTimeException;
+import java.util.List;
 
 /**
  * Represents the command to add a {@code Deadline} task in the Finch application.
@@ -39,23 +43,30 @@ public class AddDeadlineCommand extends Command {
      *                        or if description/date fields are empty
      */
     public AddDeadlineCommand(String arguments) throws FinchException {
-        if (arguments == null || arguments.trim().isEmpty()) {
+        this(Tokenizer.ofArguments(arguments, Tokenizer.BY));
+    }
+
+    /**
+     * Constructs an {@code AddDeadlineCommand} from an already tokenized command line.
+     *
+     * @param tokens the tokens of the user input, with {@code /by} recognised as a flag
+     * @throws FinchException if the input is empty, missing '/by', has invalid date format,
+     *                        or if description/date fields are empty
+     */
+    public AddDeadlineCommand(Tokenizer tokens) throws FinchException {
+        if (tokens.isArgumentsEmpty()) {
             throw new FinchException("Deadline command cannot be emtpy. Format: deadline <desc> /by <yyyy-MM-dd HH:mm>");
         }
 
-        if (!arguments.contains("/by")) {
+        if (!tokens.hasFlag(Tokenizer.BY)) {
             throw new FinchException("Deadline command must contain '/by <date time>'");
         }
 
-        // Split description and date string
-        String[] parts = arguments.split("/by", 2);
-        String descriptionPart = parts[0].trim();
-        String byPart = parts[1].trim();
-
+        String descriptionPart = tokens.description();
         if (descriptionPart.isEmpty()) {
             throw new FinchException("Deadline description cannot be empty.");
         }
-        if (byPart.isEmpty()) {
+        if (tokens.isValueEmpty(Tokenizer.BY)) {
             throw new FinchException("Deadline date/time cannot be empty.");
         }
 
@@ -63,8 +74,8 @@ public class AddDeadlineCommand extends Command {
 
         // Parse date + time
         try {
-            this.by = LocalDateTime.parse(byPart.replace(" ", "T"));
-        } catch (DateTimeParseException e) {
+            this.by = tokens.dateTimeValue(Tokenizer.BY);
+        } catch (DateTimeException e) {
             throw new FinchException("Invalid date/time format. Use yyyy-MM-dd HH:mm (e.g., 2025-09-26 18:00).");
         }
     }
@@ -73,19 +84,22 @@ public class AddDeadlineCommand extends Command {
      * Executes the command by adding a new {@code Deadline} task to the task list.
      * <ul>
      *   <li>Creates and appends a {@code Deadline} task with the given description and deadline</li>
+     *   <li>Records the addition so that it can be undone</li>
      *   <li>Displays a confirmation message to the user</li>
      *   <li>Saves the updated task list to persistent storage</li>
      * </ul>
      *
      * @param tasks   the {@link TaskList} to which the task is added
+     * @param history the {@link UndoHistory} to record the change in
      * @param ui      the {@link Ui} for showing feedback to the user
      * @param storage the {@link Storage} for saving the updated task list
      * @throws FinchException if saving fails or if task creation is invalid
      */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws FinchException {
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
         Task t = tasks.addDeadline(description, by);
+        history.record(Change.added(List.of(t)));
         ui.showAdded(t, tasks.size());
-        storage.save(tasks);
+        storage.saveAdded(tasks, t);
     }
 }
\ No newline at end of file
@@ -1,12 +1,17 @@
 package finch.command;
 
+import finch.task.Change;
 import finch.task.Task;
 import finch.task.TaskList;
+import finch.task.UndoHistory;
 import finch.ui.Ui;
 import finch.storage.Storage;
 import finch.exception.FinchException;
+import finch.parser.Tokenizer;
 
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Represents the command to add an {@code Event} task in the Finch application.
@@ -20,6 +25,7 @@ import java.time.LocalDateTime;
  * <pre>
  *     event &lt;desc&gt; /from yyyy-MM-dd HH:mm /to yyyy-MM-dd HH:mm
  * </pre>
+ * The '/from' and '/to' parts may also be given the other way round.
  * Example:
  * <pre>
  *     event project meeting /from 2025-09-26 14:00 /to 2025-09-26 16:00
@@ -39,40 +45,35 @@ public class AddEventCommand extends Command {
      *                        or if description/date fields are empty
      */
     public AddEventCommand(String arguments) throws FinchException {
-        if (arguments == null || arguments.trim().isEmpty()) {
+        this(Tokenizer.ofArguments(arguments, Tokenizer.FROM, Tokenizer.TO));
+    }
+
+    /**
+     * Constructs an {@code AddEventCommand} from an already tokenized command line.
+     * The '/from' and '/to' flags may be given in either order.
+     *
+     * @param tokens the tokens of the user input, with {@code /from} and {@code /to} recognised as flags
+     * @throws FinchException if the input is empty, missing '/from' or '/to', has invalid date format,
+     *                        or if description/date fields are empty
+     */
+    public AddEventCommand(Tokenizer tokens) throws FinchException {
+        if (tokens.isArgumentsEmpty()) {
             throw new FinchException("Event command cannot be empty. Format: event <desc> /from <start> /to <end>");
         }
 
         // Ensure both /from and /to exist
-        if (!arguments.contains("/from") || !arguments.contains("/to")) {
+        if (!tokens.hasFlag(Tokenizer.FROM) || !tokens.hasFlag(Tokenizer.TO)) {
             throw new FinchException("Event command must contain both '/from <start>' and '/to <end>'");
         }
 
-        // Split /from and /to
-        int indexFrom = arguments.indexOf("/from");
-        int indexTo = arguments.indexOf("/to");
-        if (indexFrom > indexTo) {
-            throw new FinchException("'/from' must come before '/to'");
-        }
-
-        // Split description and dates
-        String[] parts = arguments.split("/from", 2);
-
-        String descriptionPart = parts[0].trim();
-        String remaining = parts[1].trim();
-
-        String[] fromToParts = remaining.split("/to", 2);
-
-        String fromPart = fromToParts[0].trim();
-        String toPart = fromToParts[1].trim();
-
+        String descriptionPart = tokens.description();
         if (descriptionPart.isEmpty()) {
             throw new FinchException("Event description cannot be empty");
         }
-        if (fromPart.isEmpty()) {
+        if (tokens.isValueEmpty(Tokenizer.FROM)) {
             throw new FinchException("Event start date/time (/from) cannot be empty");
         }
-        if (toPart.isEmpty()) {
+        if (tokens.isValueEmpty(Tokenizer.TO)) {
             throw new FinchException("Event end date/time (/to) cannot be empty");
         }
 
@@ -80,9 +81,9 @@ public class AddEventCommand extends Command {
 
         // Parse date + time
         try {
-            this.from = LocalDateTime.parse(fromPart.replace(" ", "T"));
-            this.to = LocalDateTime.parse(toPart.replace(" ", "T"));
-        } catch (Exception e) {
+            this.from = tokens.dateTimeValue(Tokenizer.FROM);
+            this.to = tokens.dateTimeValue(Tokenizer.TO);
+        } catch (DateTimeException e) {
             throw new FinchException("Invalid date/time format. Use yyyy-MM-dd HH:mm (e.g., 2025-09-26 14:00)");
         }
     }
@@ -91,19 +92,22 @@ public class AddEventCommand extends Command {
      * Executes the command by adding a new {@code Event} task to the task list.
      * <ul>
      *   <li>Creates and appends an {@code Event} task with the given description and time range</li>
+     *   <li>Records the addition so that it can be undone</li>
      *   <li>Displays a confirmation message to the user</li>
      *   <li>Saves the updated task list to persistent storage</li>
      * </ul>
      *
      * @param tasks   the {@link TaskList} to which the task is added
+     * @param history the {@link UndoHistory} to record the change in
      * @param ui      the {@link Ui} for showing feedback to the user
      * @param storage the {@link Storage} for saving the updated task list
      * @throws FinchException if saving fails or if task creation is invalid
      */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws FinchException {
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
         Task t = tasks.addEvent(description, from, to);
+        history.record(Change.added(List.of(t)));
         ui.showAdded(t, tasks.size());
-        storage.save(tasks);
+        storage.saveAdded(tasks, t);
     }
 }
\ No newline at end of file
@@ -1,11 +1,15 @@
 package finch.command;
 
+import finch.task.Change;
 import finch.task.Task;
 import finch.task.TaskList;
+import finch.task.UndoHistory;
 import finch.ui.Ui;
 import finch.storage.Storage;
 import finch.exception.FinchException;
 
+import java.util.List;
+
 /**
  * Represents the command to add a {@code ToDo} task in the Finch application.
  * <p>
@@ -33,19 +37,22 @@ public class AddTodoCommand extends Command {
      * Executes the command by adding a new {@code ToDo} task to the task list.
      * <ul>
      *   <li>Creates and appends a {@code ToDo} task with the given description</li>
+     *   <li>Records the addition so that it can be undone</li>
      *   <li>Displays a confirmation message to the user</li>
      *   <li>Saves the updated task list to persistent storage</li>
      * </ul>
      *
      * @param tasks   the {@link TaskList} to which the task is added
+     * @param history the {@link UndoHistory} to record the change in
      * @param ui      the {@link Ui} for showing feedback to the user
      * @param storage the {@link Storage} for saving the updated task list
      * @throws FinchException if saving fails or if the description is invalid
      */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws FinchException {
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
         Task t = tasks.addTodo(description);
+        history.record(Change.added(List.of(t)));
         ui.showAdded(t, tasks.size());
-        storage.save(tasks);
+        storage.saveAdded(tasks, t);
     }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package finch.command;
+
+import finch.task.Task;
+import finch.task.TaskList;
+import finch.task.UndoHistory;
+import finch.ui.Ui;
+import finch.storage.Storage;
+import finch.exception.FinchException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Represents the command to show the deadlines and events within a range of dates.
+ * <p>
+ * Both dates are inclusive. A deadline is shown if it is due within the range,
+ * and an event is shown if it overlaps the range.
+ * </p>
+ *
+ * <p><b>Expected input format:</b></p>
+ * <pre>
+ *     between yyyy-MM-dd yyyy-MM-dd
+ * </pre>
+ * Example:
+ * <pre>
+ *     between 2025-09-22 2025-09-28
+ * </pre>
+ */
+public class BetweenCommand extends Command {
+    private static final String FORMAT = "between <yyyy-MM-dd> <yyyy-MM-dd>";
+
+    private final LocalDate start;
+    private final LocalDate end;
+
+    /**
+     * Constructs a {@code BetweenCommand} by parsing the two dates provided by the user.
+     *
+     * @param arguments the raw argument string (expected to be two dates in yyyy-MM-dd form)
+     * @throws FinchException if either date is missing or invalid
+     */
+    public BetweenCommand(String arguments) throws FinchException {
+        String[] parts = arguments == null ? new String[0] : arguments.trim().split("\\s+");
+        if (parts.length != 2) {
+            throw new FinchException("Please provide a start and an end date. Format: " + FORMAT);
+        }
+        this.start = parseDate(parts[0], FORMAT);
+        this.end = parseDate(parts[1], FORMAT);
+    }
+
+    /**
+     * Executes the command by showing the deadlines and events within the date range.
+     *
+     * @param tasks   the {@link TaskList} to query
+     * @param history the {@link UndoHistory} of the session (unused in this command)
+     * @param ui      the {@link Ui} for displaying the matching tasks
+     * @param storage the {@link Storage} (unused in this command, but included for consistency)
+     * @throws FinchException if the end date is before the start date
+     */
+    @Override
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
+        List<Task> results = tasks.findBetween(start.atStartOfDay(), end.atTime(LocalTime.MAX));
+        ui.showMatchingTasks(results, "Here are your tasks between " + start + " and " + end + ":",
+                "You have nothing scheduled between " + start + " and " + end + ".");
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
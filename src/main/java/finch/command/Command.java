@@ -1,15 +1,60 @@
 package finch.command;
 
 import finch.task.TaskList;
+import finch.task.UndoHistory;
 import finch.ui.Ui;
 import finch.storage.Storage;
 import finch.exception.FinchException;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
 public abstract class Command {
     // Execute the command
-    public abstract void execute(TaskList tasks, Ui ui, Storage storage) throws FinchException;
+    public abstract void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException;
 
     public boolean isExit() {
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns whether this command only reads the task list. Such commands
+     * read from a snapshot of the list, so they may run while another thread
+     * is mutating it.
+     *
+     * @return {@code true} if the command never changes the list or storage
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * Returns whether this command needs the task list. Commands that do not
+     * are run straight away while the tasks are still loading, and are then
+     * given a {@code null} list.
+     *
+     * @return {@code true} if the command must wait for the tasks to load
+     */
+    public boolean requiresTasks() {
+        return true;
+    }
+
+    /**
+     * Parses a date argument in {@code yyyy-MM-dd} form.
+     *
+     * @param argument the raw argument string
+     * @param format the command format to show the user if the argument is invalid
+     * @return the parsed date
+     * @throws FinchException if the argument is empty or not a valid date
+     */
+    protected static LocalDate parseDate(String argument, String format) throws FinchException {
+        if (argument == null || argument.trim().isEmpty()) {
+            throw new FinchException("Please provide a date. Format: " + format);
+        }
+        try {
+            return LocalDate.parse(argument.trim());
+        } catch (DateTimeParseException e) {
+            throw new FinchException("Invalid date format. Use yyyy-MM-dd (e.g., 2025-09-26).");
+        }
+    }
+}
@@ -1,62 +1,81 @@
 package finch.command;
 
+import finch.task.Change;
 import finch.task.Task;
 import finch.task.TaskList;
+import finch.task.UndoHistory;
 import finch.ui.Ui;
 import finch.storage.Storage;
 import finch.exception.FinchException;
 
+import java.util.List;
+
 /**
  * Represents the command to delete a task from the {@link TaskList}.
  * <p>
- * The {@code DeleteCommand} parses a user-provided task number, validates it,
+ * The {@code DeleteCommand} parses a user-provided task number or {@code #id}, validates it,
  * and when executed, removes the corresponding task from the task list,
  * shows confirmation to the user, and updates the persistent storage.
  * </p>
+ * <p>
+ * Several tasks may be given at once, as a comma-separated list of task
+ * numbers, ranges and {@code #id}s. They are all removed in one pass over
+ * the list and saved with a single write, and only the first few are shown.
+ * </p>
  *
  * <p><b>Expected input format:</b></p>
  * <pre>
  *     delete &lt;taskNumber&gt;
+ *     delete #&lt;taskId&gt;
+ *     delete &lt;number|from-to|#id&gt;,...
  * </pre>
  * Example:
  * <pre>
  *     delete 2
+ *     delete #15
+ *     delete 3,7,10-400
  * </pre>
  */
 public class DeleteCommand extends Command {
-    private final int index;
+    private final TaskSelection selection;
 
     /**
-     * Constructs a {@code DeleteCommand} by parsing the task number provided by the user.
+     * Constructs a {@code DeleteCommand} by parsing the task numbers, ranges or IDs provided by the user.
      *
-     * @param argument the raw argument string (expected to be a valid integer task number)
-     * @throws FinchException if the input is not a valid integer
+     * @param argument the raw argument string (task numbers, {@code from-to} ranges or {@code #id}s, comma-separated)
+     * @throws FinchException if any item is not a valid integer, range or {@code #id}
      */
     public DeleteCommand(String argument) throws FinchException {
-        try {
-            this.index = Integer.parseInt(argument.trim()) - 1;
-        } catch (NumberFormatException e) {
-            throw new FinchException("Please provide a valid task number to delete.");
-        }
+        this.selection = TaskSelection.parse(argument, "delete");
     }
 
     /**
-     * Executes the command by deleting the specified task from the task list.
+     * Executes the command by deleting the specified tasks from the task list.
      * <ul>
-     *   <li>Removes the task at the given index from {@link TaskList}</li>
+     *   <li>Removes the referenced tasks from {@link TaskList}, all at once</li>
+     *   <li>Records the deletion so that it can be undone</li>
      *   <li>Displays a confirmation message via {@link Ui}</li>
      *   <li>Saves the updated task list to {@link Storage}</li>
      * </ul>
      *
      * @param tasks   the {@link TaskList} from which the task is deleted
+     * @param history the {@link UndoHistory} to record the change in
      * @param ui      the {@link Ui} for showing feedback to the user
      * @param storage the {@link Storage} for saving the updated task list
-     * @throws FinchException if the index is invalid or saving fails
+     * @throws FinchException if any of the tasks does not exist or saving fails
      */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws FinchException {
-        Task removed = tasks.deleteTask(index);
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
+        if (!selection.isSingle()) {
+            List<Task> removed = tasks.deleteTasks(selection.toIndices(tasks));
+            history.record(Change.deleted(removed));
+            ui.showDeleted(removed, tasks.size());
+            storage.saveDeleted(tasks, removed);
+            return;
+        }
+        Task removed = tasks.deleteTask(selection.getSingle().toIndex(tasks));
+        history.record(Change.deleted(List.of(removed)));
         ui.showDeleted(removed, tasks.size());
-        storage.save(tasks);
+        storage.saveDeleted(tasks, removed);
     }
 }
\ No newline at end of file
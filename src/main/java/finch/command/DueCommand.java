@@ -0,0 +1,62 @@
+package finch.command;
+
+import finch.task.Task;
+import finch.task.TaskList;
+import finch.task.UndoHistory;
+import finch.ui.Ui;
+import finch.storage.Storage;
+import finch.exception.FinchException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Represents the command to show all deadlines due on or before a given date.
+ * <p>
+ * The {@code DueCommand} queries the date index of the {@link TaskList}, so it
+ * only looks at the matching deadlines rather than the whole list.
+ * </p>
+ *
+ * <p><b>Expected input format:</b></p>
+ * <pre>
+ *     due yyyy-MM-dd
+ * </pre>
+ * Example:
+ * <pre>
+ *     due 2025-09-28
+ * </pre>
+ */
+public class DueCommand extends Command {
+    private final LocalDate date;
+
+    /**
+     * Constructs a {@code DueCommand} by parsing the date provided by the user.
+     *
+     * @param argument the raw argument string (expected to be a date in yyyy-MM-dd form)
+     * @throws FinchException if the date is missing or invalid
+     */
+    public DueCommand(String argument) throws FinchException {
+        this.date = parseDate(argument, "due <yyyy-MM-dd>");
+    }
+
+    /**
+     * Executes the command by showing the deadlines due up to the end of the given date.
+     *
+     * @param tasks   the {@link TaskList} to query
+     * @param history the {@link UndoHistory} of the session (unused in this command)
+     * @param ui      the {@link Ui} for displaying the matching deadlines
+     * @param storage the {@link Storage} (unused in this command, but included for consistency)
+     */
+    @Override
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) {
+        List<Task> results = tasks.findDueBy(date.atTime(LocalTime.MAX));
+        ui.showMatchingTasks(results, "Here are the deadlines due by " + date + ":",
+                "No deadlines are due by " + date + ".");
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -1,6 +1,7 @@
 package finch.command;
 
 import finch.task.TaskList;
+import finch.task.UndoHistory;
 import finch.ui.Ui;
 import finch.storage.Storage;
 import finch.exception.FinchException;
@@ -8,7 +9,14 @@ import finch.exception.FinchException;
 public class ExitCommand extends Command {
 
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws FinchException {
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
+        if (storage != null && tasks != null) { // nothing can be unsaved while the tasks are still loading
+            try {
+                storage.flush(tasks); // wait for deferred saves before the app exits
+            } catch (FinchException e) {
+                ui.showError(e.getMessage());
+            }
+        }
         ui.showGoodbye();
     }
 
@@ -16,4 +24,9 @@ public class ExitCommand extends Command {
     public boolean isExit() {
         return true; // Signals the app to exit
     }
+
+    @Override
+    public boolean requiresTasks() {
+        return false;
+    }
 }
\ No newline at end of file
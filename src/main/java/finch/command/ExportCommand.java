@@ -0,0 +1,66 @@
+package finch.command;
+
+import finch.task.TaskList;
+import finch.task.UndoHistory;
+import finch.ui.Ui;
+import finch.storage.ExchangeFormat;
+import finch.storage.Storage;
+import finch.storage.TaskExchange;
+import finch.exception.FinchException;
+
+/**
+ * Represents the command to write every task in the {@link TaskList} to a
+ * CSV, JSON Lines or iCalendar file, for use in other systems.
+ * <p>
+ * The tasks are streamed from a snapshot of the list, so the list can keep
+ * changing while they are written, and an existing file is only replaced
+ * once the export is complete.
+ * </p>
+ *
+ * <p><b>Expected input format:</b></p>
+ * <pre>
+ *     export &lt;file&gt;
+ * </pre>
+ * Example:
+ * <pre>
+ *     export calendar.ics
+ * </pre>
+ */
+public class ExportCommand extends Command {
+
+    private final String path;
+
+    /**
+     * Constructs an {@code ExportCommand} for the given file.
+     *
+     * @param arguments the path of the file; its extension gives its format
+     * @throws FinchException if the path is empty or has no known extension
+     */
+    public ExportCommand(String arguments) throws FinchException {
+        if (arguments == null || arguments.trim().isEmpty()) {
+            throw new FinchException("Export command needs a file. Format: export <file.csv|file.jsonl|file.ics>");
+        }
+        this.path = arguments.trim();
+        ExchangeFormat.forPath(path);
+    }
+
+    /**
+     * Executes the command by writing the tasks to the file.
+     *
+     * @param tasks   the {@link TaskList} to export
+     * @param history the {@link UndoHistory} of the session (unused in this command)
+     * @param ui      the {@link Ui} for showing feedback to the user
+     * @param storage not used, as exporting does not change the list
+     * @throws FinchException if the file cannot be written
+     */
+    @Override
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
+        int count = TaskExchange.exportTasks(tasks.snapshot(), path);
+        ui.showExported(count, path);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
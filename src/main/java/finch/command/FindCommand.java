@@ -1,36 +1,92 @@
 package finch.command;
 
 import finch.storage.Storage;
+import finch.task.FuzzyMatch;
 import finch.task.Task;
 import finch.task.TaskList;
+import finch.task.UndoHistory;
 import finch.ui.Ui;
 import finch.exception.FinchException;
+import java.util.Arrays;
 import java.util.List;
 
 public class FindCommand extends Command {
 
+    private static final String FUZZY_FORMAT = "find --fuzzy <query> [--top <k>]";
+
+    // Matches shown by a fuzzy search when --top is not given
+    private static final int DEFAULT_TOP = 10;
+
     private final String keyword;
 
-    // Constructs a FindCommand with the specified search keyword
+    // Whether to rank tasks by how close they come to the keyword, instead of requiring it exactly
+    private final boolean isFuzzy;
+
+    // Most matches shown by a fuzzy search
+    private final int top;
+
+    // Constructs a FindCommand with the specified search keyword, or a fuzzy search given by --fuzzy [--top K];
+    // --top only counts with --fuzzy, so a plain find for "--top" still looks for that text
     public FindCommand(String keyword) throws FinchException {
         if (keyword == null || keyword.trim().isEmpty()) {
             throw new FinchException("Keyword cannot be empty.");
         }
-        this.keyword = keyword.trim();
+        String[] words = keyword.trim().split("\\s+");
+        if (!Arrays.asList(words).contains("--fuzzy")) {
+            // Plain searches take the keyword as typed, spaces, dashes and all
+            this.keyword = keyword.trim();
+            this.isFuzzy = false;
+            this.top = 0;
+            return;
+        }
+
+        int count = DEFAULT_TOP;
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < words.length; i++) {
+            if (words[i].equals("--top")) {
+                if (i + 1 >= words.length) {
+                    throw new FinchException("Please give the number of matches to show. Use: " + FUZZY_FORMAT);
+                }
+                count = parseTop(words[++i]);
+            } else if (!words[i].equals("--fuzzy")) {
+                query.append(query.length() == 0 ? "" : " ").append(words[i]);
+            }
+        }
+        if (query.length() == 0) {
+            throw new FinchException("Keyword cannot be empty. Use: " + FUZZY_FORMAT);
+        }
+        this.keyword = query.toString();
+        this.isFuzzy = true;
+        this.top = count;
     }
 
     // Executes the find command: searches for tasks containing the keyword, then prints the matching tasks to the user
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws FinchException {
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
+        if (isFuzzy) {
+            List<FuzzyMatch> matches = tasks.findFuzzy(keyword, top);
+            ui.showFuzzyMatches(matches, keyword);
+            return;
+        }
         List<Task> results = tasks.findTasks(keyword);
+        ui.showFoundTasks(results, keyword);
+    }
 
-        if (results.isEmpty()) {
-            System.out.println("    No tasks match your search: " + keyword);
-        } else {
-            System.out.println("    Here are the matching tasks in your list:");
-            for (int i = 0; i < results.size(); i++) {
-                System.out.printf("    %d.%s%n", i + 1, results.get(i));
+    // Parses the number of matches to show, which must be a positive number
+    private static int parseTop(String word) throws FinchException {
+        try {
+            int value = Integer.parseInt(word);
+            if (value > 0) {
+                return value;
             }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
         }
+        throw new FinchException("The number of matches must be a positive number. Use: " + FUZZY_FORMAT);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package finch.command;
+
+import finch.task.Change;
+import finch.task.Task;
+import finch.task.TaskList;
+import finch.task.UndoHistory;
+import finch.ui.Ui;
+import finch.storage.ExchangeFormat;
+import finch.storage.Storage;
+import finch.storage.TaskExchange;
+import finch.exception.FinchException;
+
+import java.util.List;
+
+/**
+ * Represents the command to add the tasks in a CSV, JSON Lines or iCalendar
+ * file to the end of the {@link TaskList}.
+ * <p>
+ * The file is read as a stream and parsed in parallel (see
+ * {@link TaskExchange}), and every task goes through the same checks as a
+ * task added by hand. If any record is invalid, nothing is added and the
+ * error names its line. The tasks get new IDs, are saved with a single write
+ * of the data file, and can be removed again with {@link UndoCommand}.
+ * </p>
+ *
+ * <p><b>Expected input format:</b></p>
+ * <pre>
+ *     import &lt;file&gt;
+ * </pre>
+ * Example:
+ * <pre>
+ *     import backup/tasks.csv
+ * </pre>
+ */
+public class ImportCommand extends Command {
+
+    private final String path;
+
+    /**
+     * Constructs an {@code ImportCommand} for the given file.
+     *
+     * @param arguments the path of the file; its extension gives its format
+     * @throws FinchException if the path is empty or has no known extension
+     */
+    public ImportCommand(String arguments) throws FinchException {
+        if (arguments == null || arguments.trim().isEmpty()) {
+            throw new FinchException("Import command needs a file. Format: import <file.csv|file.jsonl|file.ics>");
+        }
+        this.path = arguments.trim();
+        ExchangeFormat.forPath(path);
+    }
+
+    /**
+     * Executes the command by reading the file and adding its tasks.
+     *
+     * @param tasks   the {@link TaskList} to add the tasks to
+     * @param history the {@link UndoHistory} to record the change in
+     * @param ui      the {@link Ui} for showing feedback to the user
+     * @param storage the {@link Storage} for saving the updated task list
+     * @throws FinchException if the file cannot be read, a record is invalid, or saving fails
+     */
+    @Override
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
+        List<Task> imported = TaskExchange.importTasks(path);
+        tasks.addAll(imported);
+        if (!imported.isEmpty()) {
+            history.record(Change.added(imported));
+        }
+        ui.showImported(imported, path, tasks.size());
+        storage.saveImported(tasks, imported);
+    }
+}
@@ -1,40 +1,200 @@
 package finch.command;
 
+import finch.exception.FinchException;
 import finch.task.TaskList;
+import finch.task.TaskSnapshot;
+import finch.task.UndoHistory;
 import finch.ui.Ui;
 import finch.storage.Storage;
 
+import java.util.Arrays;
+
 /**
- * Represents the command to display all tasks in the {@link TaskList}.
+ * Represents the command to display the tasks in the {@link TaskList}.
  * <p>
  * The {@code ListCommand} does not modify the task list or storage.
- * It simply shows the user a formatted list of tasks via the {@link Ui}.
+ * It shows the user either every task, or only a window of the list: a
+ * range of task numbers, a page, or the last few tasks. Only the tasks in
+ * the window are formatted, so a window of a very large list shows
+ * straight away. Tasks keep their usual 1-based numbers in every form.
+ * With {@code --ids}, each task is also followed by its stable ID, which
+ * other commands accept as {@code #<id>}.
  * </p>
  *
  * <p><b>Expected input format:</b></p>
  * <pre>
  *     list
+ *     list &lt;from&gt;-&lt;to&gt;
+ *     list --page &lt;n&gt; [--size &lt;m&gt;]
+ *     list --tail &lt;n&gt;
  * </pre>
+ * Any of these may also take {@code --ids}.
  * Example:
  * <pre>
- *     list
+ *     list 1000-1200
+ *     list --page 3 --size 50
+ *     list --tail 20 --ids
  * </pre>
  */
 public class ListCommand extends Command {
 
+    private static final String FORMAT =
+            "list, list <from>-<to>, list --page <n> [--size <m>] or list --tail <n>, each optionally with --ids";
+
+    private static final String IDS = "--ids";
+
+    // Tasks per page when --page is given without --size
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    // Window of 1-based task numbers to show; ignored when tail is set
+    private final int first;
+    private final int last;
+
+    // Number of tasks to show from the end of the list, or 0
+    private final int tail;
+
+    // Page number for the error message when the page is past the end, or 0
+    private final int page;
+
+    // Whether each task is followed by its ID
+    private final boolean isShowingIds;
+
+    /**
+     * Constructs a {@code ListCommand} that shows every task.
+     */
+    public ListCommand() {
+        this.first = 1;
+        this.last = Integer.MAX_VALUE;
+        this.tail = 0;
+        this.page = 0;
+        this.isShowingIds = false;
+    }
+
     /**
-     * Executes the command by showing all tasks currently stored in the {@link TaskList}.
+     * Constructs a {@code ListCommand} by parsing the window requested by the user.
+     *
+     * @param argument the raw argument string; empty to show every task
+     * @throws FinchException if the argument is not one of the supported forms
+     */
+    public ListCommand(String argument) throws FinchException {
+        String[] words = argument.trim().isEmpty() ? new String[0] : argument.trim().split("\\s+");
+        boolean showIds = false;
+        int kept = 0;
+        for (String word : words) {
+            if (word.equals(IDS)) {
+                showIds = true;
+            } else {
+                words[kept++] = word;
+            }
+        }
+        words = Arrays.copyOf(words, kept);
+        int pageNumber = 0;
+        int pageSize = 0;
+        int tailCount = 0;
+        int from = 1;
+        int to = Integer.MAX_VALUE;
+
+        if (words.length == 1 && !words[0].startsWith("--")) {
+            int dash = words[0].indexOf('-');
+            if (dash < 0) {
+                throw new FinchException("Invalid list format. Use: " + FORMAT);
+            }
+            from = parsePositive(words[0].substring(0, dash));
+            to = parsePositive(words[0].substring(dash + 1));
+            if (to < from) {
+                throw new FinchException("The end of the range cannot be before its start.");
+            }
+        } else {
+            for (int i = 0; i < words.length; i += 2) {
+                if (i + 1 >= words.length) {
+                    throw new FinchException("Invalid list format. Use: " + FORMAT);
+                }
+                int value = parsePositive(words[i + 1]);
+                switch (words[i]) {
+                case "--page":
+                    pageNumber = value;
+                    break;
+                case "--size":
+                    pageSize = value;
+                    break;
+                case "--tail":
+                    tailCount = value;
+                    break;
+                default:
+                    throw new FinchException("Invalid list format. Use: " + FORMAT);
+                }
+            }
+            if (tailCount > 0 && (pageNumber > 0 || pageSize > 0)) {
+                throw new FinchException("Use either --tail or --page, not both.");
+            }
+            if (pageNumber > 0 || pageSize > 0) {
+                pageNumber = Math.max(pageNumber, 1);
+                pageSize = pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+                long start = (long) (pageNumber - 1) * pageSize + 1;
+                from = (int) Math.min(start, Integer.MAX_VALUE);
+                to = (int) Math.min(start + pageSize - 1, Integer.MAX_VALUE);
+            }
+        }
+
+        this.first = from;
+        this.last = to;
+        this.tail = tailCount;
+        this.page = pageNumber;
+        this.isShowingIds = showIds;
+    }
+
+    /**
+     * Executes the command by showing the requested tasks currently stored in the {@link TaskList}.
      * <ul>
      *   <li>Delegates the display of tasks to the {@link Ui}</li>
      *   <li>Does not alter the {@link TaskList} or {@link Storage}</li>
      * </ul>
      *
      * @param tasks   the {@link TaskList} containing all tasks
+     * @param history the {@link UndoHistory} of the session (unused in this command)
      * @param ui      the {@link Ui} for displaying the task list to the user
      * @param storage the {@link Storage} (unused in this command, but included for consistency)
+     * @throws FinchException if the requested window starts past the end of the list
      */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) {
-        ui.showTasks(tasks);
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
+        TaskSnapshot snapshot = tasks.snapshot(); // so that the size and the tasks shown agree
+        int size = snapshot.size();
+        boolean isWindow = tail > 0 || first > 1 || last < Integer.MAX_VALUE;
+        if (!isWindow || size == 0) {
+            ui.showTasks(snapshot, isShowingIds);
+            return;
+        }
+
+        if (tail > 0) {
+            int from = Math.max(0, size - tail);
+            ui.showTaskWindow(snapshot.iterator(from), from, size, size, isShowingIds);
+            return;
+        }
+        if (first > size) {
+            if (page > 0) {
+                throw new FinchException("Page " + page + " is past the end of your list of " + size + " tasks.");
+            }
+            throw new FinchException("Task number " + first + " does not exist!");
+        }
+        ui.showTaskWindow(snapshot.iterator(first - 1), first - 1, Math.min(last, size), size, isShowingIds);
+    }
+
+    // Parses a task number or count, which must be a positive number
+    private static int parsePositive(String word) throws FinchException {
+        try {
+            int value = Integer.parseInt(word);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
+        }
+        throw new FinchException("Invalid list format. Use: " + FORMAT);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -1,30 +1,40 @@
 package finch.command;
 
+import finch.task.Change;
 import finch.task.Task;
 import finch.task.TaskList;
+import finch.task.UndoHistory;
 import finch.ui.Ui;
 import finch.storage.Storage;
 import finch.exception.FinchException;
 
+import java.util.List;
+
 public class MarkCommand extends Command {
-    private final int index;
+    private final TaskSelection selection;
 
-    // Constructs a MarkCommand for the specified task index
+    // Constructs a MarkCommand for the specified task numbers, ranges and #ids, e.g. "1-5,#12"
     public MarkCommand(String argument) throws FinchException {
-        try {
-            this.index = Integer.parseInt(argument.trim()) - 1;
-        } catch (NumberFormatException e) {
-            throw new FinchException("Please provide a valid task number to mark.");
-        }
+        this.selection = TaskSelection.parse(argument, "mark");
     }
 
-    // Executes the mark command: marks the task at the given index as done, and shows a confirmation message to the user
+    // Executes the mark command: marks the selected tasks as done, saves once, and shows a confirmation message to the user
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws FinchException {
-        Task t = tasks.getTask(index);
-        if (t == null) throw new FinchException("Task number " + (index + 1) + " does not exist!");
-        tasks.markTask(index);
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
+        if (!selection.isSingle()) {
+            int[] indices = selection.toIndices(tasks);
+            List<Task> before = tasks.getTasks(indices);
+            List<Task> changed = tasks.markTasks(indices); // all in one pass
+            history.record(Change.marked(before));
+            ui.showMarked(changed);
+            storage.saveMarked(tasks, changed);
+            return;
+        }
+        int index = selection.getSingle().toIndex(tasks);
+        Task before = tasks.getTask(index);
+        Task t = tasks.markTask(index); // the task is replaced by a marked copy
+        history.record(Change.marked(List.of(before)));
         ui.showMarked(t);
-        storage.save(tasks);
+        storage.saveMarked(tasks, t);
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package finch.command;
+
+import finch.storage.Storage;
+import finch.task.ReminderScheduler;
+import finch.task.Task;
+import finch.task.TaskList;
+import finch.task.UndoHistory;
+import finch.ui.Ui;
+import finch.exception.FinchException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+public class NextCommand extends Command {
+
+    // Executes the next command: shows the deadline or event that comes due soonest, and how long until it does
+    @Override
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
+        Task next = tasks.getReminders().next();
+        if (next == null) {
+            ui.showNextReminder(null, null);
+            return;
+        }
+        ui.showNextReminder(next, Duration.between(LocalDateTime.now(), ReminderScheduler.dueTime(next)));
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package finch.command;
+
+import finch.task.Task;
+import finch.task.TaskList;
+import finch.task.UndoHistory;
+import finch.ui.Ui;
+import finch.storage.Storage;
+import finch.exception.FinchException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Represents the command to show the deadlines and events on a given date.
+ * <p>
+ * A deadline is shown if it is due on that date, and an event is shown if any
+ * part of it falls on that date.
+ * </p>
+ *
+ * <p><b>Expected input format:</b></p>
+ * <pre>
+ *     on yyyy-MM-dd
+ * </pre>
+ * Example:
+ * <pre>
+ *     on 2025-09-26
+ * </pre>
+ */
+public class OnCommand extends Command {
+    private final LocalDate date;
+
+    /**
+     * Constructs an {@code OnCommand} by parsing the date provided by the user.
+     *
+     * @param argument the raw argument string (expected to be a date in yyyy-MM-dd form)
+     * @throws FinchException if the date is missing or invalid
+     */
+    public OnCommand(String argument) throws FinchException {
+        this.date = parseDate(argument, "on <yyyy-MM-dd>");
+    }
+
+    /**
+     * Executes the command by showing the deadlines and events that fall on the given date.
+     *
+     * @param tasks   the {@link TaskList} to query
+     * @param history the {@link UndoHistory} of the session (unused in this command)
+     * @param ui      the {@link Ui} for displaying the matching tasks
+     * @param storage the {@link Storage} (unused in this command, but included for consistency)
+     * @throws FinchException if the date range is invalid
+     */
+    @Override
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
+        List<Task> results = tasks.findBetween(date.atStartOfDay(), date.atTime(LocalTime.MAX));
+        ui.showMatchingTasks(results, "Here are your tasks on " + date + ":",
+                "You have nothing scheduled on " + date + ".");
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
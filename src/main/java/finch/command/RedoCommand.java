@@ -0,0 +1,67 @@
+package finch.command;
+
+import finch.task.Change;
+import finch.task.Task;
+import finch.task.TaskList;
+import finch.task.UndoHistory;
+import finch.ui.Ui;
+import finch.storage.Storage;
+import finch.exception.FinchException;
+
+import java.util.List;
+
+/**
+ * Represents the command to redo the change that was last undone by
+ * {@link UndoCommand}.
+ * <p>
+ * Redoing repeats the change on the same tasks: added tasks are put back at
+ * the end of the list with their IDs, deleted tasks are deleted again, and
+ * marked or unmarked tasks are marked or unmarked again. Any new change to
+ * the list makes the undone changes impossible to redo.
+ * </p>
+ *
+ * <p><b>Expected input format:</b></p>
+ * <pre>
+ *     redo
+ * </pre>
+ */
+public class RedoCommand extends Command {
+
+    /**
+     * Executes the command by repeating the latest undone change.
+     *
+     * @param tasks   the {@link TaskList} to change again
+     * @param history the {@link UndoHistory} to take the change to redo from
+     * @param ui      the {@link Ui} for showing feedback to the user
+     * @param storage the {@link Storage} for saving the list
+     * @throws FinchException if there is nothing to redo, the change no longer fits the list, or saving fails
+     */
+    @Override
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
+        Change change = history.redo();
+        if (change == null) {
+            throw new FinchException("Nothing to redo.");
+        }
+
+        List<Task> changed = change.getTasks();
+        switch (change.getKind()) {
+        case ADDED:
+            tasks.restoreTasks(changed);
+            storage.saveRestored(tasks, changed);
+            break;
+        case DELETED:
+            List<Task> removed = tasks.deleteTasks(UndoCommand.indicesOf(tasks, history, changed));
+            storage.saveDeleted(tasks, removed);
+            break;
+        case MARKED:
+            changed = tasks.markTasks(UndoCommand.indicesOf(tasks, history, changed));
+            storage.saveMarked(tasks, changed);
+            break;
+        case UNMARKED:
+            changed = tasks.unmarkTasks(UndoCommand.indicesOf(tasks, history, changed));
+            storage.saveUnmarked(tasks, changed);
+            break;
+        }
+        ui.showRedone(change.getKind().getAction(), changed, tasks.size());
+    }
+}
@@ -0,0 +1,27 @@
+package finch.command;
+
+import finch.metrics.Metrics;
+import finch.storage.Storage;
+import finch.task.TaskList;
+import finch.task.UndoHistory;
+import finch.ui.Ui;
+import finch.exception.FinchException;
+
+public class StatsCommand extends Command {
+
+    // Executes the stats command: shows the timings and allocations of every command and storage operation so far
+    @Override
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
+        ui.showStats(Metrics.get());
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean requiresTasks() {
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+package finch.command;
+
+import finch.task.TaskList;
+import finch.exception.FinchException;
+
+/**
+ * A reference to a task given by the user, either by its displayed number
+ * (e.g. {@code 3}) or by its stable ID (e.g. {@code #12}).
+ * <p>
+ * A displayed number refers to whatever task is currently at that position,
+ * while an ID keeps referring to the same task after other tasks are deleted.
+ */
+class TaskReference {
+    // Zero-based index, used when the task was given by its displayed number
+    private final int index;
+
+    // Task ID, or 0 when the task was given by its displayed number
+    private final long id;
+
+    private TaskReference(int index, long id) {
+        this.index = index;
+        this.id = id;
+    }
+
+    /**
+     * Parses a task number or {@code #id} argument.
+     *
+     * @param argument the raw argument string provided by the user
+     * @param action the action being performed, used in the error message (e.g. "mark")
+     * @return the parsed reference
+     * @throws FinchException if the argument is neither a number nor a valid {@code #id}
+     */
+    static TaskReference parse(String argument, String action) throws FinchException {
+        String text = argument.trim();
+        try {
+            if (text.startsWith("#")) {
+                long id = Long.parseLong(text.substring(1));
+                if (id > 0) {
+                    return new TaskReference(-1, id);
+                }
+            } else {
+                return new TaskReference(Integer.parseInt(text) - 1, 0);
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
+        }
+        throw new FinchException("Please provide a valid task number to " + action + ".");
+    }
+
+    /**
+     * Returns the current zero-based index of the referenced task.
+     * For a displayed number the index is not validated here; the {@link TaskList}
+     * operation that uses it reports an invalid index.
+     *
+     * @param tasks the task list to look the task up in
+     * @return the index of the task
+     * @throws FinchException if the task was given by an ID that does not exist
+     */
+    int toIndex(TaskList tasks) throws FinchException {
+        return id > 0 ? tasks.indexOfId(id) : index;
+    }
+}
@@ -0,0 +1,118 @@
+package finch.command;
+
+import finch.task.TaskList;
+import finch.exception.FinchException;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A set of tasks given by the user as a comma-separated list of task
+ * numbers, ranges of task numbers and {@code #id}s, such as
+ * {@code 3,7,10-400,#15}.
+ * <p>
+ * Ranges are inclusive and refer to displayed numbers. A task named more
+ * than once, directly or through overlapping ranges, is selected once.
+ */
+class TaskSelection {
+    // Single tasks, by displayed number or ID
+    private final List<TaskReference> references;
+
+    // Inclusive ranges of zero-based indexes, as pairs of first and last
+    private final List<int[]> ranges;
+
+    private TaskSelection(List<TaskReference> references, List<int[]> ranges) {
+        this.references = references;
+        this.ranges = ranges;
+    }
+
+    /**
+     * Parses a list of task numbers, ranges and {@code #id}s.
+     *
+     * @param argument the raw argument string provided by the user
+     * @param action the action being performed, used in the error message (e.g. "mark")
+     * @return the parsed selection
+     * @throws FinchException if any item is not a number, a range or a valid {@code #id}
+     */
+    static TaskSelection parse(String argument, String action) throws FinchException {
+        List<TaskReference> references = new ArrayList<>();
+        List<int[]> ranges = new ArrayList<>();
+        for (String item : argument.split(",", -1)) {
+            String text = item.trim();
+            int dash = text.indexOf('-');
+            if (dash <= 0) {
+                references.add(TaskReference.parse(text, action));
+                continue;
+            }
+            int first = parseNumber(text.substring(0, dash), action);
+            int last = parseNumber(text.substring(dash + 1), action);
+            if (last < first) {
+                throw new FinchException("The end of the range cannot be before its start.");
+            }
+            ranges.add(new int[] {first - 1, last - 1});
+        }
+        return new TaskSelection(references, ranges);
+    }
+
+    /**
+     * Returns whether this selection names exactly one task by number or ID.
+     *
+     * @return {@code true} if the argument was a single task number or {@code #id}
+     */
+    boolean isSingle() {
+        return references.size() == 1 && ranges.isEmpty();
+    }
+
+    /**
+     * Returns the reference of a single selected task.
+     *
+     * @return the only reference, if {@link #isSingle()}
+     */
+    TaskReference getSingle() {
+        return references.get(0);
+    }
+
+    /**
+     * Returns the current zero-based indexes of the selected tasks, in
+     * ascending order and without repeats. This takes O(n / 64) for a list
+     * of n tasks, plus the cost of looking up each {@code #id}.
+     *
+     * @param tasks the task list to look the tasks up in
+     * @return the indexes of the selected tasks
+     * @throws FinchException if a selected task number or ID does not exist
+     */
+    int[] toIndices(TaskList tasks) throws FinchException {
+        int size = tasks.size();
+        BitSet selected = new BitSet(size);
+        for (TaskReference reference : references) {
+            int index = reference.toIndex(tasks);
+            validate(index, size);
+            selected.set(index);
+        }
+        for (int[] range : ranges) {
+            validate(range[1], size);
+            selected.set(range[0], range[1] + 1);
+        }
+        return selected.stream().toArray();
+    }
+
+    private static void validate(int index, int size) throws FinchException {
+        if (index < 0 || index >= size) {
+            throw new FinchException("Task number " + (index + 1) + " does not exist!");
+        }
+    }
+
+    // Parses one end of a range, which must be a positive task number
+    private static int parseNumber(String text, String action) throws FinchException {
+        try {
+            int value = Integer.parseInt(text.trim());
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
+        }
+        throw new FinchException("Please provide a valid task number to " + action + ".");
+    }
+}
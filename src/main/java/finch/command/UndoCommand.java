@@ -0,0 +1,120 @@
+package finch.command;
+
+import finch.task.Change;
+import finch.task.Task;
+import finch.task.TaskList;
+import finch.task.UndoHistory;
+import finch.ui.Ui;
+import finch.storage.Storage;
+import finch.exception.FinchException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents the command to undo the latest change to the {@link TaskList}.
+ * <p>
+ * Each command that changes the list records what it did in the
+ * {@link UndoHistory} it is given. Undoing reverses that one change, working
+ * only on the tasks it touched, so it costs time and memory in proportion
+ * to the change and not to the list:
+ * </p>
+ * <ul>
+ *     <li>Added tasks are deleted again.</li>
+ *     <li>Deleted tasks are put back where they were, with their IDs.</li>
+ *     <li>Marked or unmarked tasks get back the state they had before.</li>
+ * </ul>
+ * <p>
+ * The result is saved like any other change. An undone change can be
+ * redone with {@link RedoCommand}.
+ * </p>
+ * <p>
+ * Each console or {@code --serve} session has a history of its own, so a
+ * client only ever undoes its own changes. If another client has since
+ * deleted a task that a change touched, the history no longer fits the
+ * list and is cleared.
+ * </p>
+ *
+ * <p><b>Expected input format:</b></p>
+ * <pre>
+ *     undo
+ * </pre>
+ */
+public class UndoCommand extends Command {
+
+    /**
+     * Executes the command by reversing the latest change still in the history.
+     *
+     * @param tasks   the {@link TaskList} to change back
+     * @param history the {@link UndoHistory} to take the change to undo from
+     * @param ui      the {@link Ui} for showing feedback to the user
+     * @param storage the {@link Storage} for saving the list
+     * @throws FinchException if there is nothing to undo, the change no longer fits the list, or saving fails
+     */
+    @Override
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
+        Change change = history.undo();
+        if (change == null) {
+            throw new FinchException("Nothing to undo.");
+        }
+
+        List<Task> changed = change.getTasks();
+        switch (change.getKind()) {
+        case ADDED:
+            List<Task> removed = tasks.deleteTasks(indicesOf(tasks, history, changed));
+            storage.saveDeleted(tasks, removed);
+            break;
+        case DELETED:
+            tasks.restoreTasks(changed);
+            storage.saveRestored(tasks, changed);
+            break;
+        case MARKED:
+            // Only the tasks that were not done already need unmarking
+            storage.saveUnmarked(tasks, tasks.unmarkTasks(indicesOf(tasks, history, withState(changed, false))));
+            changed = tasks.getTasks(indicesOf(tasks, history, changed));
+            break;
+        case UNMARKED:
+            storage.saveMarked(tasks, tasks.markTasks(indicesOf(tasks, history, withState(changed, true))));
+            changed = tasks.getTasks(indicesOf(tasks, history, changed));
+            break;
+        }
+        ui.showUndone(change.getKind().getAction(), changed, tasks.size());
+    }
+
+    /**
+     * Returns the current indexes of the given tasks, looked up by ID.
+     * If a task is no longer in the list, the history no longer matches the
+     * list, so it is cleared.
+     *
+     * @param tasks the task list to look the tasks up in
+     * @param history the history the change came from
+     * @param changed the tasks of a change
+     * @return their indexes, ascending
+     * @throws FinchException if a task is no longer in the list
+     */
+    static int[] indicesOf(TaskList tasks, UndoHistory history, List<Task> changed) throws FinchException {
+        int[] indices = new int[changed.size()];
+        try {
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = tasks.indexOfId(changed.get(i).getId());
+            }
+        } catch (FinchException e) {
+            history.clear();
+            throw new FinchException(e.getMessage() + " The undo history has been cleared.");
+        }
+        Arrays.sort(indices);
+        return indices;
+    }
+
+    // Returns the tasks that were done, or not done, before the change
+    private static List<Task> withState(List<Task> before, boolean isDone) {
+        List<Task> matching = new ArrayList<>();
+        for (Task task : before) {
+            if (task.isDone() == isDone) {
+                matching.add(task);
+            }
+        }
+        return matching;
+    }
+}
@@ -1,6 +1,7 @@
 package finch.command;
 
 import finch.task.TaskList;
+import finch.task.UndoHistory;
 import finch.ui.Ui;
 import finch.storage.Storage;
 import finch.exception.FinchException;
@@ -15,9 +16,19 @@ public class UnknownCommand extends Command {
 
     // Executes the unknown command by displaying an error message and showing the list of available commands to the user
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws FinchException {
+    public void execute(TaskList tasks, UndoHistory history, Ui ui, Storage storage) throws FinchException {
         ui.showError("Unknown command: " + commandWord);
         ui.showLine();
         ui.showCommands();
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean requiresTasks() {
+        return false;
+    }
+}
@@ -1,6 +1,8 @@
 package finch.exception;
 
 public class FinchException extends Exception {
+    private static final long serialVersionUID = 1L;
+
     public FinchException(String message) {
         super(message);
     }
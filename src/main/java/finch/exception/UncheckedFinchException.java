@@ -0,0 +1,18 @@
+package finch.exception;
+
+/**
+ * Wraps a {@link FinchException} where a checked exception cannot be thrown,
+ * such as while iterating over tasks that are decoded as they are reached.
+ */
+public class UncheckedFinchException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedFinchException(FinchException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public FinchException getCause() {
+        return (FinchException) super.getCause();
+    }
+}
@@ -0,0 +1,62 @@
+package finch.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one command, from parsing its line to the end
+ * of its execution. This includes any wait for the tasks to load, and any
+ * save the command made.
+ * <p>
+ * Begin the event before parsing and call {@link #finish} once the command
+ * is done. While no recording is running, {@link #finish} does nothing.
+ */
+@Name("finch.CommandExecuted")
+@Label("Command Executed")
+@Category({"Finch", "Commands"})
+@Description("A command line parsed and executed")
+@StackTrace(false)
+public class CommandExecutedEvent extends Event {
+
+    @Label("Command Class")
+    private Class<?> commandClass;
+
+    @Label("Argument Length")
+    @Description("Characters after the command word, ignoring surrounding spaces")
+    private int argumentLength;
+
+    @Label("Task Count")
+    @Description("Tasks in the list after the command, or 0 if it ran while they were still loading")
+    private int taskCount;
+
+    /**
+     * Fills in the event and commits it, if a recording wants it.
+     *
+     * @param commandClass the class of the command that ran
+     * @param line the command line as the user entered it
+     * @param taskCount the number of tasks after the command
+     */
+    public void finish(Class<?> commandClass, String line, int taskCount) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.commandClass = commandClass;
+        this.argumentLength = argumentLength(line);
+        this.taskCount = taskCount;
+        commit();
+    }
+
+    // Returns the length of everything after the first word of the line, trimmed
+    private static int argumentLength(String line) {
+        String trimmed = line.strip();
+        int space = 0;
+        while (space < trimmed.length() && !Character.isWhitespace(trimmed.charAt(space))) {
+            space++;
+        }
+        return trimmed.substring(space).strip().length();
+    }
+}
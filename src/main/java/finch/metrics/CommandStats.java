@@ -0,0 +1,58 @@
+package finch.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timings and allocations of every command of one class, such as
+ * {@code AddTodoCommand}, since Finch started.
+ */
+public class CommandStats {
+
+    private final String name;
+    private final LatencyHistogram parseTimes = new LatencyHistogram();
+    private final LatencyHistogram executeTimes = new LatencyHistogram();
+
+    // Bytes allocated by the commands whose allocations could be measured, and how many those were
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder measuredCommands = new LongAdder();
+
+    CommandStats(String name) {
+        this.name = name;
+    }
+
+    // Records one command; a negative allocation means it could not be measured
+    void record(long parseNanos, long executeNanos, long allocated) {
+        parseTimes.record(parseNanos);
+        executeTimes.record(executeNanos);
+        if (allocated >= 0) {
+            allocatedBytes.add(allocated);
+            measuredCommands.increment();
+        }
+    }
+
+    // Returns the simple name of the command class
+    public String getName() {
+        return name;
+    }
+
+    // Returns the time taken to parse each command line into this command
+    public LatencyHistogram getParseTimes() {
+        return parseTimes;
+    }
+
+    // Returns the time taken to execute each command, including any save it made
+    public LatencyHistogram getExecuteTimes() {
+        return executeTimes;
+    }
+
+    /**
+     * Returns the average number of bytes that parsing and executing one
+     * command allocated on the heap.
+     *
+     * @return the average in bytes, or -1 if no command's allocations could be measured
+     */
+    public long getAllocatedBytesPerCommand() {
+        long commands = measuredCommands.sum();
+        return commands == 0 ? -1 : allocatedBytes.sum() / commands;
+    }
+}
@@ -0,0 +1,68 @@
+package finch.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Flight Recorder event for decoding one line of the data file or journal
+ * into a task.
+ * <p>
+ * Loading a large file decodes millions of lines, a few hundred nanoseconds
+ * each, so recording every one would swamp the recording and slow the load.
+ * Only one decode in {@link #SAMPLE_INTERVAL}, picked at random, is
+ * recorded. Start one with {@link #sample()}, which costs a single check
+ * while no recording wants these events.
+ */
+@Name("finch.Decode")
+@Label("Decode")
+@Category({"Finch", "Storage"})
+@Description("A sampled decode of one saved task; one decode in 1024 is recorded")
+public class DecodeEvent extends Event {
+
+    /** On average, one decode in this many is recorded. */
+    public static final int SAMPLE_INTERVAL = 1024;
+
+    // Only asked whether the event is enabled, so that decodes need not allocate an event to find out
+    private static final DecodeEvent PROBE = new DecodeEvent();
+
+    @Label("Line Length")
+    private int lineLength;
+
+    @Label("Task Class")
+    private Class<?> taskClass;
+
+    /**
+     * Begins an event for the current decode if a recording wants decode
+     * events and this decode is picked as a sample.
+     *
+     * @return the begun event, or {@code null} if this decode is not recorded
+     */
+    public static DecodeEvent sample() {
+        if (!PROBE.isEnabled() || ThreadLocalRandom.current().nextInt(SAMPLE_INTERVAL) != 0) {
+            return null;
+        }
+        DecodeEvent event = new DecodeEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Fills in the event and commits it.
+     *
+     * @param lineLength the length of the decoded line
+     * @param taskClass the class of the task it decoded to
+     */
+    public void finish(int lineLength, Class<?> taskClass) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.lineLength = lineLength;
+        this.taskClass = taskClass;
+        commit();
+    }
+}
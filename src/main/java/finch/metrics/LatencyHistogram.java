@@ -0,0 +1,107 @@
+package finch.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts durations in buckets whose width grows with the duration, so that
+ * percentiles can be read back without keeping every sample.
+ * <p>
+ * Durations below {@code 16} ns get a bucket each. Above that, every power
+ * of two is split into 16 equal buckets, so a percentile is reported at
+ * most 1/16 (about 6%) above the true value. The whole range of
+ * {@code long} takes under a thousand counters, and recording a sample
+ * costs a few arithmetic operations and one atomic increment. Any number
+ * of threads may record and read at once; a read made while samples are
+ * being recorded sees some of them but not others.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // One row of sub-buckets for values below SUB_BUCKETS, and one per possible shift above it
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos the duration in nanoseconds; negative durations count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        total.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    // Returns the sum of all recorded durations, in nanoseconds
+    public long getTotal() {
+        return total.sum();
+    }
+
+    // Returns the longest recorded duration, in nanoseconds, or 0 if there are none
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the duration that the given fraction of the samples do not exceed.
+     *
+     * @param fraction the fraction of samples, such as {@code 0.99} for the 99th percentile
+     * @return the duration in nanoseconds, rounded up to its bucket, or 0 if there are no samples
+     */
+    public long getPercentile(double fraction) {
+        long[] snapshot = new long[BUCKETS];
+        long samples = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            samples += snapshot[i];
+        }
+        if (samples == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(fraction * samples));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    // Values below SUB_BUCKETS map to themselves; above, the top SUB_BUCKET_BITS after the leading one pick the bucket
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - SUB_BUCKET_BITS - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
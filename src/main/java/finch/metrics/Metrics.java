@@ -0,0 +1,122 @@
+package finch.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects how long Finch spends parsing and executing each class of
+ * command, how much each command allocates, and how long storage takes to
+ * load, save and journal the tasks and how many bytes it moves.
+ * <p>
+ * There is one {@code Metrics} per process, shared by the console loop, all
+ * server sessions and the background writer, so that the {@code stats}
+ * command reports on everything Finch has done since it started. Recording
+ * is cheap enough to stay on all the time: two clock reads and a handful of
+ * atomic increments per command, and no locks once a command class has been
+ * seen.
+ * <p>
+ * Allocations are measured with the JVM's per-thread allocation counter,
+ * which counts heap bytes allocated by the current thread. Where the JVM
+ * cannot provide it, such as on virtual threads, allocations are not
+ * recorded and the timings still are.
+ */
+public class Metrics {
+
+    private static final Metrics GLOBAL = new Metrics();
+
+    // Stats per command class, looked up by class without building its name each time, and listed by name
+    private final ConcurrentHashMap<String, CommandStats> commands = new ConcurrentHashMap<>();
+    private final ClassValue<CommandStats> commandsByClass = new ClassValue<>() {
+        @Override
+        protected CommandStats computeValue(Class<?> type) {
+            return commands.computeIfAbsent(type.getSimpleName(), CommandStats::new);
+        }
+    };
+
+    private final StorageStats loads = new StorageStats("load");
+    private final StorageStats saves = new StorageStats("save");
+    private final StorageStats journalAppends = new StorageStats("journal");
+
+    // Reads the current thread's allocation counter; null if the JVM has none
+    private final com.sun.management.ThreadMXBean threads;
+
+    private Metrics() {
+        this.threads = allocationCounter();
+    }
+
+    /**
+     * Returns the metrics of this process.
+     *
+     * @return the shared {@code Metrics}
+     */
+    public static Metrics get() {
+        return GLOBAL;
+    }
+
+    // Returns the thread bean if it can count allocations, turning the counting on if needed
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+                return bean;
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            // Allocations are simply not recorded
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of heap bytes the current thread has allocated so
+     * far. Pass it to {@link #recordCommand} once the command is done.
+     *
+     * @return the thread's allocated bytes, or -1 if they cannot be measured
+     */
+    public long getAllocatedBytes() {
+        return threads == null ? -1 : threads.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Records one command that was parsed and executed on the current thread.
+     *
+     * @param type the class of the command
+     * @param parseNanos how long the command line took to parse
+     * @param executeNanos how long the command took to execute
+     * @param allocatedBefore {@link #getAllocatedBytes()} from before the command was parsed
+     */
+    public void recordCommand(Class<?> type, long parseNanos, long executeNanos, long allocatedBefore) {
+        long allocated = allocatedBefore < 0 ? -1 : getAllocatedBytes() - allocatedBefore;
+        commandsByClass.get(type).record(parseNanos, executeNanos, allocated);
+    }
+
+    // Returns the stats of every command class executed so far, by name
+    public List<CommandStats> getCommands() {
+        List<CommandStats> stats = new ArrayList<>(commands.values());
+        stats.sort(Comparator.comparing(CommandStats::getName));
+        return stats;
+    }
+
+    // Returns the stats of loading the data file and journal; bytes are those read
+    public StorageStats getLoads() {
+        return loads;
+    }
+
+    // Returns the stats of rewriting the data file in full; bytes are those written
+    public StorageStats getSaves() {
+        return saves;
+    }
+
+    // Returns the stats of appending records to the journal; bytes are those written
+    public StorageStats getJournalAppends() {
+        return journalAppends;
+    }
+
+    // Returns the stats of every kind of storage operation, in the order a session meets them
+    public List<StorageStats> getStorage() {
+        return List.of(loads, saves, journalAppends);
+    }
+}
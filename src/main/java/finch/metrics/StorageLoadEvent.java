@@ -0,0 +1,50 @@
+package finch.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for loading the data file and replaying the journal.
+ * <p>
+ * Begin the event before starting and call {@link #finish} once done.
+ * While no recording is running, {@link #finish} does nothing.
+ */
+@Name("finch.StorageLoad")
+@Label("Storage Load")
+@Category({"Finch", "Storage"})
+@Description("Loading the data file and replaying the journal")
+public class StorageLoadEvent extends Event {
+
+    @Label("Path")
+    private String path;
+
+    @Label("Bytes")
+    @Description("Bytes of the data file and journal read")
+    @DataAmount
+    private long bytes;
+
+    @Label("Task Count")
+    @Description("Tasks in the list once loaded")
+    private int taskCount;
+
+    /**
+     * Fills in the event and commits it, if a recording wants it.
+     *
+     * @param path the path of the data file
+     * @param bytes the number of bytes read
+     * @param taskCount the number of tasks loaded
+     */
+    public void finish(String path, long bytes, int taskCount) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.path = path;
+        this.bytes = bytes;
+        this.taskCount = taskCount;
+        commit();
+    }
+}
@@ -0,0 +1,50 @@
+package finch.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for rewriting the data file in full.
+ * <p>
+ * Begin the event before starting and call {@link #finish} once done.
+ * While no recording is running, {@link #finish} does nothing.
+ */
+@Name("finch.StorageSave")
+@Label("Storage Save")
+@Category({"Finch", "Storage"})
+@Description("Rewriting the data file in full")
+public class StorageSaveEvent extends Event {
+
+    @Label("Path")
+    private String path;
+
+    @Label("Bytes")
+    @Description("Bytes written to the data file")
+    @DataAmount
+    private long bytes;
+
+    @Label("Task Count")
+    @Description("Tasks written")
+    private int taskCount;
+
+    /**
+     * Fills in the event and commits it, if a recording wants it.
+     *
+     * @param path the path of the data file
+     * @param bytes the number of bytes written
+     * @param taskCount the number of tasks saved
+     */
+    public void finish(String path, long bytes, int taskCount) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.path = path;
+        this.bytes = bytes;
+        this.taskCount = taskCount;
+        commit();
+    }
+}
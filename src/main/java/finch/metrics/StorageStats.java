@@ -0,0 +1,42 @@
+package finch.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timings and bytes transferred of one kind of storage operation, such as
+ * saving the data file, since Finch started.
+ */
+public class StorageStats {
+
+    private final String name;
+    private final LatencyHistogram times = new LatencyHistogram();
+    private final LongAdder bytes = new LongAdder();
+
+    StorageStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records one operation.
+     *
+     * @param nanos how long the operation took
+     * @param transferred the number of bytes it read or wrote
+     */
+    public void record(long nanos, long transferred) {
+        times.record(nanos);
+        bytes.add(transferred);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LatencyHistogram getTimes() {
+        return times;
+    }
+
+    // Returns the bytes read or written by all operations so far
+    public long getBytes() {
+        return bytes.sum();
+    }
+}
@@ -3,6 +3,8 @@ package finch.parser;
 import finch.command.*;
 import finch.exception.FinchException;
 
+import java.util.List;
+
 /**
  * Parses user input into executable commands for the Finch application.
  * <p>
@@ -21,11 +23,20 @@ public class Parser {
      *     <li>{@code todo} - Add a ToDo task</li>
      *     <li>{@code deadline} - Add a Deadline task</li>
      *     <li>{@code event} - Add an Event task</li>
-     *     <li>{@code list} - List all tasks</li>
-     *     <li>{@code mark} - Mark a task as done</li>
-     *     <li>{@code unmark} - Mark a task as not done</li>
-     *     <li>{@code delete} - Delete a task</li>
-     *     <li>{@code find} - Search tasks by keyword</li>
+     *     <li>{@code list} - List all tasks, or a range, page or tail of them</li>
+     *     <li>{@code mark} - Mark tasks as done</li>
+     *     <li>{@code unmark} - Mark tasks as not done</li>
+     *     <li>{@code delete} - Delete tasks</li>
+     *     <li>{@code find} - Search tasks by keyword, or rank them by how close they come to it</li>
+     *     <li>{@code due} - Show deadlines due by a date</li>
+     *     <li>{@code on} - Show deadlines and events on a date</li>
+     *     <li>{@code between} - Show deadlines and events between two dates</li>
+     *     <li>{@code next} - Show the deadline or event coming up next</li>
+     *     <li>{@code undo} - Undo the latest change</li>
+     *     <li>{@code redo} - Redo the change last undone</li>
+     *     <li>{@code import} - Add the tasks in a CSV, JSON Lines or iCalendar file</li>
+     *     <li>{@code export} - Write all tasks to a CSV, JSON Lines or iCalendar file</li>
+     *     <li>{@code stats} - Show command and storage timings since Finch started</li>
      *     <li>{@code bye} - Exit the application</li>
      *     <li>Any unrecognized command will return an {@link UnknownCommand}</li>
      * </ul>
@@ -39,23 +50,41 @@ public class Parser {
             return new UnknownCommand(""); // or EmptyCommand
         }
 
-        // Split into command word and optional arguments
-        String[] parts = fullCommand.trim().split("\\s+", 2);
-        String commandWord = parts[0].toLowerCase();
-        String arguments = parts.length > 1 ? parts[1] : "";
+        // Find the command word, arguments and any flags in one pass over the line
+        Tokenizer tokens = Tokenizer.ofLine(fullCommand);
+        String commandWord = tokens.commandWord();
+        String arguments = tokens.arguments();
 
-        // Match command word to corresponding Command class
+        // Match command word to corresponding Command class; each word must also be in Tokenizer.COMMAND_WORDS
         return switch (commandWord) {
             case "todo" -> new AddTodoCommand(arguments);
-            case "deadline" -> new AddDeadlineCommand(arguments);
-            case "event" -> new AddEventCommand(arguments);
-            case "list" -> new ListCommand();
+            case "deadline" -> new AddDeadlineCommand(tokens);
+            case "event" -> new AddEventCommand(tokens);
+            case "list" -> new ListCommand(arguments);
             case "mark" -> new MarkCommand(arguments);
             case "unmark" -> new UnmarkCommand(arguments);
             case "delete" -> new DeleteCommand(arguments);
             case "find" -> new FindCommand(arguments);
+            case "due" -> new DueCommand(arguments);
+            case "on" -> new OnCommand(arguments);
+            case "between" -> new BetweenCommand(arguments);
+            case "next" -> new NextCommand();
+            case "undo" -> new UndoCommand();
+            case "redo" -> new RedoCommand();
+            case "import" -> new ImportCommand(arguments);
+            case "export" -> new ExportCommand(arguments);
+            case "stats" -> new StatsCommand();
             case "bye" -> new ExitCommand();
             default -> new UnknownCommand(commandWord);
         };
     }
+
+    /**
+     * Returns every command word that {@link #parse(String)} recognises, in lower case.
+     *
+     * @return the command words
+     */
+    public static List<String> commandWords() {
+        return List.of(Tokenizer.COMMAND_WORDS);
+    }
 }
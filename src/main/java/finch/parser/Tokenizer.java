@@ -0,0 +1,312 @@
+package finch.parser;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Splits a command line into its command word, arguments and flag values in a single pass.
+ * <p>
+ * The tokenizer records where each part starts and ends instead of copying
+ * it, so only the parts a command actually keeps (such as a description) are
+ * ever turned into strings. A flag ({@code /by}, {@code /from} or {@code /to})
+ * is recognised only in the arguments of the commands that take it, but
+ * wherever it appears there, as the original {@code contains} and
+ * {@code split} parsing did. Only the first occurrence of each flag counts,
+ * and flags may be given in any order. The description is the text before
+ * the first flag, and each flag's value runs up to the next flag or the end
+ * of the line.
+ * <p>
+ * Whitespace is anything that {@link String#trim()} would remove.
+ */
+public class Tokenizer {
+
+    public static final String BY = "/by";
+    public static final String FROM = "/from";
+    public static final String TO = "/to";
+
+    private static final String[] NO_FLAGS = {};
+    private static final String[] DEADLINE_FLAGS = {BY};
+    private static final String[] EVENT_FLAGS = {FROM, TO};
+
+    // Recognised command words, matched ignoring case; anything else is an unknown command.
+    // Every case of the switch in Parser.parse must be listed here, or that command falls back to a copied word
+    static final String[] COMMAND_WORDS = {
+        "todo", "deadline", "event", "list", "mark", "unmark", "delete",
+        "find", "due", "on", "between", "next", "undo", "redo", "import", "export",
+        "stats", "bye",
+    };
+
+    // Length of a date-time in yyyy-MM-dd HH:mm form
+    private static final int DATE_TIME_LENGTH = 16;
+
+    private final String input;
+
+    // Command word in lower case, resolved once by the constructor; empty if there is none
+    private final String commandWord;
+
+    // Arguments, with surrounding whitespace excluded
+    private final int argumentsStart;
+    private final int argumentsEnd;
+
+    // Flags recognised in the arguments, and the index of each one's first occurrence (-1 if absent)
+    private final String[] flags;
+    private final int[] flagStarts;
+
+    // Scans the input once, finding the command word (if any), the arguments and the flags
+    private Tokenizer(String input, boolean hasCommandWord, String[] flags) {
+        this.input = input;
+        int length = input.length();
+        int i = skipWhitespace(0, length);
+
+        int wordStart = i;
+        if (hasCommandWord) {
+            while (i < length && !isWhitespace(input.charAt(i))) {
+                i++;
+            }
+        }
+        commandWord = hasCommandWord ? resolveWord(wordStart, i) : "";
+        i = skipWhitespace(i, length);
+
+        this.flags = hasCommandWord ? flagsOf(commandWord) : flags;
+        this.flagStarts = new int[this.flags.length];
+        Arrays.fill(flagStarts, -1);
+
+        argumentsStart = i;
+        int lastEnd = i;
+        for (; i < length; i++) {
+            char c = input.charAt(i);
+            if (c == '/' && this.flags.length > 0) {
+                recordFlag(i);
+            }
+            if (!isWhitespace(c)) {
+                lastEnd = i + 1;
+            }
+        }
+        argumentsEnd = lastEnd;
+    }
+
+    /**
+     * Tokenizes a full command line, made up of a command word and its arguments.
+     *
+     * @param line the line entered by the user
+     * @return the tokens of the line
+     */
+    public static Tokenizer ofLine(String line) {
+        return new Tokenizer(line, true, NO_FLAGS);
+    }
+
+    /**
+     * Tokenizes the arguments of a command, recognising the given flags.
+     *
+     * @param arguments the arguments, without the command word; {@code null} is treated as empty
+     * @param flags the flags the command takes
+     * @return the tokens of the arguments
+     */
+    public static Tokenizer ofArguments(String arguments, String... flags) {
+        return new Tokenizer(arguments == null ? "" : arguments, false, flags);
+    }
+
+    /**
+     * Returns the command word in lower case. Known command words are matched
+     * ignoring case and returned as shared constants, without copying.
+     *
+     * @return the command word, or an empty string if there is none
+     */
+    public String commandWord() {
+        return commandWord;
+    }
+
+    /**
+     * Returns whether there are no arguments, or only whitespace.
+     *
+     * @return {@code true} if the arguments are empty
+     */
+    public boolean isArgumentsEmpty() {
+        return argumentsStart == argumentsEnd;
+    }
+
+    /**
+     * Returns the arguments, without surrounding whitespace.
+     *
+     * @return the arguments, possibly empty
+     */
+    public String arguments() {
+        return input.substring(argumentsStart, argumentsEnd);
+    }
+
+    /**
+     * Returns whether the arguments contain the given flag.
+     *
+     * @param flag one of the flags the command takes
+     * @return {@code true} if the flag is present
+     */
+    public boolean hasFlag(String flag) {
+        return flagStart(flag) >= 0;
+    }
+
+    /**
+     * Returns the text before the first flag, without surrounding whitespace.
+     *
+     * @return the description, possibly empty
+     */
+    public String description() {
+        int end = argumentsEnd;
+        for (int start : flagStarts) {
+            if (start >= 0 && start < end) {
+                end = start;
+            }
+        }
+        return trimmed(argumentsStart, end);
+    }
+
+    /**
+     * Returns whether the value of the given flag is missing or only whitespace.
+     *
+     * @param flag one of the flags the command takes
+     * @return {@code true} if the value is empty
+     */
+    public boolean isValueEmpty(String flag) {
+        return skipWhitespace(valueStart(flag), valueEnd(flag)) == valueEnd(flag);
+    }
+
+    /**
+     * Returns the value of the given flag, without surrounding whitespace.
+     *
+     * @param flag one of the flags the command takes
+     * @return the value, or an empty string if the flag is absent
+     */
+    public String value(String flag) {
+        return hasFlag(flag) ? trimmed(valueStart(flag), valueEnd(flag)) : "";
+    }
+
+    /**
+     * Parses the value of the given flag as a date-time in {@code yyyy-MM-dd HH:mm} form.
+     * <p>
+     * A value of exactly that form is parsed straight from the input
+     * characters. Anything else is parsed with {@link LocalDateTime#parse}
+     * after replacing spaces with {@code T}, which also accepts seconds.
+     *
+     * @param flag one of the flags the command takes
+     * @return the parsed date-time
+     * @throws DateTimeException if the value is not a valid date-time
+     */
+    public LocalDateTime dateTimeValue(String flag) throws DateTimeException {
+        int end = valueEnd(flag);
+        int start = skipWhitespace(valueStart(flag), end);
+        end = skipWhitespaceBack(end, start);
+        if (end - start == DATE_TIME_LENGTH
+                && input.charAt(start + 4) == '-' && input.charAt(start + 7) == '-'
+                && input.charAt(start + 10) == ' ' && input.charAt(start + 13) == ':') {
+            int year = digits(start, 4);
+            int month = digits(start + 5, 2);
+            int day = digits(start + 8, 2);
+            int hour = digits(start + 11, 2);
+            int minute = digits(start + 14, 2);
+            if ((year | month | day | hour | minute) >= 0) {
+                return LocalDateTime.of(year, month, day, hour, minute);
+            }
+        }
+        return LocalDateTime.parse(input.substring(start, end).replace(" ", "T"));
+    }
+
+    // --- Helpers ---
+
+    // Returns the known command word at the given range as its shared constant, or a lower-case copy of an unknown one
+    private String resolveWord(int start, int end) {
+        int length = end - start;
+        for (String word : COMMAND_WORDS) {
+            if (word.length() == length && input.regionMatches(true, start, word, 0, length)) {
+                return word;
+            }
+        }
+        return input.substring(start, end).toLowerCase();
+    }
+
+    // Returns the flags taken by the given command
+    private static String[] flagsOf(String commandWord) {
+        switch (commandWord) {
+        case "deadline":
+            return DEADLINE_FLAGS;
+        case "event":
+            return EVENT_FLAGS;
+        default:
+            return NO_FLAGS;
+        }
+    }
+
+    // Records the flag starting at the given '/', if it is one the command takes and has not been seen yet
+    private void recordFlag(int index) {
+        for (int f = 0; f < flags.length; f++) {
+            if (flagStarts[f] < 0 && input.startsWith(flags[f], index)) {
+                flagStarts[f] = index;
+                return;
+            }
+        }
+    }
+
+    private int flagStart(String flag) {
+        for (int f = 0; f < flags.length; f++) {
+            if (flags[f].equals(flag)) {
+                return flagStarts[f];
+            }
+        }
+        return -1;
+    }
+
+    // Returns the index just after the flag, or the end of the arguments if it is absent
+    private int valueStart(String flag) {
+        int start = flagStart(flag);
+        return start < 0 ? argumentsEnd : start + flag.length();
+    }
+
+    // Returns the index of the next flag after the given one, or the end of the arguments
+    private int valueEnd(String flag) {
+        int start = flagStart(flag);
+        int end = argumentsEnd;
+        for (int other : flagStarts) {
+            if (other > start && other < end) {
+                end = other;
+            }
+        }
+        return start < 0 ? argumentsEnd : end;
+    }
+
+    private String trimmed(int start, int end) {
+        start = skipWhitespace(start, end);
+        return input.substring(start, skipWhitespaceBack(end, start));
+    }
+
+    // Moves index forward over whitespace, but not past end
+    private int skipWhitespace(int index, int end) {
+        while (index < end && isWhitespace(input.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    // Moves end back over whitespace, but not past start
+    private int skipWhitespaceBack(int end, int start) {
+        while (end > start && isWhitespace(input.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    // Parses a fixed number of ASCII digits, returning -1 if any character is not one
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = input.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c <= ' ';
+    }
+}
@@ -0,0 +1,164 @@
+package finch.server;
+
+import finch.command.Command;
+import finch.exception.FinchException;
+import finch.storage.Storage;
+import finch.task.TaskList;
+import finch.task.UndoHistory;
+import finch.ui.Ui;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves Finch to clients connected over TCP on localhost.
+ * <p>
+ * The protocol is plain lines of UTF-8 text, so any line-based client such
+ * as {@code nc localhost <port>} works. A client sends one command per line
+ * and gets back exactly the output the console would show. That output
+ * starts with the welcome message, and each reply starts and ends with the
+ * divider line. A program can therefore read a reply by reading up to its
+ * second divider. {@code bye} or closing the connection ends the session.
+ * <p>
+ * Each connection is handled by a {@link Session} on its own virtual thread,
+ * so thousands of idle or slow clients cost little more than their sockets.
+ * All sessions share one {@link TaskList} and {@link Storage}. Commands that
+ * change the list are executed one at a time under a shared lock, since each
+ * one both mutates the list and records the change in storage. Commands that
+ * only read the list run in parallel, without the lock, each on its own
+ * snapshot of the list (see {@link #execute(Command, UndoHistory, Ui)}).
+ * Each session keeps its own {@link UndoHistory}, so a client's {@code undo}
+ * and {@code redo} only ever apply to that client's own changes.
+ * The lock is a {@link ReentrantLock} rather than a monitor, so that
+ * sessions waiting for it release their carrier threads. A command's output
+ * is collected in memory and sent to its client after the lock is released,
+ * so a slow client never holds up the others.
+ */
+public class Server {
+
+    // Pending connections the operating system may queue while the accept loop catches up
+    private static final int BACKLOG = 4096;
+
+    // Pause after a failed accept, such as when the process is out of file descriptors
+    private static final long ACCEPT_RETRY_MILLIS = 100;
+
+    private final TaskList tasks;
+    private final Storage storage;
+
+    // Most changes each session keeps for undo
+    private final int undoDepth;
+
+    // Console for the server's own messages; only used by the accept loop
+    private final Ui console;
+
+    // Held while a command runs, so that commands from different sessions never overlap
+    private final ReentrantLock commandLock = new ReentrantLock();
+
+    /**
+     * Constructs a {@code Server} for the given tasks.
+     *
+     * @param tasks the task list shared by all clients
+     * @param storage the storage that saves the list, or {@code null} if it could not be opened
+     * @param console the {@link Ui} on which the server reports its own status
+     * @param undoDepth the most changes each session keeps for undo, or 0 to turn undo off
+     */
+    public Server(TaskList tasks, Storage storage, Ui console, int undoDepth) {
+        this.tasks = tasks;
+        this.storage = storage;
+        this.console = console;
+        this.undoDepth = undoDepth;
+    }
+
+    /**
+     * Listens on the given port of the loopback address and starts a session
+     * for every client that connects. This method only returns if the server
+     * socket is closed.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @throws FinchException if the port cannot be listened on
+     */
+    public void serve(int port) throws FinchException {
+        ServerSocket serverSocket;
+        try {
+            serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new FinchException("Failed to listen on port " + port + ": " + e.getMessage());
+        }
+
+        try (serverSocket) {
+            console.showServing(tasks.size(), serverSocket.getLocalPort());
+            console.flush();
+
+            Thread.Builder sessions = Thread.ofVirtual().name("finch-session-", 0);
+            while (!serverSocket.isClosed()) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (IOException e) {
+                    if (serverSocket.isClosed()) {
+                        break;
+                    }
+                    console.showError("Failed to accept a connection: " + e.getMessage());
+                    console.flush();
+                    pause();
+                    continue;
+                }
+                sessions.start(new Session(socket, this));
+            }
+        } catch (IOException e) {
+            throw new FinchException("Failed to close the server: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Executes a command from one of the sessions on the shared task list.
+     * <p>
+     * Commands that change the list run one at a time under the command lock.
+     * Read-only commands run without it, as the list can be read while it is
+     * being changed. So does {@code bye}, which only ends its own session. All
+     * it does is wait for pending saves, which {@link Storage#flush(TaskList)}
+     * allows from any thread outside batch mode. Clients leaving together
+     * therefore share one write instead of queueing behind each other's.
+     *
+     * @param command the parsed command
+     * @param history the session's undo history
+     * @param ui the session's {@link Ui}, which collects the command's output
+     * @throws FinchException if the command fails
+     */
+    void execute(Command command, UndoHistory history, Ui ui) throws FinchException {
+        if (command.isReadOnly() || command.isExit()) {
+            command.execute(tasks, history, ui, storage);
+            return;
+        }
+        commandLock.lock();
+        try {
+            command.execute(tasks, history, ui, storage);
+        } finally {
+            commandLock.unlock();
+        }
+    }
+
+    // Returns a new, empty undo history for a session
+    UndoHistory newHistory() {
+        UndoHistory history = new UndoHistory();
+        history.setDepth(undoDepth);
+        return history;
+    }
+
+    // Returns the number of tasks in the shared list
+    int getTaskCount() {
+        return tasks.size();
+    }
+
+    // Backs off after a failed accept, so that a persistent failure does not spin
+    private static void pause() {
+        try {
+            Thread.sleep(ACCEPT_RETRY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package finch.server;
+
+import finch.command.Command;
+import finch.exception.FinchException;
+import finch.exception.UncheckedFinchException;
+import finch.metrics.CommandExecutedEvent;
+import finch.metrics.Metrics;
+import finch.parser.Parser;
+import finch.task.UndoHistory;
+import finch.ui.Ui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+
+/**
+ * Runs the command loop for one client of a {@link Server}.
+ * <p>
+ * This is the same loop as {@link finch.Finch#run()}, with the client's
+ * socket in place of the console. The session's {@link Ui} writes into an
+ * in-memory buffer, which is sent to the client once per command. The
+ * session also has its own {@link UndoHistory}, like the console.
+ */
+class Session implements Runnable {
+
+    private final Socket socket;
+    private final Server server;
+
+    // This client's own changes, for undo and redo
+    private final UndoHistory history;
+
+    /**
+     * Constructs a session for a newly accepted client.
+     *
+     * @param socket the client's connection; it is closed when the session ends
+     * @param server the server whose task list the client works on
+     */
+    Session(Socket socket, Server server) {
+        this.socket = socket;
+        this.server = server;
+        this.history = server.newHistory();
+    }
+
+    @Override
+    public void run() {
+        try (socket) {
+            ByteArrayOutputStream pending = new ByteArrayOutputStream();
+            OutputStream client = socket.getOutputStream();
+            Ui ui = new Ui(socket.getInputStream(), pending);
+
+            ui.showWelcomeMessage();
+            send(ui, pending, client);
+
+            boolean isExit = false;
+            while (!isExit && ui.hasNextCommand()) {
+                String fullCommand = ui.readCommand();
+                ui.showLine();
+                try {
+                    isExit = execute(fullCommand, ui);
+                } finally {
+                    ui.showLine();
+                    send(ui, pending, client);
+                }
+            }
+        } catch (IOException e) {
+            // The client has gone away; its commands have already been executed
+        }
+    }
+
+    // Parses and executes one command, showing any error to the client; returns whether the session should end
+    private boolean execute(String fullCommand, Ui ui) {
+        try {
+            Metrics metrics = Metrics.get();
+            CommandExecutedEvent event = new CommandExecutedEvent();
+            event.begin();
+            long start = System.nanoTime();
+            long allocatedBefore = metrics.getAllocatedBytes();
+            Command command = Parser.parse(fullCommand);
+            long executeStart = System.nanoTime();
+            try {
+                server.execute(command, history, ui);
+            } finally {
+                metrics.recordCommand(command.getClass(), executeStart - start, System.nanoTime() - executeStart,
+                        allocatedBefore);
+                event.finish(command.getClass(), fullCommand, server.getTaskCount());
+            }
+            return command.isExit();
+        } catch (FinchException e) {
+            ui.showError(e.getMessage());
+        } catch (UncheckedFinchException e) {
+            ui.showError(e.getCause().getMessage());
+        } catch (Exception e) {
+            ui.showError("Unexpected error: " + e.getMessage());
+        }
+        return false;
+    }
+
+    // Sends everything the command has shown to the client in one write
+    private static void send(Ui ui, ByteArrayOutputStream pending, OutputStream client) throws IOException {
+        ui.flush();
+        pending.writeTo(client);
+        client.flush();
+        pending.reset();
+    }
+}
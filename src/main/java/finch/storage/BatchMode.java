@@ -0,0 +1,48 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.TaskList;
+
+import java.util.List;
+
+/**
+ * A {@link SaveMode} for batch runs, in which mutations are not persisted one
+ * by one. The data file is rewritten once per group of mutations, and once
+ * more by {@link #flush(TaskList)} at the end of the batch.
+ */
+class BatchMode implements SaveMode {
+
+    private final Storage storage;
+
+    // The number of mutations per save; 0 saves only on flush
+    private final int groupSize;
+
+    // Mutations made since the data file was last saved
+    private int pendingMutations;
+
+    BatchMode(Storage storage, int groupSize) {
+        this.storage = storage;
+        this.groupSize = groupSize;
+    }
+
+    @Override
+    public void record(TaskList tasks, char type, List<String> payloads) throws FinchException {
+        saveAll(tasks, payloads.size());
+    }
+
+    @Override
+    public void saveAll(TaskList tasks, int mutations) throws FinchException {
+        pendingMutations += mutations;
+        if (groupSize > 0 && pendingMutations >= groupSize) {
+            flush(tasks);
+        }
+    }
+
+    @Override
+    public void flush(TaskList tasks) throws FinchException {
+        if (pendingMutations > 0) {
+            storage.save(tasks);
+            pendingMutations = 0;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.Task;
+import finch.task.TaskList;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The binary data file described in {@link BinaryTaskFormat}. It is always
+ * read in full.
+ */
+class BinaryFileFormat implements TaskFileFormat {
+
+    @Override
+    public TaskList read(File file, LoadProgress progress) throws IOException, FinchException {
+        try {
+            return new TaskList(BinaryTaskFormat.read(file, progress));
+        } catch (FinchException e) {
+            // Reported the same way as a file that cannot be read
+            throw new FinchException("Failed to load tasks: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void write(Iterable<Task> tasks, int count, File target) throws IOException {
+        BinaryTaskFormat.write(tasks, count, target);
+    }
+}
@@ -0,0 +1,228 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.Deadline;
+import finch.task.Event;
+import finch.task.Task;
+import finch.task.ToDo;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+
+/**
+ * Reads and writes the compact binary data file format.
+ * <p>
+ * The file starts with a header, followed by one record per task:
+ * <pre>
+ *     header: magic "FNCH" (4 bytes) | version (short) | task count (int)
+ *     record: type byte ('T', 'D' or 'E') | flags (byte) | task ID (long)
+ *             | dates (none, by, or from + to)
+ *             | description length (int) | UTF-8 description bytes
+ *     date:   epoch minute (long) [| nanoseconds into the minute (long), if SUB_MINUTE is set]
+ * </pre>
+ * The flags are {@code DONE} and {@code SUB_MINUTE}. Finch takes dates at
+ * minute resolution, but the text format keeps whatever seconds a date was
+ * given with, so a task whose dates have seconds is flagged and carries them
+ * too; migrating between the formats is lossless either way.
+ * <p>
+ * Older versions are still readable: version 2 records have only the done
+ * flag, and version 1 files, written before tasks had IDs, have no task ID
+ * field either.
+ */
+class BinaryTaskFormat {
+
+    // "FNCH" in ASCII; a text data file can never start with these bytes
+    static final int MAGIC = 0x464E4348;
+
+    static final short VERSION = 3;
+
+    // Last version whose records have no SUB_MINUTE flag, which may hold dates with seconds
+    private static final short VERSION_WITHOUT_SECONDS = 2;
+
+    // Last version whose records carry no task ID
+    private static final short VERSION_WITHOUT_IDS = 1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Record flags
+    private static final int DONE = 1;
+    private static final int SUB_MINUTE = 2;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private BinaryTaskFormat() {
+    }
+
+    /**
+     * Checks whether the given file starts with the binary format's magic number.
+     *
+     * @param file the data file to inspect
+     * @return {@code true} if the file is in the binary format
+     * @throws IOException if the file cannot be read
+     */
+    static boolean isBinary(File file) throws IOException {
+        if (file.length() < Integer.BYTES) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        }
+    }
+
+    /**
+     * Writes all tasks to the given file in the binary format.
+     *
+     * @param tasks the tasks to write
+     * @param count the number of tasks
+     * @param file the file to write to; it is overwritten
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Iterable<Task> tasks, int count, File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(count);
+            for (Task task : tasks) {
+                writeTask(out, task);
+            }
+        }
+    }
+
+    /**
+     * Reads all tasks from a file in the binary format.
+     *
+     * @param file the file to read from
+     * @param progress started at the task count, and advanced by the records read so far
+     * @return the tasks, in file order
+     * @throws IOException if the file cannot be read or ends early
+     * @throws FinchException if the header or a record is invalid
+     */
+    static ArrayList<Task> read(File file, LoadProgress progress) throws IOException, FinchException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC) {
+                throw new FinchException("Not a Finch binary data file");
+            }
+            short version = in.readShort();
+            if (version < VERSION_WITHOUT_IDS || version > VERSION) {
+                throw new FinchException("Unsupported data file version: " + version);
+            }
+
+            int count = in.readInt();
+            if (count < 0) {
+                throw new FinchException("Corrupted task count in file: " + count);
+            }
+            ArrayList<Task> tasks = new ArrayList<>(count);
+            byte[] buffer = new byte[256];
+            progress.start(count);
+            for (int i = 0; i < count; i++) {
+                if (i % LoadProgress.STEP == 0) {
+                    progress.advance(Math.min(LoadProgress.STEP, count - i));
+                }
+                char type = (char) in.readByte();
+                int flags = in.readByte();
+                if (version <= VERSION_WITHOUT_SECONDS) {
+                    flags = flags != 0 ? DONE : 0;
+                }
+                boolean hasSeconds = (flags & SUB_MINUTE) != 0;
+                long id = version == VERSION_WITHOUT_IDS ? 0 : in.readLong();
+
+                Task task;
+                switch (type) {
+                case 'T':
+                    task = new ToDo(readDescription(in, buffer));
+                    break;
+                case 'D': {
+                    LocalDateTime by = readDate(in, hasSeconds);
+                    task = new Deadline(readDescription(in, buffer), by);
+                    break;
+                }
+                case 'E': {
+                    LocalDateTime from = readDate(in, hasSeconds);
+                    LocalDateTime to = readDate(in, hasSeconds);
+                    task = new Event(readDescription(in, buffer), from, to);
+                    break;
+                }
+                default:
+                    throw new FinchException("Corrupted task type in file: " + type);
+                }
+
+                if ((flags & DONE) != 0) {
+                    task.markAsDone();
+                }
+                task.restoreId(id);
+                tasks.add(task);
+            }
+            return tasks;
+        }
+    }
+
+    // Writes a single task record
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        if (task instanceof Deadline) {
+            LocalDateTime by = ((Deadline) task).getBy();
+            boolean hasSeconds = hasSeconds(by);
+            writeHeader(out, 'D', task, hasSeconds);
+            writeDate(out, by, hasSeconds);
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            boolean hasSeconds = hasSeconds(event.getFrom()) || hasSeconds(event.getTo());
+            writeHeader(out, 'E', task, hasSeconds);
+            writeDate(out, event.getFrom(), hasSeconds);
+            writeDate(out, event.getTo(), hasSeconds);
+        } else {
+            writeHeader(out, 'T', task, false);
+        }
+
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(description.length);
+        out.write(description);
+    }
+
+    // Writes the fields shared by all record types
+    private static void writeHeader(DataOutputStream out, char type, Task task, boolean hasSeconds)
+            throws IOException {
+        out.writeByte(type);
+        out.writeByte((task.isDone() ? DONE : 0) | (hasSeconds ? SUB_MINUTE : 0));
+        out.writeLong(task.getId());
+    }
+
+    // Reads a length-prefixed UTF-8 description, reusing the buffer where possible
+    private static String readDescription(DataInputStream in, byte[] buffer) throws IOException, FinchException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new FinchException("Corrupted description length in file: " + length);
+        }
+        byte[] bytes = length <= buffer.length ? buffer : new byte[length];
+        in.readFully(bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // Returns whether a date-time has seconds or a fraction of one, which an epoch minute alone would drop
+    private static boolean hasSeconds(LocalDateTime dateTime) {
+        return dateTime.getSecond() != 0 || dateTime.getNano() != 0;
+    }
+
+    // Writes a date as its epoch minute, followed by the nanoseconds into the minute if the record has seconds
+    private static void writeDate(DataOutputStream out, LocalDateTime dateTime, boolean hasSeconds)
+            throws IOException {
+        out.writeLong(Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60));
+        if (hasSeconds) {
+            out.writeLong(dateTime.getSecond() * NANOS_PER_SECOND + dateTime.getNano());
+        }
+    }
+
+    private static LocalDateTime readDate(DataInputStream in, boolean hasSeconds) throws IOException, FinchException {
+        long epochMinute = in.readLong();
+        long nanos = hasSeconds ? in.readLong() : 0;
+        if (nanos < 0 || nanos >= 60 * NANOS_PER_SECOND) {
+            throw new FinchException("Corrupted date in file: " + nanos + " ns into a minute");
+        }
+        return LocalDateTime.ofEpochSecond(epochMinute * 60 + nanos / NANOS_PER_SECOND,
+                (int) (nanos % NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,259 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.Task;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Loads tasks from a text data file, decoding large files in parallel chunks.
+ * <p>
+ * A file smaller than {@link #MIN_PARALLEL_SIZE} is read line by line with a
+ * {@link BufferedReader}. A larger one is split into chunks that end on
+ * newline boundaries. Each chunk is read into a heap buffer with a positional
+ * {@link FileChannel#read(ByteBuffer, long)} and decoded line by line with
+ * {@link Task#decode(String)} on the common {@link ForkJoinPool}, and the
+ * decoded chunks are concatenated in file order. Lines are split the same way
+ * {@link BufferedReader#readLine()} splits them, and when several lines are
+ * invalid, the error of the first one in the file is reported.
+ * <p>
+ * The file is never memory-mapped: a mapping outlives the channel until it is
+ * garbage collected, and on Windows it stops the next save from replacing the file.
+ */
+class ChunkedTaskLoader {
+
+    // Files smaller than this are read with a BufferedReader on the calling thread
+    private static final long MIN_PARALLEL_SIZE = 1L << 20;
+
+    // Upper bound on the size of a single chunk, which is held in memory while it is decoded
+    private static final long MAX_CHUNK_SIZE = 16L << 20;
+
+    // Size of the buffer used to look for the newline that ends a chunk
+    private static final int BOUNDARY_SCAN_SIZE = 4096;
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    private ChunkedTaskLoader() {
+    }
+
+    /**
+     * Decodes every line of the given file into a task, preserving file order.
+     *
+     * @param file the text data file to load
+     * @param progress advanced by the bytes decoded so far
+     * @return the decoded tasks, in the order they appear in the file
+     * @throws FinchException if the file cannot be read or a line cannot be decoded
+     */
+    static ArrayList<Task> load(File file, LoadProgress progress) throws FinchException {
+        if (file.length() < MIN_PARALLEL_SIZE) {
+            return loadSequentially(file, progress);
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = findChunkBounds(channel, size);
+            Chunk[] chunks = new Chunk[bounds.length - 1];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = new Chunk(channel, bounds[i], bounds[i + 1], progress);
+            }
+
+            if (chunks.length == 1) {
+                chunks[0].decode();
+            } else {
+                ForkJoinPool.commonPool().invoke(new DecodeAction(chunks, 0, chunks.length));
+            }
+
+            return concatenate(chunks);
+        } catch (IOException e) {
+            throw new FinchException("Failed to load tasks: " + e.getMessage());
+        }
+    }
+
+    // Decodes a small file one line at a time, stopping at the first bad line
+    private static ArrayList<Task> loadSequentially(File file, LoadProgress progress) throws FinchException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                tasks.add(Task.decode(line));
+            }
+        } catch (Exception e) {
+            throw new FinchException("Failed to load tasks: " + e.getMessage());
+        }
+        progress.advance(file.length());
+        return tasks;
+    }
+
+    /**
+     * Reads the given byte range of a file into a new heap buffer.
+     *
+     * @param channel the file to read, which is left open
+     * @param start offset of the first byte to read
+     * @param end offset just after the last byte to read
+     * @return the bytes read, from position 0 to the limit
+     * @throws IOException if the file cannot be read or ends before {@code end}
+     */
+    static ByteBuffer read(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(end - start));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                throw new IOException("Data file was truncated");
+            }
+        }
+        return buffer.flip();
+    }
+
+    // Splits the file into byte ranges that each end just after a newline (or at end of file)
+    static long[] findChunkBounds(FileChannel channel, long size) throws IOException {
+        if (size < MIN_PARALLEL_SIZE) {
+            return new long[] {0, size};
+        }
+
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        long target = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_PARALLEL_SIZE, size / (parallelism * 4L)));
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long start = 0;
+        while (start < size) {
+            long end = start + target >= size ? size : nextLineStart(channel, start + target, size);
+            bounds.add(end);
+            start = end;
+        }
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    // Returns the offset just after the first '\n' at or after the given position
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        long offset = position;
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == LF) {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    // Joins the decoded chunks in order, or reports the first error in file order
+    private static ArrayList<Task> concatenate(Chunk[] chunks) throws FinchException {
+        int total = 0;
+        for (Chunk chunk : chunks) {
+            if (chunk.error != null) {
+                throw new FinchException("Failed to load tasks: " + chunk.error.getMessage());
+            }
+            total += chunk.tasks.size();
+        }
+
+        ArrayList<Task> tasks = new ArrayList<>(total);
+        for (Chunk chunk : chunks) {
+            tasks.addAll(chunk.tasks);
+        }
+        return tasks;
+    }
+
+    /**
+     * A newline-aligned byte range of the data file and the tasks decoded from it.
+     */
+    private static class Chunk {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final LoadProgress progress;
+
+        private final ArrayList<Task> tasks = new ArrayList<>();
+
+        // First error met in this chunk; decoding of the chunk stops there
+        private Exception error;
+
+        Chunk(FileChannel channel, long start, long end, LoadProgress progress) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.progress = progress;
+        }
+
+        // Reads this chunk and decodes each line in it, stopping at the first bad line
+        void decode() {
+            try {
+                byte[] bytes = read(channel, start, end).array();
+                int limit = bytes.length;
+                int lineStart = 0;
+                int reported = 0;
+                while (lineStart < limit) {
+                    if (tasks.size() % LoadProgress.STEP == 0) {
+                        progress.advance(lineStart - reported);
+                        reported = lineStart;
+                    }
+
+                    int lineEnd = lineStart;
+                    while (lineEnd < limit && bytes[lineEnd] != LF && bytes[lineEnd] != CR) {
+                        lineEnd++;
+                    }
+                    tasks.add(Task.decode(new String(bytes, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8)));
+
+                    // Skip the terminator, treating "\r\n" as a single line break
+                    lineStart = lineEnd + 1;
+                    if (lineEnd < limit && bytes[lineEnd] == CR && lineStart < limit && bytes[lineStart] == LF) {
+                        lineStart++;
+                    }
+                }
+                progress.advance(limit - reported);
+            } catch (Exception e) {
+                error = e;
+            }
+        }
+    }
+
+    /**
+     * Decodes a range of chunks, splitting it in half until a single chunk remains.
+     */
+    @SuppressWarnings("serial")
+    private static class DecodeAction extends RecursiveAction {
+        private final Chunk[] chunks;
+        private final int from;
+        private final int to;
+
+        DecodeAction(Chunk[] chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                chunks[from].decode();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new DecodeAction(chunks, from, mid), new DecodeAction(chunks, mid, to));
+        }
+    }
+}
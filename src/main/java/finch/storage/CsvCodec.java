@@ -0,0 +1,225 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.Deadline;
+import finch.task.Event;
+import finch.task.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes tasks as CSV (RFC 4180), one task per row under a header row.
+ * <p>
+ * Files are written with the columns {@code type,done,description,due,start,end}
+ * and dates in ISO form, e.g. {@code 2025-09-26T18:00}. When reading, columns
+ * are found by their names in the header, in any order and case, and other
+ * columns are ignored, so that files from other systems can be read; only
+ * {@code description} is required. Quoted fields may contain commas, quotes
+ * and line breaks.
+ */
+class CsvCodec extends ExchangeCodec {
+
+    private static final String[] COLUMNS = {"type", "done", "description", "due", "start", "end"};
+    private static final int TYPE = 0;
+    private static final int DONE = 1;
+    private static final int DESCRIPTION = 2;
+    private static final int DUE = 3;
+    private static final int START = 4;
+    private static final int END = 5;
+
+    private static final String CRLF = "\r\n";
+
+    // Position of each of COLUMNS in the rows of the file being read, or -1 if it has no such column
+    private final int[] positions = new int[COLUMNS.length];
+
+    @Override
+    void readHeader(LineReader in) throws IOException, FinchException {
+        Record header = readRecord(in);
+        if (header == null) {
+            throw new FinchException("The CSV file is empty. It needs a header row.");
+        }
+
+        List<String> names = split(header.text);
+        for (int c = 0; c < COLUMNS.length; c++) {
+            positions[c] = -1;
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i).trim().equalsIgnoreCase(COLUMNS[c])) {
+                    positions[c] = i;
+                    break;
+                }
+            }
+        }
+        if (positions[DESCRIPTION] < 0) {
+            throw new FinchException("The CSV header row must have a description column.");
+        }
+    }
+
+    /**
+     * Reads the next row that is not empty. A row goes on past the end of a
+     * line while a quoted field is still open.
+     */
+    @Override
+    Record readRecord(LineReader in) throws IOException, FinchException {
+        String line;
+        do {
+            line = in.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isEmpty());
+
+        long start = in.getLineNumber();
+        if (!isQuoteOpen(line, false)) {
+            return new Record(start, line);
+        }
+
+        StringBuilder row = new StringBuilder(line);
+        boolean isOpen = true;
+        while (isOpen) {
+            String next = in.readLine();
+            if (next == null) {
+                throw new FinchException("Line " + start + ": a quoted field is never closed.");
+            }
+            if (row.length() + next.length() >= MAX_RECORD_LENGTH) {
+                throw new FinchException("Line " + start + ": the row is longer than "
+                        + MAX_RECORD_LENGTH + " characters.");
+            }
+            row.append('\n').append(next);
+            isOpen = isQuoteOpen(next, true);
+        }
+        return new Record(start, row.toString());
+    }
+
+    @Override
+    Task parse(String text) throws FinchException {
+        List<String> fields = split(text);
+        return newTask(field(fields, TYPE), field(fields, DESCRIPTION),
+                parseDone(field(fields, DONE)),
+                parseDateTime("due", field(fields, DUE)),
+                parseDateTime("start", field(fields, START)),
+                parseDateTime("end", field(fields, END)));
+    }
+
+    @Override
+    void writeHeader(Writer out) throws IOException {
+        out.write(String.join(",", COLUMNS));
+        out.write(CRLF);
+    }
+
+    @Override
+    void write(Task task, Writer out) throws IOException {
+        out.write(typeOf(task));
+        out.write(task.isDone() ? ",true," : ",false,");
+        writeField(task.getDescription(), out);
+        out.write(',');
+        if (task instanceof Deadline deadline) {
+            out.write(deadline.getBy().toString());
+            out.write(",,");
+        } else if (task instanceof Event event) {
+            out.write(',');
+            out.write(event.getFrom().toString());
+            out.write(',');
+            out.write(event.getTo().toString());
+        } else {
+            out.write(",,");
+        }
+        out.write(CRLF);
+    }
+
+    // Returns the value of one of COLUMNS in a row, or null if the file or the row does not have it
+    private String field(List<String> fields, int column) {
+        int i = positions[column];
+        return i >= 0 && i < fields.size() ? fields.get(i) : null;
+    }
+
+    // Returns whether a quoted field is still open at the end of a line, given whether it was at the start
+    private static boolean isQuoteOpen(String line, boolean wasOpen) {
+        boolean isOpen = wasOpen;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                isOpen = !isOpen;
+            }
+        }
+        return isOpen;
+    }
+
+    // Splits a row into its fields, removing the quotes around quoted fields
+    private static List<String> split(String row) {
+        List<String> fields = new ArrayList<>(COLUMNS.length);
+        int i = 0;
+        while (true) {
+            int end;
+            if (i < row.length() && row.charAt(i) == '"') {
+                end = readQuoted(row, i + 1, fields);
+            } else {
+                end = row.indexOf(',', i);
+                if (end < 0) {
+                    end = row.length();
+                }
+                fields.add(row.substring(i, end));
+            }
+            if (end >= row.length()) {
+                return fields;
+            }
+            i = end + 1;
+        }
+    }
+
+    // Adds the quoted field that starts at the given index, after its opening quote; returns the index after it
+    private static int readQuoted(String row, int start, List<String> fields) {
+        StringBuilder field = null;
+        int i = start;
+        while (true) {
+            int quote = row.indexOf('"', i);
+            if (quote < 0) {
+                quote = row.length(); // Never closed; keep the rest of the row
+            }
+            boolean isEscape = quote + 1 < row.length() && row.charAt(quote + 1) == '"';
+            if (field == null && !isEscape) {
+                fields.add(row.substring(start, quote));
+            } else {
+                if (field == null) {
+                    field = new StringBuilder(row.length() - start);
+                }
+                field.append(row, i, quote);
+                if (isEscape) {
+                    field.append('"');
+                    i = quote + 2;
+                    continue;
+                }
+                fields.add(field.toString());
+            }
+
+            // Anything between the closing quote and the next comma is kept, as spreadsheets do
+            int end = quote + 1;
+            int comma = end < row.length() ? row.indexOf(',', end) : -1;
+            if (comma < 0) {
+                comma = row.length();
+            }
+            if (comma > end) {
+                fields.set(fields.size() - 1, fields.get(fields.size() - 1) + row.substring(end, comma));
+            }
+            return comma;
+        }
+    }
+
+    // Writes a field, quoting it if it has a comma, quote or line break, or space at either end
+    private static void writeField(String value, Writer out) throws IOException {
+        boolean needsQuotes = !value.isEmpty()
+                && (value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ');
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
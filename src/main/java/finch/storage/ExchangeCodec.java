@@ -0,0 +1,226 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.Deadline;
+import finch.task.Event;
+import finch.task.Task;
+import finch.task.TaskList;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Reads and writes tasks in one {@link ExchangeFormat}.
+ * <p>
+ * Reading is split in two so that {@link TaskExchange} can parse in parallel:
+ * {@link #readRecord} only finds where each record ends, on the reading
+ * thread, and {@link #parse} turns the text of a record into a task, on any
+ * thread. A codec is made for one file and may keep state about it, such as
+ * the columns of a CSV header, but {@link #parse} must only read that state.
+ */
+abstract class ExchangeCodec {
+
+    // Longest record accepted, so that a malformed file cannot make one record take unbounded memory
+    static final int MAX_RECORD_LENGTH = 1 << 20;
+
+    /**
+     * The text of one record and the line it starts on.
+     */
+    static final class Record {
+        final long line;
+        final String text;
+
+        Record(long line, String text) {
+            this.line = line;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Reads anything that comes before the first record, such as a header row.
+     *
+     * @param in the input
+     * @throws IOException if the input cannot be read
+     * @throws FinchException if the header is invalid
+     */
+    void readHeader(LineReader in) throws IOException, FinchException {
+    }
+
+    /**
+     * Reads the text of the next record, without parsing it.
+     *
+     * @param in the input
+     * @return the record, or {@code null} at the end of the input
+     * @throws IOException if the input cannot be read
+     * @throws FinchException if the record does not end or is too long
+     */
+    abstract Record readRecord(LineReader in) throws IOException, FinchException;
+
+    /**
+     * Parses the text of a record into a new task that is not in any list yet.
+     *
+     * @param text the text returned by {@link #readRecord}
+     * @return the task
+     * @throws FinchException if the record is invalid
+     */
+    abstract Task parse(String text) throws FinchException;
+
+    // Writes anything that comes before the first task, such as a header row
+    void writeHeader(Writer out) throws IOException {
+    }
+
+    // Writes one task as a record
+    abstract void write(Task task, Writer out) throws IOException;
+
+    // Writes anything that comes after the last task
+    void writeFooter(Writer out) throws IOException {
+    }
+
+    // --- Helpers shared by the formats ---
+
+    /**
+     * Creates a task from the fields that every format has, with the same
+     * checks as adding it by hand. Without a type, a task with a due date is
+     * a deadline, one with a start or end is an event, and any other is a todo.
+     * The description is made to fit in one field of the data file: line
+     * breaks become spaces and the field separator {@code " | "} becomes
+     * {@code " / "}. Times are cut to the minute, as Finch keeps them.
+     *
+     * @param type "todo", "deadline" or "event", or {@code null} or empty to tell from the dates
+     * @param description the description
+     * @param isDone whether the task is done
+     * @param due the due date of a deadline, or {@code null}
+     * @param start the start of an event, or {@code null}
+     * @param end the end of an event, or {@code null}
+     * @return the new task
+     * @throws FinchException if the type is unknown, or the task fails the checks
+     */
+    static Task newTask(String type, String description, boolean isDone,
+            LocalDateTime due, LocalDateTime start, LocalDateTime end) throws FinchException {
+        String kind = type == null ? "" : type.trim().toLowerCase();
+        if (kind.isEmpty()) {
+            kind = due != null ? "deadline" : start != null || end != null ? "event" : "todo";
+        }
+
+        String field = toOneField(description);
+        Task task = switch (kind) {
+            case "todo", "t" -> TaskList.newTodo(field);
+            case "deadline", "d" -> TaskList.newDeadline(field, toMinute(due));
+            case "event", "e" -> TaskList.newEvent(field, toMinute(start), toMinute(end));
+            default -> throw new FinchException("Unknown task type: " + type.trim());
+        };
+        if (isDone) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    // Replaces what would end the description's field in the data file: a line break or the separator
+    private static String toOneField(String description) {
+        if (description == null) {
+            return null;
+        }
+        String field = description;
+        if (field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+            field = field.replace("\r\n", " ").replace('\r', ' ').replace('\n', ' ');
+        }
+        while (field.contains(" | ")) {
+            field = field.replace(" | ", " / "); // Twice for separators that share a space, as in "a | | b"
+        }
+        return field;
+    }
+
+    private static LocalDateTime toMinute(LocalDateTime time) {
+        return time == null ? null : time.truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    // Returns the name of the type of a task, as newTask accepts it
+    static String typeOf(Task task) {
+        if (task instanceof Deadline) {
+            return "deadline";
+        }
+        return task instanceof Event ? "event" : "todo";
+    }
+
+    /**
+     * Parses a date and time written as {@code yyyy-MM-ddTHH:mm[:ss]}, with a
+     * {@code T} or a space in the middle, or a date alone, meaning its start.
+     *
+     * @param name the name of the field, for the error message
+     * @param value the value, or {@code null} or empty if there is none
+     * @return the date and time, or {@code null} if there is none
+     * @throws FinchException if the value is not a date and time
+     */
+    static LocalDateTime parseDateTime(String name, String value) throws FinchException {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String v = value.trim();
+        try {
+            if (isIsoMinute(v)) {
+                // The form exports write, parsed without a formatter as it is by far the most common
+                return LocalDateTime.of(digits(v, 0, 4), digits(v, 5, 2), digits(v, 8, 2),
+                        digits(v, 11, 2), digits(v, 14, 2));
+            }
+            if (v.length() == 10) {
+                return LocalDate.parse(v).atStartOfDay();
+            }
+            if (v.length() > 10 && v.charAt(10) == ' ') {
+                v = v.substring(0, 10) + 'T' + v.substring(11);
+            }
+            return LocalDateTime.parse(v);
+        } catch (DateTimeException e) {
+            throw new FinchException("Invalid " + name + " date/time: " + v
+                    + ". Use yyyy-MM-dd HH:mm (e.g., 2025-09-26 18:00).");
+        }
+    }
+
+    // Returns whether a value is exactly yyyy-MM-ddTHH:mm, with a T or a space in the middle
+    private static boolean isIsoMinute(String v) {
+        return v.length() == 16 && v.charAt(4) == '-' && v.charAt(7) == '-' && v.charAt(13) == ':'
+                && (v.charAt(10) == 'T' || v.charAt(10) == ' ')
+                && isDigits(v, 0, 4) && isDigits(v, 5, 2) && isDigits(v, 8, 2)
+                && isDigits(v, 11, 2) && isDigits(v, 14, 2);
+    }
+
+    // Returns whether the given number of characters from the given index are all ASCII digits
+    static boolean isDigits(String v, int start, int count) {
+        for (int i = start; i < start + count; i++) {
+            if (v.charAt(i) < '0' || v.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Parses the given number of digits, which are known to be digits, from the given index
+    static int digits(String v, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            value = value * 10 + (v.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Parses whether a task is done, written as true/false, yes/no, 1/0 or X.
+     *
+     * @param value the value, or {@code null} or empty for not done
+     * @return whether the task is done
+     * @throws FinchException if the value is none of those
+     */
+    static boolean parseDone(String value) throws FinchException {
+        if (value == null) {
+            return false;
+        }
+        return switch (value.trim().toLowerCase()) {
+            case "", "false", "no", "0" -> false;
+            case "true", "yes", "1", "x" -> true;
+            default -> throw new FinchException("Invalid done value: " + value.trim() + ". Use true or false.");
+        };
+    }
+}
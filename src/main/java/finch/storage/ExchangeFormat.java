@@ -0,0 +1,50 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+
+import java.util.Locale;
+
+/**
+ * The file formats tasks can be imported from and exported to, told apart
+ * by the extension of the file name.
+ */
+public enum ExchangeFormat {
+    CSV(".csv"),
+    JSON_LINES(".jsonl", ".ndjson"),
+    ICALENDAR(".ics", ".ical");
+
+    private final String[] extensions;
+
+    ExchangeFormat(String... extensions) {
+        this.extensions = extensions;
+    }
+
+    /**
+     * Returns the format of a file, from the extension of its name.
+     *
+     * @param path the path of the file
+     * @return the format
+     * @throws FinchException if the extension is not one of a known format
+     */
+    public static ExchangeFormat forPath(String path) throws FinchException {
+        String name = path.toLowerCase(Locale.ROOT);
+        for (ExchangeFormat format : values()) {
+            for (String extension : format.extensions) {
+                if (name.endsWith(extension)) {
+                    return format;
+                }
+            }
+        }
+        throw new FinchException("Unknown file format: " + path
+                + ". Use a .csv, .jsonl or .ics file.");
+    }
+
+    // Returns a new codec for reading or writing one file in this format
+    ExchangeCodec newCodec() {
+        return switch (this) {
+            case CSV -> new CsvCodec();
+            case JSON_LINES -> new JsonLinesCodec();
+            case ICALENDAR -> new ICalendarCodec();
+        };
+    }
+}
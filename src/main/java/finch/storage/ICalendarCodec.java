@@ -0,0 +1,383 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.Deadline;
+import finch.task.Event;
+import finch.task.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Reads and writes tasks as iCalendar (RFC 5545).
+ * <p>
+ * Deadlines are written as {@code VTODO}s with a {@code DUE} date, todos as
+ * {@code VTODO}s without one, and events as {@code VEVENT}s. Dates are
+ * written in local time. When reading, a {@code VTODO} becomes a deadline if
+ * it has a {@code DUE} date and a todo otherwise, and is done if its status
+ * is {@code COMPLETED}. A {@code VEVENT} without a {@code DTEND} ends after
+ * its {@code DURATION}, or after one day if it starts on a date alone, or
+ * when it starts. Dates in UTC or with a {@code TZID} are converted to local
+ * time. Other components, such as time zones, and other properties are ignored.
+ */
+class ICalendarCodec extends ExchangeCodec {
+
+    // Lines are folded so that none is longer than this many bytes, as the standard asks
+    private static final int MAX_LINE_BYTES = 75;
+
+    private static final String CRLF = "\r\n";
+
+    // Property that records whether an event is done, as VEVENTs have no status for it
+    private static final String DONE_PROPERTY = "X-FINCH-DONE";
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    // The next line, read ahead to see whether the line after it continues it
+    private String lookahead;
+
+    // Time stamp written on every component of one export, as the standard requires one
+    private String stamp;
+
+    /**
+     * Reads the next {@code VTODO} or {@code VEVENT}, skipping everything
+     * around it. The text of the record is its unfolded lines.
+     */
+    @Override
+    Record readRecord(LineReader in) throws IOException, FinchException {
+        String line;
+        do {
+            line = readUnfolded(in);
+            if (line == null) {
+                return null;
+            }
+        } while (!line.equalsIgnoreCase("BEGIN:VTODO") && !line.equalsIgnoreCase("BEGIN:VEVENT"));
+
+        long start = in.getLineNumber() - (lookahead == null ? 0 : 1);
+        String begin = line;
+        String end = "END:" + begin.substring("BEGIN:".length());
+        StringBuilder component = new StringBuilder(256).append(begin);
+        int depth = 0;
+        while (true) {
+            line = readUnfolded(in);
+            if (line == null) {
+                throw new FinchException("Line " + start + ": " + begin + " has no " + end + '.');
+            }
+            if (component.length() + line.length() >= MAX_RECORD_LENGTH) {
+                throw new FinchException("Line " + start + ": the component is longer than "
+                        + MAX_RECORD_LENGTH + " characters.");
+            }
+            component.append('\n').append(line);
+            if (startsWithIgnoreCase(line, "BEGIN:")) {
+                depth++;
+            } else if (startsWithIgnoreCase(line, "END:")) {
+                if (depth == 0) {
+                    if (!line.equalsIgnoreCase(end)) {
+                        throw new FinchException("Line " + start + ": " + end + " expected, but found " + line + '.');
+                    }
+                    return new Record(start, component.toString());
+                }
+                depth--;
+            }
+        }
+    }
+
+    @Override
+    Task parse(String text) throws FinchException {
+        String[] lines = text.split("\n");
+        boolean isEvent = lines[0].equalsIgnoreCase("BEGIN:VEVENT");
+
+        String summary = null;
+        String status = null;
+        boolean isCompleted = false;
+        String[] due = null;
+        String[] start = null;
+        String[] end = null;
+        String duration = null;
+        int depth = 0;
+        for (int i = 1; i < lines.length - 1; i++) {
+            String line = lines[i];
+            if (startsWithIgnoreCase(line, "BEGIN:")) {
+                depth++;
+                continue;
+            }
+            if (startsWithIgnoreCase(line, "END:")) {
+                depth--;
+                continue;
+            }
+            if (depth > 0) {
+                continue; // A property of a nested component, such as an alarm
+            }
+
+            String[] property = splitProperty(line);
+            switch (property[0]) {
+            case "SUMMARY" -> summary = unescape(property[2]);
+            case "STATUS" -> status = property[2].trim();
+            case "COMPLETED" -> isCompleted = true;
+            case DONE_PROPERTY -> isCompleted = property[2].trim().equalsIgnoreCase("TRUE");
+            case "DUE" -> due = property;
+            case "DTSTART" -> start = property;
+            case "DTEND" -> end = property;
+            case "DURATION" -> duration = property[2].trim();
+            default -> {
+            }
+            }
+        }
+        boolean isDone = isCompleted || "COMPLETED".equalsIgnoreCase(status);
+
+        if (!isEvent) {
+            LocalDateTime by = parseDate(due);
+            return newTask(by == null ? "todo" : "deadline", summary, isDone, by, null, null);
+        }
+
+        LocalDateTime from = parseDate(start);
+        LocalDateTime to = parseDate(end);
+        if (to == null && from != null) {
+            if (duration != null) {
+                to = from.plus(parseDuration(duration));
+            } else {
+                to = isDateOnly(start) ? from.plusDays(1) : from;
+            }
+        }
+        return newTask("event", summary, isDone, null, from, to);
+    }
+
+    @Override
+    void writeHeader(Writer out) throws IOException {
+        stamp = DATE_TIME.format(LocalDateTime.now(ZoneOffset.UTC)) + 'Z';
+        out.write("BEGIN:VCALENDAR" + CRLF);
+        out.write("VERSION:2.0" + CRLF);
+        out.write("PRODID:-//Finch//Finch Task Manager//EN" + CRLF);
+    }
+
+    @Override
+    void write(Task task, Writer out) throws IOException {
+        String component = task instanceof Event ? "VEVENT" : "VTODO";
+        out.write("BEGIN:" + component + CRLF);
+        out.write("UID:" + task.getId() + "@finch" + CRLF);
+        out.write("DTSTAMP:" + stamp + CRLF);
+        writeFolded("SUMMARY:" + escape(task.getDescription()), out);
+        if (task instanceof Deadline deadline) {
+            out.write("DUE:" + DATE_TIME.format(deadline.getBy()) + CRLF);
+        } else if (task instanceof Event event) {
+            out.write("DTSTART:" + DATE_TIME.format(event.getFrom()) + CRLF);
+            out.write("DTEND:" + DATE_TIME.format(event.getTo()) + CRLF);
+        }
+        if (task instanceof Event) {
+            if (task.isDone()) {
+                out.write(DONE_PROPERTY + ":TRUE" + CRLF);
+            }
+        } else {
+            out.write(task.isDone() ? "STATUS:COMPLETED" + CRLF : "STATUS:NEEDS-ACTION" + CRLF);
+        }
+        out.write("END:" + component + CRLF);
+    }
+
+    @Override
+    void writeFooter(Writer out) throws IOException {
+        out.write("END:VCALENDAR" + CRLF);
+    }
+
+    // Reads the next logical line, joining the lines that continue it (those starting with a space or tab)
+    private String readUnfolded(LineReader in) throws IOException, FinchException {
+        String line = lookahead != null ? lookahead : in.readLine();
+        lookahead = null;
+        if (line == null) {
+            return null;
+        }
+
+        StringBuilder unfolded = null;
+        while (true) {
+            String next = in.readLine();
+            if (next == null || next.isEmpty() || (next.charAt(0) != ' ' && next.charAt(0) != '\t')) {
+                lookahead = next;
+                return unfolded == null ? line : unfolded.toString();
+            }
+            if (unfolded == null) {
+                unfolded = new StringBuilder(line);
+            }
+            if (unfolded.length() + next.length() >= MAX_RECORD_LENGTH) {
+                throw new FinchException("Line " + in.getLineNumber() + ": the folded line is longer than "
+                        + MAX_RECORD_LENGTH + " characters.");
+            }
+            unfolded.append(next, 1, next.length());
+        }
+    }
+
+    // Splits a content line into its upper-case name, its parameters (or "") and its value
+    private static String[] splitProperty(String line) {
+        boolean isQuoted = false;
+        int nameEnd = -1;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                isQuoted = !isQuoted;
+            } else if (!isQuoted && c == ';' && nameEnd < 0) {
+                nameEnd = i;
+            } else if (!isQuoted && c == ':') {
+                if (nameEnd < 0) {
+                    nameEnd = i;
+                }
+                return new String[] {upperCase(line.substring(0, nameEnd).trim()),
+                    line.substring(nameEnd, i), line.substring(i + 1)};
+            }
+        }
+        return new String[] {upperCase(line.trim()), "", ""};
+    }
+
+    // Returns a property name in upper case; most already are, so those are returned as they are
+    private static String upperCase(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                return name.toUpperCase(Locale.ROOT);
+            }
+        }
+        return name;
+    }
+
+    // Returns whether a date property is a date alone, without a time
+    private static boolean isDateOnly(String[] property) {
+        return property[2].trim().length() == 8;
+    }
+
+    /**
+     * Parses the value of a date property into local time: a date alone
+     * means its start, a value ending in {@code Z} is in UTC, and one with a
+     * {@code TZID} parameter is in that time zone.
+     */
+    private static LocalDateTime parseDate(String[] property) throws FinchException {
+        if (property == null) {
+            return null;
+        }
+        String value = property[2].trim();
+        try {
+            if (value.length() == 8) {
+                return LocalDate.parse(value, DATE).atStartOfDay();
+            }
+            if (value.endsWith("Z") || value.endsWith("z")) {
+                LocalDateTime utc = parseLocal(value.substring(0, value.length() - 1));
+                return utc.atZone(ZoneOffset.UTC).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            }
+            LocalDateTime local = parseLocal(value);
+            ZoneId zone = zoneOf(property[1]);
+            if (zone == null) {
+                return local;
+            }
+            return ZonedDateTime.of(local, zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeException e) {
+            throw new FinchException("Invalid " + property[0] + " date/time: " + value
+                    + ". Use yyyyMMdd'T'HHmmss (e.g., 20250926T180000).");
+        }
+    }
+
+    // Parses a yyyyMMdd'T'HHmmss value, without a formatter when it has the usual digits
+    private static LocalDateTime parseLocal(String value) {
+        if (value.length() == 15 && value.charAt(8) == 'T' && isDigits(value, 0, 8) && isDigits(value, 9, 6)) {
+            return LocalDateTime.of(digits(value, 0, 4), digits(value, 4, 2), digits(value, 6, 2),
+                    digits(value, 9, 2), digits(value, 11, 2), digits(value, 13, 2));
+        }
+        return LocalDateTime.parse(value, DATE_TIME);
+    }
+
+    // Returns the time zone named by a TZID parameter, or null if there is none or it is unknown
+    private static ZoneId zoneOf(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            int eq = parameter.indexOf('=');
+            if (eq > 0 && parameter.substring(0, eq).trim().equalsIgnoreCase("TZID")) {
+                try {
+                    return ZoneId.of(parameter.substring(eq + 1).replace("\"", "").trim());
+                } catch (DateTimeException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Parses a DURATION such as PT1H30M, P1D or P2W
+    private static Duration parseDuration(String value) throws FinchException {
+        try {
+            if (value.endsWith("W") || value.endsWith("w")) {
+                long weeks = Long.parseLong(value.substring(value.indexOf('P') + 1, value.length() - 1));
+                return Duration.ofDays(value.startsWith("-") ? -7 * weeks : 7 * weeks);
+            }
+            return Duration.parse(value);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new FinchException("Invalid DURATION: " + value + ". Use e.g. PT1H30M or P1D.");
+        }
+    }
+
+    // Undoes the escaping of a TEXT value
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder text = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char e = value.charAt(++i);
+                text.append(e == 'n' || e == 'N' ? '\n' : e);
+            } else {
+                text.append(c);
+            }
+        }
+        return text.toString();
+    }
+
+    // Escapes a TEXT value
+    private static String escape(String value) {
+        StringBuilder text = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '\\', ';', ',' -> text.append('\\').append(c);
+            case '\n' -> text.append("\\n");
+            case '\r' -> {
+            }
+            default -> text.append(c);
+            }
+        }
+        return text.toString();
+    }
+
+    // Writes a content line, folding it so that no line is longer than MAX_LINE_BYTES in UTF-8
+    private static void writeFolded(String line, Writer out) throws IOException {
+        if (line.length() * 3 <= MAX_LINE_BYTES) {
+            out.write(line);
+            out.write(CRLF);
+            return;
+        }
+
+        int bytes = 0;
+        int i = 0;
+        while (i < line.length()) {
+            int cp = line.codePointAt(i);
+            int chars = Character.charCount(cp);
+            int size = cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4;
+            if (bytes + size > MAX_LINE_BYTES) {
+                out.write(CRLF + " ");
+                bytes = 1;
+            }
+            out.write(line, i, chars);
+            bytes += size;
+            i += chars;
+        }
+        out.write(CRLF);
+    }
+
+    private static boolean startsWithIgnoreCase(String line, String prefix) {
+        return line.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+}
@@ -0,0 +1,186 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.Task;
+import finch.task.TaskList;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Append-only log of task mutations kept next to the data file.
+ * <p>
+ * Each mutation is written as one short line, so recording it costs the same
+ * no matter how many tasks are in the list. The journal is replayed on top of
+ * the data file when tasks are loaded, and is cleared whenever the data file
+ * is rewritten in full.
+ *
+ * <p>Record formats:</p>
+ * <ul>
+ *     <li>Add: {@code A <encoded task, including its ID>}</li>
+ *     <li>Mark: {@code M #<id>}</li>
+ *     <li>Unmark: {@code U #<id>}</li>
+ *     <li>Delete: {@code D #<id>}</li>
+ * </ul>
+ * Journals written before tasks had IDs refer to tasks by zero-based index
+ * instead ({@code M <index>}); those records are still understood.
+ */
+class Journal {
+
+    static final char ADD = 'A';
+    static final char MARK = 'M';
+    static final char UNMARK = 'U';
+    static final char DELETE = 'D';
+
+    private final File file;
+
+    // Number of records and bytes appended since the journal was last cleared
+    private int recordCount;
+    private long byteCount;
+
+    /**
+     * Constructs a {@code Journal} that lives beside the given data file.
+     *
+     * @param dataFile the data file whose mutations are journaled
+     */
+    Journal(File dataFile) {
+        this.file = new File(dataFile.getPath() + ".journal");
+    }
+
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Appends records of one type to the end of the journal, in a single write.
+     *
+     * @param type the record type ({@link #ADD}, {@link #MARK}, {@link #UNMARK} or {@link #DELETE})
+     * @param payloads the payload of each record (an encoded task or a task ID), in order
+     * @throws IOException if the records cannot be written
+     */
+    void append(char type, List<String> payloads) throws IOException {
+        StringBuilder records = new StringBuilder();
+        for (String payload : payloads) {
+            records.append(type).append(' ').append(payload).append('\n');
+        }
+        byte[] bytes = records.toString().getBytes(StandardCharsets.UTF_8);
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(bytes);
+        }
+        recordCount += payloads.size();
+        byteCount += bytes.length;
+    }
+
+    /**
+     * Applies every record in the journal, in order, to the given task list.
+     * <p>
+     * A final record without a trailing newline was torn by a crash mid-append;
+     * it is ignored and cut off so that later appends start on a fresh line.
+     * Any other malformed record is reported as corruption.
+     *
+     * @param tasks the tasks loaded from the data file, modified in place
+     * @throws FinchException if a record is malformed or refers to a missing task
+     */
+    void replay(TaskList tasks) throws FinchException {
+        recordCount = 0;
+        byteCount = 0;
+        if (!file.exists()) {
+            return;
+        }
+
+        boolean hasCompleteTail;
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            hasCompleteTail = endsWithNewline();
+            String line = br.readLine();
+            while (line != null) {
+                String next = br.readLine();
+                boolean isTorn = next == null && !hasCompleteTail;
+                if (!isTorn) {
+                    apply(line, tasks);
+                    recordCount++;
+                    byteCount += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                }
+                line = next;
+            }
+        } catch (IOException e) {
+            throw new FinchException("Failed to read journal: " + e.getMessage());
+        }
+
+        if (!hasCompleteTail) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(byteCount);
+            } catch (IOException e) {
+                throw new FinchException("Failed to repair journal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Deletes the journal, typically right after the data file has been rewritten.
+     *
+     * @throws IOException if the journal exists but cannot be deleted
+     */
+    void clear() throws IOException {
+        Files.deleteIfExists(file.toPath());
+        recordCount = 0;
+        byteCount = 0;
+    }
+
+    // Applies a single journal record to the task list
+    private static void apply(String record, TaskList tasks) throws FinchException {
+        if (record.length() < 3 || record.charAt(1) != ' ') {
+            throw new FinchException("Corrupted journal record: " + record);
+        }
+        String payload = record.substring(2);
+        switch (record.charAt(0)) {
+        case ADD:
+            tasks.addLoaded(Task.decode(payload));
+            break;
+        case MARK:
+            tasks.markTask(parseIndex(payload, record, tasks));
+            break;
+        case UNMARK:
+            tasks.unmarkTask(parseIndex(payload, record, tasks));
+            break;
+        case DELETE:
+            tasks.deleteTask(parseIndex(payload, record, tasks));
+            break;
+        default:
+            throw new FinchException("Corrupted journal record: " + record);
+        }
+    }
+
+    // Resolves the task ID (or, in old journals, the index) carried by a mark/unmark/delete record
+    private static int parseIndex(String payload, String record, TaskList tasks) throws FinchException {
+        try {
+            int index = payload.startsWith("#")
+                    ? tasks.indexOfId(Long.parseLong(payload.substring(1)))
+                    : Integer.parseInt(payload);
+            if (index >= 0 && index < tasks.size()) {
+                return index;
+            }
+        } catch (NumberFormatException | FinchException e) {
+            // fall through to the corruption error below
+        }
+        throw new FinchException("Corrupted journal record: " + record);
+    }
+
+    // Checks whether the journal's last byte is a newline, i.e. the last record is complete
+    private boolean endsWithNewline() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long length = raf.length();
+            if (length == 0) {
+                return true;
+            }
+            raf.seek(length - 1);
+            return raf.read() == '\n';
+        }
+    }
+}
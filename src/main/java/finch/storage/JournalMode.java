@@ -0,0 +1,56 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.metrics.Metrics;
+import finch.task.TaskList;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A {@link SaveMode} that appends each mutation to the {@link Journal}
+ * instead of rewriting the whole file. The data file is only rewritten
+ * (compacted) once the journal grows past a size or ratio threshold, and
+ * for mutations the journal cannot describe.
+ */
+class JournalMode extends RewriteMode {
+
+    // Compact once the journal holds at least this many records...
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+
+    // ...and more records than this fraction of the task count
+    private static final double COMPACTION_RATIO = 0.5;
+
+    // Always compact once the journal grows beyond this many bytes
+    private static final long MAX_JOURNAL_BYTES = 16L * 1024 * 1024;
+
+    private final Journal journal;
+
+    JournalMode(Storage storage, Journal journal) {
+        super(storage);
+        this.journal = journal;
+    }
+
+    @Override
+    public void record(TaskList tasks, char type, List<String> payloads) throws FinchException {
+        try {
+            long start = System.nanoTime();
+            long before = journal.getByteCount();
+            journal.append(type, payloads);
+            Metrics.get().getJournalAppends().record(System.nanoTime() - start, journal.getByteCount() - before);
+        } catch (IOException e) {
+            throw new FinchException("Failed to save tasks: " + e.getMessage());
+        }
+
+        if (shouldCompact(tasks.size())) {
+            storage.save(tasks);
+        }
+    }
+
+    // Compaction keeps replay time proportional to the list, and its O(n) cost amortised over many records
+    private boolean shouldCompact(int taskCount) {
+        int records = journal.getRecordCount();
+        return journal.getByteCount() > MAX_JOURNAL_BYTES
+                || (records >= MIN_COMPACTION_RECORDS && records > taskCount * COMPACTION_RATIO);
+    }
+}
@@ -0,0 +1,246 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.Deadline;
+import finch.task.Event;
+import finch.task.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes tasks as JSON Lines: one JSON object per line, e.g.
+ * <pre>
+ *     {"type":"deadline","done":false,"description":"submit report","due":"2025-09-26T18:00"}
+ * </pre>
+ * The keys are those of the CSV columns ({@code type}, {@code done},
+ * {@code description}, {@code due}, {@code start} and {@code end}); other
+ * keys, including nested objects and arrays, are ignored, so that files
+ * from other systems can be read. {@code done} may be a boolean or a string.
+ */
+class JsonLinesCodec extends ExchangeCodec {
+
+    private static final String[] HEX = {"0", "1", "2", "3", "4", "5", "6", "7",
+        "8", "9", "a", "b", "c", "d", "e", "f"};
+
+    @Override
+    Record readRecord(LineReader in) throws IOException, FinchException {
+        String line;
+        do {
+            line = in.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+        return new Record(in.getLineNumber(), line);
+    }
+
+    @Override
+    Task parse(String text) throws FinchException {
+        Map<String, String> fields = new ObjectReader(text).read();
+        return newTask(fields.get("type"), fields.get("description"),
+                parseDone(fields.get("done")),
+                parseDateTime("due", fields.get("due")),
+                parseDateTime("start", fields.get("start")),
+                parseDateTime("end", fields.get("end")));
+    }
+
+    @Override
+    void write(Task task, Writer out) throws IOException {
+        out.write("{\"type\":\"");
+        out.write(typeOf(task));
+        out.write(task.isDone() ? "\",\"done\":true,\"description\":" : "\",\"done\":false,\"description\":");
+        writeString(task.getDescription(), out);
+        if (task instanceof Deadline deadline) {
+            out.write(",\"due\":\"" + deadline.getBy() + '"');
+        } else if (task instanceof Event event) {
+            out.write(",\"start\":\"" + event.getFrom() + "\",\"end\":\"" + event.getTo() + '"');
+        }
+        out.write("}\n");
+    }
+
+    // Writes a JSON string, escaping quotes, backslashes and control characters
+    private static void writeString(String value, Writer out) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"' -> out.write("\\\"");
+            case '\\' -> out.write("\\\\");
+            case '\n' -> out.write("\\n");
+            case '\r' -> out.write("\\r");
+            case '\t' -> out.write("\\t");
+            default -> {
+                if (c < 0x20) {
+                    out.write("\\u00" + HEX[c >> 4] + HEX[c & 0xf]);
+                } else {
+                    out.write(c);
+                }
+            }
+            }
+        }
+        out.write('"');
+    }
+
+    /**
+     * Reads the top-level fields of one JSON object. Strings are unescaped,
+     * other values are kept as written, {@code null} values are left out,
+     * and objects and arrays are skipped.
+     */
+    private static final class ObjectReader {
+        private final String text;
+        private int pos;
+
+        ObjectReader(String text) {
+            this.text = text;
+        }
+
+        Map<String, String> read() throws FinchException {
+            Map<String, String> fields = new HashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                pos++;
+            } else {
+                do {
+                    String key = readString();
+                    expect(':');
+                    String value = readValue();
+                    if (value != null) {
+                        fields.put(key, value);
+                    }
+                } while (next(',', '}') == ',');
+            }
+            if (skipWhitespace() < text.length()) {
+                throw error("unexpected text after the object");
+            }
+            return fields;
+        }
+
+        // Reads any value, returning null for null, objects and arrays
+        private String readValue() throws FinchException {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            if (c == '{' || c == '[') {
+                skipNested();
+                return null;
+            }
+            int start = pos;
+            while (pos < text.length() && ",}] \t".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            if (literal.isEmpty()) {
+                throw error("a value is missing");
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String readString() throws FinchException {
+            expect('"');
+            int start = pos;
+            while (pos < text.length() && text.charAt(pos) != '"' && text.charAt(pos) != '\\') {
+                pos++;
+            }
+            if (pos < text.length() && text.charAt(pos) == '"') {
+                return text.substring(start, pos++); // Nothing to unescape
+            }
+
+            StringBuilder value = new StringBuilder(pos - start + 16).append(text, start, pos);
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    break;
+                }
+                char e = text.charAt(pos++);
+                switch (e) {
+                case '"', '\\', '/' -> value.append(e);
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > text.length()) {
+                        throw error("a \\u escape is cut short");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw error("invalid \\u escape");
+                    }
+                    pos += 4;
+                }
+                default -> throw error("invalid escape \\" + e);
+                }
+            }
+            throw error("a string is never closed");
+        }
+
+        // Skips an object or array, with anything nested in it
+        private void skipNested() throws FinchException {
+            int depth = 0;
+            do {
+                if (pos >= text.length()) {
+                    throw error("an object or array is never closed");
+                }
+                char c = text.charAt(pos);
+                if (c == '"') {
+                    readString();
+                    continue;
+                }
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+                pos++;
+            } while (depth > 0);
+        }
+
+        private char peek() throws FinchException {
+            if (skipWhitespace() >= text.length()) {
+                throw error("the line ends too early");
+            }
+            return text.charAt(pos);
+        }
+
+        private void expect(char c) throws FinchException {
+            if (peek() != c) {
+                throw error("expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        // Reads one of two expected characters
+        private char next(char a, char b) throws FinchException {
+            char c = peek();
+            if (c != a && c != b) {
+                throw error("expected '" + a + "' or '" + b + "'");
+            }
+            pos++;
+            return c;
+        }
+
+        private int skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+            return pos;
+        }
+
+        private FinchException error(String problem) {
+            return new FinchException("Invalid JSON at column " + (pos + 1) + ": " + problem + ".");
+        }
+    }
+}
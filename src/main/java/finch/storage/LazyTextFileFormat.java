@@ -0,0 +1,22 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.TaskList;
+
+import java.io.File;
+
+/**
+ * The text data file, read lazily: reading only finds where each task is in
+ * the file, and the list decodes its tasks as they are first read (see
+ * {@link LazyTextTasks}). A corrupted task is then reported when it is first
+ * read, rather than when the file is read. Writing is the same as for
+ * {@link TextFileFormat}.
+ */
+class LazyTextFileFormat extends TextFileFormat {
+
+    @Override
+    public TaskList read(File file, LoadProgress progress) throws FinchException {
+        progress.start(file.length());
+        return new TaskList(LazyTextTasks.index(file, progress));
+    }
+}
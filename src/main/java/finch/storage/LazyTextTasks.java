@@ -0,0 +1,322 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.EncodedTasks;
+import finch.task.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The tasks of a text data file, found but not decoded, for loading lazily.
+ * <p>
+ * The file is read into heap buffers in the same newline-aligned chunks that
+ * {@link ChunkedTaskLoader} decodes, and the chunks are scanned in parallel.
+ * The scan only records where each line starts and the ID it begins with,
+ * looking for line breaks eight bytes at a time, which costs a small
+ * fraction of decoding the lines. Lines are split the same way as by
+ * {@link ChunkedTaskLoader}. A corrupted ID is reported by the scan, with the
+ * same message as a full load gives. Anything else wrong with a line is only
+ * reported once the line is decoded.
+ * <p>
+ * The file stays open so that lines can be read back when they are decoded,
+ * and is closed once every line has been. It is never memory-mapped: on
+ * Windows, a live mapping would stop every save from replacing the data file,
+ * whereas an open channel does not. Saving replaces the data file with a new
+ * one rather than writing into it, so this goes on reading the file as it was
+ * loaded.
+ */
+class LazyTextTasks implements EncodedTasks {
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    // The line break bytes repeated across a long, for finding them eight bytes at a time
+    private static final long LF_BYTES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long CR_BYTES = 0x0D0D0D0D0D0D0D0DL;
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    // Most digits a task ID may have, as Task.decode accepts it
+    private static final int MAX_ID_DIGITS = 18;
+
+    private final FileChannel channel;
+    private final long fileSize;
+
+    // File offset at which each line starts, and the ID it was saved with
+    private final long[] lineStarts;
+    private final long[] ids;
+
+    // Lines not decoded yet; guarded by this object's lock
+    private int undecoded;
+
+    private LazyTextTasks(FileChannel channel, long fileSize, long[] lineStarts, long[] ids) {
+        this.channel = channel;
+        this.fileSize = fileSize;
+        this.lineStarts = lineStarts;
+        this.ids = ids;
+        this.undecoded = lineStarts.length;
+    }
+
+    /**
+     * Scans the given file for its tasks, in parallel for large files.
+     *
+     * @param file the text data file to load
+     * @param progress advanced by the bytes scanned so far
+     * @return the tasks in the file, not decoded yet
+     * @throws FinchException if the file cannot be read or a line has a corrupted ID
+     */
+    static LazyTextTasks index(File file, LoadProgress progress) throws FinchException {
+        FileChannel channel = null;
+        boolean isIndexed = false;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            long size = channel.size();
+            long[] bounds = size == 0 ? new long[] {0} : ChunkedTaskLoader.findChunkBounds(channel, size);
+            Chunk[] chunks = new Chunk[bounds.length - 1];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = new Chunk(channel, bounds[i], bounds[i + 1], progress);
+            }
+
+            if (chunks.length == 1) {
+                chunks[0].scan();
+            } else if (chunks.length > 1) {
+                ForkJoinPool.commonPool().invoke(new ScanAction(chunks, 0, chunks.length));
+            }
+
+            LazyTextTasks tasks = concatenate(channel, size, chunks);
+            isIndexed = true;
+            return tasks;
+        } catch (IOException e) {
+            throw new FinchException("Failed to load tasks: " + e.getMessage());
+        } finally {
+            if (!isIndexed) {
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    // Joins the chunks' lines in order, or reports the first error in file order
+    private static LazyTextTasks concatenate(FileChannel channel, long size, Chunk[] chunks) throws FinchException {
+        int total = 0;
+        for (Chunk chunk : chunks) {
+            if (chunk.error != null) {
+                throw new FinchException("Failed to load tasks: " + chunk.error.getMessage());
+            }
+            total += chunk.count;
+        }
+
+        long[] lineStarts = new long[total];
+        long[] ids = new long[total];
+        int line = 0;
+        for (Chunk chunk : chunks) {
+            System.arraycopy(chunk.lineStarts, 0, lineStarts, line, chunk.count);
+            System.arraycopy(chunk.ids, 0, ids, line, chunk.count);
+            line += chunk.count;
+        }
+        return new LazyTextTasks(channel, size, lineStarts, ids);
+    }
+
+    @Override
+    public int size() {
+        return lineStarts.length;
+    }
+
+    @Override
+    public long getId(int index) {
+        return ids[index];
+    }
+
+    @Override
+    public Task[] decode(int from, int to) throws FinchException {
+        long start = from < lineStarts.length ? lineStarts[from] : fileSize;
+        long end = to < lineStarts.length ? lineStarts[to] : fileSize;
+        ByteBuffer bytes;
+        try {
+            bytes = ChunkedTaskLoader.read(channel, start, end).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new FinchException("Failed to load tasks: " + e.getMessage());
+        }
+
+        Task[] tasks = new Task[to - from];
+        for (int i = from; i < to; i++) {
+            int lineStart = (int) (lineStarts[i] - start);
+            String line = line(bytes, lineStart, lineEnd(bytes, lineStart, bytes.limit()));
+            try {
+                tasks[i - from] = Task.decode(line);
+            } catch (Exception e) {
+                throw new FinchException("Failed to load tasks: " + e.getMessage());
+            }
+        }
+        decoded(tasks.length);
+        return tasks;
+    }
+
+    // Closes the file once every line has been decoded
+    private synchronized void decoded(int lines) {
+        undecoded -= lines;
+        if (undecoded == 0) {
+            closeQuietly(channel);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing more will be read from it
+        }
+    }
+
+    // Returns the index of the line break ending the line that starts at the given index, or the limit
+    private static int lineEnd(ByteBuffer bytes, int lineStart, int limit) {
+        int i = lineStart;
+        for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+            long word = bytes.getLong(i); // little-endian, so the first byte is the lowest
+            long breaks = zeroBytes(word ^ LF_BYTES) | zeroBytes(word ^ CR_BYTES);
+            if (breaks != 0) {
+                return i + (Long.numberOfTrailingZeros(breaks) >>> 3);
+            }
+        }
+        while (i < limit && bytes.get(i) != LF && bytes.get(i) != CR) {
+            i++;
+        }
+        return i;
+    }
+
+    // Sets the high bit of the lowest zero byte of a word; bits above it may be set spuriously
+    private static long zeroBytes(long word) {
+        return (word - LOW_BITS) & ~word & HIGH_BITS;
+    }
+
+    // Returns the ID at the start of a line, 0 if it has none, or -1 if it is corrupted, as Task.decode reads it
+    private static long parseId(ByteBuffer bytes, int lineStart, int lineEnd) {
+        if (lineStart == lineEnd || bytes.get(lineStart) != '#') {
+            return 0;
+        }
+        int separator = lineStart + 1;
+        while (separator + 2 < lineEnd
+                && (bytes.get(separator) != ' ' || bytes.get(separator + 1) != '|' || bytes.get(separator + 2) != ' ')) {
+            separator++;
+        }
+        if (separator + 2 >= lineEnd || separator == lineStart + 1 || separator - lineStart - 1 > MAX_ID_DIGITS) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = lineStart + 1; i < separator; i++) {
+            int digit = bytes.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            id = id * 10 + digit;
+        }
+        return id > 0 ? id : -1;
+    }
+
+    private static String line(ByteBuffer bytes, int lineStart, int lineEnd) {
+        byte[] line = new byte[lineEnd - lineStart];
+        bytes.get(lineStart, line);
+        return new String(line, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A newline-aligned byte range of the data file, with where its lines start and their IDs.
+     */
+    private static class Chunk {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final LoadProgress progress;
+
+        private long[] lineStarts;
+        private long[] ids;
+        private int count;
+
+        // First error met in this chunk; scanning of the chunk stops there
+        private Exception error;
+
+        Chunk(FileChannel channel, long start, long end, LoadProgress progress) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.progress = progress;
+        }
+
+        // Reads this chunk and records each line's start and ID, stopping at the first corrupted ID
+        void scan() {
+            try {
+                ByteBuffer buffer = ChunkedTaskLoader.read(channel, start, end).order(ByteOrder.LITTLE_ENDIAN);
+                int limit = buffer.limit();
+                int capacity = Math.max(16, limit / 32);
+                lineStarts = new long[capacity];
+                ids = new long[capacity];
+                int lineStart = 0;
+                while (lineStart < limit) {
+                    int lineEnd = lineEnd(buffer, lineStart, limit);
+                    long id = parseId(buffer, lineStart, lineEnd);
+                    if (id < 0) {
+                        throw new FinchException("Corrupted task id in file: " + line(buffer, lineStart, lineEnd));
+                    }
+                    add(start + lineStart, id);
+
+                    // Skip the terminator, treating "\r\n" as a single line break
+                    lineStart = lineEnd + 1;
+                    if (lineEnd < limit && buffer.get(lineEnd) == CR
+                            && lineStart < limit && buffer.get(lineStart) == LF) {
+                        lineStart++;
+                    }
+                }
+                progress.advance(limit);
+            } catch (Exception e) {
+                error = e;
+            }
+        }
+
+        private void add(long lineStart, long id) {
+            if (count == lineStarts.length) {
+                lineStarts = Arrays.copyOf(lineStarts, count * 2);
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            lineStarts[count] = lineStart;
+            ids[count] = id;
+            count++;
+        }
+    }
+
+    /**
+     * Scans a range of chunks, splitting it in half until a single chunk remains.
+     */
+    @SuppressWarnings("serial")
+    private static class ScanAction extends RecursiveAction {
+        private final Chunk[] chunks;
+        private final int from;
+        private final int to;
+
+        ScanAction(Chunk[] chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                chunks[from].scan();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScanAction(chunks, from, mid), new ScanAction(chunks, mid, to));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads text one line at a time, like {@link java.io.BufferedReader#readLine()},
+ * but refuses lines longer than a limit, so that a file without line breaks
+ * cannot make a single line take unbounded memory. Lines are counted, so that
+ * errors can name the line they were found on. A byte order mark at the start
+ * of the input is dropped.
+ */
+class LineReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Reader reader;
+
+    // Longest line accepted, in characters
+    private final int maxLength;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    // Whether the last line ended with '\r', so that a '\n' right after it is part of the same line break
+    private boolean skipLf;
+
+    // Number of lines read so far
+    private long lineNumber;
+
+    LineReader(Reader reader, int maxLength) {
+        this.reader = reader;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Reads the next line, without its line break.
+     *
+     * @return the line, or {@code null} at the end of the input
+     * @throws IOException if the input cannot be read
+     * @throws FinchException if the line is longer than the limit
+     */
+    String readLine() throws IOException, FinchException {
+        String line = readRawLine();
+        if (lineNumber == 1 && line != null && !line.isEmpty() && line.charAt(0) == BYTE_ORDER_MARK) {
+            return line.substring(1);
+        }
+        return line;
+    }
+
+    // Reads the next line as it is
+    private String readRawLine() throws IOException, FinchException {
+        StringBuilder line = null;
+        while (true) {
+            if (position == limit && !fill()) {
+                if (line == null) {
+                    return null;
+                }
+                lineNumber++;
+                return line.toString();
+            }
+            if (skipLf) {
+                skipLf = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+
+            int start = position;
+            while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                position++;
+            }
+            int length = position - start + (line == null ? 0 : line.length());
+            if (length > maxLength) {
+                throw new FinchException("Line " + (lineNumber + 1) + " is longer than "
+                        + maxLength + " characters.");
+            }
+            if (position < limit) {
+                // Found the line break
+                skipLf = buffer[position] == '\r';
+                position++;
+                lineNumber++;
+                if (line == null) {
+                    return new String(buffer, start, position - 1 - start);
+                }
+                return line.append(buffer, start, position - 1 - start).toString();
+            }
+            if (line == null) {
+                line = new StringBuilder(Math.max(80, position - start));
+            }
+            line.append(buffer, start, position - start);
+        }
+    }
+
+    // Returns the number of lines read so far, which is the number of the last line read
+    long getLineNumber() {
+        return lineNumber;
+    }
+
+    // Reads more input into the empty buffer; returns false at the end of the input
+    private boolean fill() throws IOException {
+        int n;
+        do {
+            n = reader.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,33 @@
+package finch.storage;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * How far a {@link Storage#load()} has got, in whatever units its loader
+ * counts: bytes of a text file, or records of a binary one. The loading
+ * threads advance it, and any other thread may read it.
+ */
+class LoadProgress {
+
+    // Lines or records a loader handles between updates, so that updating costs next to nothing
+    static final int STEP = 4096;
+
+    private final LongAdder done = new LongAdder();
+    private volatile long total;
+
+    // Starts counting from zero towards the given total
+    void start(long total) {
+        done.reset();
+        this.total = total;
+    }
+
+    void advance(long units) {
+        done.add(units);
+    }
+
+    // Returns the percentage done so far, from 0 to 99; the list is still being built once every unit is read
+    int getPercent() {
+        long t = total;
+        return t <= 0 ? 0 : (int) Math.min(99, done.sum() * 100 / t);
+    }
+}
@@ -0,0 +1,34 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.TaskList;
+
+import java.util.List;
+
+/**
+ * The default {@link SaveMode}: every mutation rewrites the whole data file
+ * before it returns.
+ */
+class RewriteMode implements SaveMode {
+
+    protected final Storage storage;
+
+    RewriteMode(Storage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public void record(TaskList tasks, char type, List<String> payloads) throws FinchException {
+        storage.save(tasks);
+    }
+
+    @Override
+    public void saveAll(TaskList tasks, int mutations) throws FinchException {
+        storage.save(tasks);
+    }
+
+    // Nothing is ever left unsaved
+    @Override
+    public void flush(TaskList tasks) {
+    }
+}
@@ -0,0 +1,44 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.TaskList;
+
+import java.util.List;
+
+/**
+ * How {@link Storage} persists the mutations of a task list: straight away,
+ * by rewriting the data file ({@link RewriteMode}) or appending to the
+ * journal ({@link JournalMode}), or later, once per group of mutations
+ * ({@link BatchMode}) or in the background ({@link WriteBehindFlusher}).
+ * A storage has exactly one save mode at a time.
+ */
+interface SaveMode {
+
+    /**
+     * Persists mutations that the journal can describe, one record per task.
+     *
+     * @param tasks the list after the mutations
+     * @param type the journal record type, such as {@link Journal#ADD}
+     * @param payloads the payload of each record, at least one
+     * @throws FinchException if an I/O error occurs during saving
+     */
+    void record(TaskList tasks, char type, List<String> payloads) throws FinchException;
+
+    /**
+     * Persists mutations that the journal cannot describe, such as tasks put
+     * back in the middle of the list, by saving the whole list.
+     *
+     * @param tasks the list after the mutations
+     * @param mutations the number of tasks changed
+     * @throws FinchException if an I/O error occurs during saving
+     */
+    void saveAll(TaskList tasks, int mutations) throws FinchException;
+
+    /**
+     * Saves any mutations not persisted yet, and waits until they are on disk.
+     *
+     * @param tasks the list
+     * @throws FinchException if an I/O error occurs during saving
+     */
+    void flush(TaskList tasks) throws FinchException;
+}
@@ -1,20 +1,60 @@
 package finch.storage;
 
 import finch.exception.FinchException;
+import finch.exception.UncheckedFinchException;
+import finch.metrics.Metrics;
+import finch.metrics.StorageLoadEvent;
+import finch.metrics.StorageSaveEvent;
 import finch.task.*;
 
 import java.io.*;
 import java.nio.file.*;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Handles reading from and writing to the storage file for tasks.
  * <p>
  * The {@code Storage} class ensures persistence by saving tasks to a file
  * and loading them back when the Finch application starts.
+ * <p>
+ * How each mutation is persisted is decided by the storage's one
+ * {@link SaveMode}: rewriting the data file at once (the default), appending
+ * to the journal ({@link #setJournaled}), saving once per group of mutations
+ * in a batch run ({@link #setBatched}), or saving in the background
+ * ({@link #setAsync}). Setting a save mode replaces the one set before.
+ * <p>
+ * Separately, the data file is written in a {@link TaskFileFormat}: text, or
+ * the compact binary format ({@link #setBinary}). Either format is detected
+ * when loading, and a text file loaded in binary mode is migrated by
+ * rewriting it straight away. A text file may be read lazily ({@link #setLazy}).
+ * <p>
+ * Whatever the save mode, an existing journal is replayed by {@link #load()},
+ * and cleared whenever the data file is rewritten in full.
+ * <p>
+ * Every load, save and journal append is timed, with the bytes it moved,
+ * in the process's {@link Metrics}. Loads and saves are also reported to
+ * Flight Recorder, as {@link StorageLoadEvent}s and {@link StorageSaveEvent}s.
  */
-public class Storage {
+public final class Storage {
+
+    // The binary format, shared by every storage; it holds no state
+    private static final TaskFileFormat BINARY = new BinaryFileFormat();
+
     private final File file;
+    private final Journal journal;
+
+    // How mutations are persisted
+    private SaveMode saveMode;
+
+    // The format that saves write
+    private TaskFileFormat format;
+
+    // How a data file found to be in text is read
+    private TaskFileFormat textFormat = new TextFileFormat();
+
+    // How far the current or last load has got
+    private final LoadProgress loadProgress = new LoadProgress();
 
     /**
      * Constructs a {@code Storage} object with the specified file path.
@@ -28,6 +68,8 @@ public class Storage {
      */
     public Storage(String filePath) throws FinchException {
         this.file = new File(filePath);
+        this.journal = new Journal(file);
+        this.format = textFormat;
 
         // Ensure parent directory exists
         File parent = file.getParentFile();
@@ -49,63 +91,355 @@ public class Storage {
         } catch (IOException e) {
             throw new FinchException("Failed to create storage file: " + e.getMessage());
         }
+
+        this.saveMode = new RewriteMode(this);
+    }
+
+    /**
+     * Turns journaled mode on or off, replacing the current save mode.
+     * <p>
+     * In journaled mode, each mutation is appended to the {@link Journal}
+     * instead of rewriting the whole file (see {@link JournalMode}). An
+     * existing journal is always replayed by {@link #load()}, whatever the mode.
+     *
+     * @param isJournaled {@code true} to append mutations to the journal,
+     *                    {@code false} to rewrite the data file on every mutation
+     */
+    public void setJournaled(boolean isJournaled) {
+        saveMode = isJournaled ? new JournalMode(this, journal) : new RewriteMode(this);
+    }
+
+    /**
+     * Turns the binary data file format on or off.
+     * <p>
+     * Both formats are always readable by {@link #load()}; this only decides
+     * the format that the next save writes.
+     *
+     * @param isBinary {@code true} to write the binary format
+     */
+    public void setBinary(boolean isBinary) {
+        format = isBinary ? BINARY : textFormat;
+    }
+
+    /**
+     * Turns lazy loading of text data files on or off.
+     * <p>
+     * With it on, {@link #load()} returns as soon as it has found where each
+     * task is in the file, and the list decodes its tasks as they are read.
+     * A corrupted task is then reported when it is first read, rather than
+     * by {@link #load()}, and nothing is saved until it is fixed.
+     *
+     * @param isLazy {@code true} to decode tasks only when they are first read
+     */
+    public void setLazy(boolean isLazy) {
+        textFormat = isLazy ? new LazyTextFileFormat() : new TextFileFormat();
+    }
+
+    /**
+     * Turns on batch mode, in which mutations are saved in groups rather than
+     * one at a time, replacing the current save mode (see {@link BatchMode}).
+     * <p>
+     * Call {@link #flush(TaskList)} at the end of the batch to save the last,
+     * partial group.
+     *
+     * @param groupSize the number of mutations per save, or 0 to save only on flush
+     */
+    public void setBatched(int groupSize) {
+        saveMode = new BatchMode(this, groupSize);
+    }
+
+    /**
+     * Turns on asynchronous mode, in which a background thread saves the
+     * tasks, replacing the current save mode (see {@link WriteBehindFlusher}).
+     * <p>
+     * A mutation is saved at most {@code maxDelayMillis} after it is made,
+     * plus the time one save takes. Once {@code maxPendingMutations} mutations
+     * are unsaved, the next mutation waits for a save to finish. Unsaved
+     * mutations are also saved when the JVM shuts down normally.
+     *
+     * @param maxDelayMillis the longest time a mutation may stay unsaved
+     * @param maxPendingMutations the most mutations that may be unsaved at once
+     */
+    public void setAsync(long maxDelayMillis, int maxPendingMutations) {
+        WriteBehindFlusher flusher = new WriteBehindFlusher(this, maxDelayMillis, maxPendingMutations);
+        saveMode = flusher;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                flusher.drain();
+            } catch (FinchException e) {
+                System.err.println(e.getMessage());
+            }
+        }, "finch-flush-on-exit"));
+    }
+
+    /**
+     * Saves any mutations that batch or asynchronous mode has not persisted yet,
+     * and waits until they are on disk. Does nothing if there are none.
+     * Outside batch mode, this only waits for the background writer, and may
+     * be called from any thread while other threads mutate the list.
+     *
+     * @param tasks the {@link TaskList} containing all tasks
+     * @throws FinchException if an I/O error occurs during saving
+     */
+    public void flush(TaskList tasks) throws FinchException {
+        saveMode.flush(tasks);
     }
 
     /**
      * Saves all tasks from the given {@link TaskList} to the storage file.
      * <p>
-     * Each task is written in its save format (as returned by
-     * {@link Task#toSaveFormat()}) on a separate line. This format is designed
-     * to be reloadable by {@link #load()} to reconstruct the task list.
+     * In text mode, each task is written with its ID in its save format (as
+     * returned by {@link Task#encode()}) on a separate line; in binary mode, the
+     * {@link BinaryTaskFormat} is used. Either is reloadable by {@link #load()}
+     * to reconstruct the task list. The file is written to a temporary file
+     * first and then moved into place, after which the journal (if any) is no
+     * longer needed and is cleared.
      *
      * @param tasks the {@link TaskList} containing all tasks to be saved
      * @throws FinchException if an I/O error occurs during saving
      */
     public void save(TaskList tasks) throws FinchException {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
-            // Loop through all tasks in the list and write their save format
-            for (int i = 0; i < tasks.size(); i++) {
-                bw.write(tasks.getTask(i).toSaveFormat());
-                bw.newLine(); // Write each task on a new line
-            }
+        try {
+            TaskSnapshot snapshot = tasks.snapshot();
+            writeFile(snapshot, snapshot.size());
         } catch (IOException e) {
             throw new FinchException("Failed to save tasks: " + e.getMessage());
         }
     }
 
+    /**
+     * Saves a snapshot of the tasks, as {@link #save(TaskList)} does.
+     * Called by the {@link WriteBehindFlusher} thread.
+     *
+     * @param snapshot the tasks to save, from {@link TaskList#snapshot()}
+     * @throws IOException if an I/O error occurs during saving
+     */
+    void writeSnapshot(TaskSnapshot snapshot) throws IOException {
+        writeFile(snapshot, snapshot.size());
+    }
+
+    // Writes the data file via a temporary file, then clears the journal it supersedes
+    private void writeFile(Iterable<Task> tasks, int count) throws IOException {
+        StorageSaveEvent event = new StorageSaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            format.write(tasks, count, temp);
+        } catch (UncheckedFinchException e) {
+            // A lazily loaded task could not be decoded; keep the data file as it is rather than lose it
+            Files.deleteIfExists(temp.toPath());
+            throw new IOException(e.getMessage(), e);
+        }
+        long written = temp.length();
+        Files.move(temp.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal.clear();
+        Metrics.get().getSaves().record(System.nanoTime() - start, written);
+        event.finish(file.getPath(), written, count);
+    }
+
+    /**
+     * Returns how far {@link #load()} has got, for reporting while it runs.
+     * This may be called from any thread.
+     *
+     * @return the percentage of the data file loaded so far, from 0 to 99
+     */
+    public int getLoadPercent() {
+        return loadProgress.getPercent();
+    }
+
+    /**
+     * Writes all tasks to the given file in the text save format, leaving the
+     * data file and journal untouched.
+     *
+     * @param tasks the {@link TaskList} containing all tasks to be exported
+     * @param filePath the path of the text file to write
+     * @throws FinchException if an I/O error occurs during writing
+     */
+    public void exportText(TaskList tasks, String filePath) throws FinchException {
+        try {
+            textFormat.write(tasks, tasks.size(), new File(filePath));
+        } catch (IOException e) {
+            throw new FinchException("Failed to export tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Persists the addition of a task that was appended to the end of the list.
+     *
+     * @param tasks the {@link TaskList} after the addition
+     * @param task the task that was added
+     * @throws FinchException if an I/O error occurs during saving
+     */
+    public void saveAdded(TaskList tasks, Task task) throws FinchException {
+        record(tasks, Journal.ADD, task.encode());
+    }
+
+    /**
+     * Persists the marking of a task as done.
+     *
+     * @param tasks the {@link TaskList} after the change
+     * @param task the task that was marked
+     * @throws FinchException if an I/O error occurs during saving
+     */
+    public void saveMarked(TaskList tasks, Task task) throws FinchException {
+        record(tasks, Journal.MARK, "#" + task.getId());
+    }
+
+    /**
+     * Persists the marking of a task as not done.
+     *
+     * @param tasks the {@link TaskList} after the change
+     * @param task the task that was unmarked
+     * @throws FinchException if an I/O error occurs during saving
+     */
+    public void saveUnmarked(TaskList tasks, Task task) throws FinchException {
+        record(tasks, Journal.UNMARK, "#" + task.getId());
+    }
+
+    /**
+     * Persists the deletion of a task.
+     *
+     * @param tasks the {@link TaskList} after the deletion
+     * @param task the task that was deleted
+     * @throws FinchException if an I/O error occurs during saving
+     */
+    public void saveDeleted(TaskList tasks, Task task) throws FinchException {
+        record(tasks, Journal.DELETE, "#" + task.getId());
+    }
+
+    /**
+     * Persists the marking of several tasks as done, with a single write.
+     *
+     * @param tasks the {@link TaskList} after the change
+     * @param marked the tasks that were marked
+     * @throws FinchException if an I/O error occurs during saving
+     */
+    public void saveMarked(TaskList tasks, List<Task> marked) throws FinchException {
+        record(tasks, Journal.MARK, idsOf(marked));
+    }
+
+    /**
+     * Persists the marking of several tasks as not done, with a single write.
+     *
+     * @param tasks the {@link TaskList} after the change
+     * @param unmarked the tasks that were unmarked
+     * @throws FinchException if an I/O error occurs during saving
+     */
+    public void saveUnmarked(TaskList tasks, List<Task> unmarked) throws FinchException {
+        record(tasks, Journal.UNMARK, idsOf(unmarked));
+    }
+
+    /**
+     * Persists the deletion of several tasks, with a single write.
+     *
+     * @param tasks the {@link TaskList} after the deletion
+     * @param deleted the tasks that were deleted
+     * @throws FinchException if an I/O error occurs during saving
+     */
+    public void saveDeleted(TaskList tasks, List<Task> deleted) throws FinchException {
+        record(tasks, Journal.DELETE, idsOf(deleted));
+    }
+
+    /**
+     * Persists deleted tasks that were put back in their places, as by undo.
+     * <p>
+     * Tasks put back at the end of the list are journaled as additions. The
+     * journal has no record for putting a task back anywhere else, so then
+     * the data file is rewritten instead, even in journaled mode.
+     *
+     * @param tasks the {@link TaskList} after the change
+     * @param restored the tasks that were put back, in list order
+     * @throws FinchException if an I/O error occurs during saving
+     */
+    public void saveRestored(TaskList tasks, List<Task> restored) throws FinchException {
+        if (restored.isEmpty()) {
+            return;
+        }
+        if (tasks.indexOfId(restored.get(0).getId()) == tasks.size() - restored.size()) {
+            List<String> encoded = new ArrayList<>(restored.size());
+            for (Task task : restored) {
+                encoded.add(task.encode());
+            }
+            record(tasks, Journal.ADD, encoded);
+        } else {
+            saveMode.saveAll(tasks, restored.size());
+        }
+    }
+
+    /**
+     * Persists tasks that were imported to the end of the list. However many
+     * there are, the data file is written once, rather than journaling each
+     * of them.
+     *
+     * @param tasks the {@link TaskList} after the import
+     * @param imported the tasks that were imported
+     * @throws FinchException if an I/O error occurs during saving
+     */
+    public void saveImported(TaskList tasks, List<Task> imported) throws FinchException {
+        if (!imported.isEmpty()) {
+            saveMode.saveAll(tasks, imported.size());
+        }
+    }
+
+    // Returns the journal payloads naming the given tasks by ID
+    private static List<String> idsOf(List<Task> changed) {
+        List<String> ids = new ArrayList<>(changed.size());
+        for (Task task : changed) {
+            ids.add("#" + task.getId());
+        }
+        return ids;
+    }
+
+    private void record(TaskList tasks, char type, String payload) throws FinchException {
+        record(tasks, type, List.of(payload));
+    }
+
+    // Hands the journal records of a mutation to the save mode
+    private void record(TaskList tasks, char type, List<String> payloads) throws FinchException {
+        if (!payloads.isEmpty()) {
+            saveMode.record(tasks, type, payloads);
+        }
+    }
+
     /**
      * Loads tasks from the storage file into a {@link TaskList}.
      * <p>
-     * Each line in the file is decoded into a {@link Task} using
-     * {@link Task#decode(String)}. If the file is empty or missing,
-     * an empty {@link TaskList} is returned.
+     * A binary file is read with {@link BinaryTaskFormat}. The lines of a text
+     * file are decoded into {@link Task}s using
+     * {@link Task#decode(String)}, in parallel for large files (see
+     * {@link ChunkedTaskLoader}), unless lazy mode defers that until each task
+     * is read. Any journaled mutations are then replayed on
+     * top. If the file is empty or missing, an empty {@link TaskList} is returned.
+     * <p>
+     * In binary mode, a text file is migrated by saving it in binary right away.
      *
      * @return a {@link TaskList} containing tasks loaded from the file
      * @throws FinchException if an error occurs while reading or decoding tasks
      */
     public TaskList load() throws FinchException {
-        ArrayList<Task> taskList = new ArrayList<>();
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-
-            // Read the file line by line
-            while ((line = br.readLine()) != null) {
-                // Decode each line into a Task object
-                Task task = Task.decode(line);
-
-                // Add the decoded Task to the in-memory list
-                taskList.add(task);
-            }
-        } catch (FileNotFoundException e) {
-            // If file doesn't exist, just return an empty TaskList
-            return new TaskList();
-        } catch (Exception e) {
-            // Catch any decoding or I/O issues and wrap them in a FinchException
+        StorageLoadEvent event = new StorageLoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean isBinaryFile;
+        TaskList tasks;
+        try {
+            // If the file is empty or missing, start from an empty list (the journal may still hold tasks)
+            isBinaryFile = file.exists() && BinaryTaskFormat.isBinary(file);
+            tasks = file.length() > 0 ? (isBinaryFile ? BINARY : textFormat).read(file, loadProgress) : new TaskList();
+        } catch (IOException e) {
             throw new FinchException("Failed to load tasks: " + e.getMessage());
         }
 
-        // Return all successfully loaded tasks as a TaskList
-        return new TaskList(taskList);
+        // Replay mutations made since the file was last written in full
+        journal.replay(tasks);
+        long read = file.length() + journal.getByteCount();
+        Metrics.get().getLoads().record(System.nanoTime() - start, read);
+        event.finish(file.getPath(), read, tasks.size());
+        if (format == BINARY && !isBinaryFile && file.length() > 0) {
+            save(tasks);
+        }
+        return tasks;
     }
-}
\ No newline at end of file
+}
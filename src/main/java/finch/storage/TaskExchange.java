@@ -0,0 +1,182 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.exception.UncheckedFinchException;
+import finch.task.Task;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Imports tasks from, and exports them to, files in an {@link ExchangeFormat}
+ * for moving tasks between Finch and other systems.
+ * <p>
+ * Both directions stream, so that the memory they take beyond the tasks
+ * themselves does not grow with the file. An import reads the file on the
+ * calling thread in batches of records, and parses the batches on the
+ * common {@link ForkJoinPool}, with only a few batches in flight at a time.
+ * The parsed tasks are collected in file order, and nothing is added to any
+ * list unless the whole file is valid. An export writes each task as it
+ * reaches it in a snapshot of the list.
+ */
+public final class TaskExchange {
+
+    // Most records in one batch handed to the pool
+    private static final int BATCH_RECORDS = 4096;
+
+    // Most characters in one batch, so that batches of long records stay small
+    private static final int BATCH_CHARS = 1 << 20;
+
+    // Most batches read but not yet collected; bounds the text held in memory at once
+    private static final int MAX_BATCHES_IN_FLIGHT = Math.max(2, 2 * ForkJoinPool.getCommonPoolParallelism());
+
+    private TaskExchange() {
+    }
+
+    /**
+     * Reads every task in a file, without adding them to any list. The tasks
+     * pass the same checks as tasks added by hand, and have no IDs yet.
+     *
+     * @param path the file to read; its extension gives its format
+     * @return the tasks, in file order
+     * @throws FinchException if the format is unknown, the file cannot be read,
+     *                        or a record is invalid, naming the first such line in the file
+     */
+    public static List<Task> importTasks(String path) throws FinchException {
+        ExchangeCodec codec = ExchangeFormat.forPath(path).newCodec();
+        List<Task> imported = new ArrayList<>();
+        ArrayDeque<Future<Task[]>> inFlight = new ArrayDeque<>();
+        try (LineReader in = new LineReader(Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8),
+                ExchangeCodec.MAX_RECORD_LENGTH)) {
+            codec.readHeader(in);
+            while (true) {
+                ExchangeCodec.Record[] batch;
+                try {
+                    batch = readBatch(codec, in);
+                } catch (FinchException e) {
+                    // The batches read before the error may hold an invalid record earlier in the file
+                    collectAll(inFlight, imported);
+                    throw e;
+                }
+                if (batch.length == 0) {
+                    break;
+                }
+                inFlight.add(ForkJoinPool.commonPool().submit(() -> parse(codec, batch)));
+                if (inFlight.size() >= MAX_BATCHES_IN_FLIGHT) {
+                    collect(inFlight.poll(), imported);
+                }
+            }
+            collectAll(inFlight, imported);
+        } catch (NoSuchFileException e) {
+            throw new FinchException("File not found: " + path);
+        } catch (CharacterCodingException e) {
+            throw new FinchException("Failed to import tasks: " + path + " is not a UTF-8 text file.");
+        } catch (IOException e) {
+            throw new FinchException("Failed to import tasks: " + e.getMessage());
+        } finally {
+            for (Future<Task[]> pending : inFlight) {
+                pending.cancel(true);
+            }
+        }
+        return imported;
+    }
+
+    /**
+     * Writes tasks to a file, replacing it. The file is written under a
+     * temporary name first, so that a failed export leaves no partial file.
+     *
+     * @param tasks the tasks to write, such as a snapshot of a list
+     * @param path the file to write; its extension gives its format
+     * @return the number of tasks written
+     * @throws FinchException if the format is unknown or the file cannot be written
+     */
+    public static int exportTasks(Iterable<Task> tasks, String path) throws FinchException {
+        ExchangeCodec codec = ExchangeFormat.forPath(path).newCodec();
+        Path target = Path.of(path);
+        Path temp = Path.of(path + ".tmp");
+        int count = 0;
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                codec.writeHeader(out);
+                for (Task task : tasks) {
+                    codec.write(task, out);
+                    count++;
+                }
+                codec.writeFooter(out);
+            } catch (UncheckedFinchException e) {
+                // A lazily loaded task could not be decoded
+                Files.deleteIfExists(temp);
+                throw new FinchException("Failed to export tasks: " + e.getMessage());
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new FinchException("Failed to export tasks: " + e.getMessage());
+        }
+        return count;
+    }
+
+    // Reads the next records, up to the size of a batch; an empty batch means the end of the input
+    private static ExchangeCodec.Record[] readBatch(ExchangeCodec codec, LineReader in)
+            throws IOException, FinchException {
+        List<ExchangeCodec.Record> batch = new ArrayList<>();
+        int chars = 0;
+        ExchangeCodec.Record record;
+        while (batch.size() < BATCH_RECORDS && chars < BATCH_CHARS && (record = codec.readRecord(in)) != null) {
+            batch.add(record);
+            chars += record.text.length();
+        }
+        return batch.toArray(new ExchangeCodec.Record[0]);
+    }
+
+    // Parses a batch on a pool thread, naming the line of the first invalid record
+    private static Task[] parse(ExchangeCodec codec, ExchangeCodec.Record[] records) throws FinchException {
+        Task[] tasks = new Task[records.length];
+        for (int i = 0; i < records.length; i++) {
+            try {
+                tasks[i] = codec.parse(records[i].text);
+            } catch (FinchException e) {
+                throw new FinchException("Line " + records[i].line + ": " + e.getMessage());
+            }
+        }
+        return tasks;
+    }
+
+    // Waits for every batch in flight, in order
+    private static void collectAll(ArrayDeque<Future<Task[]>> inFlight, List<Task> imported) throws FinchException {
+        while (!inFlight.isEmpty()) {
+            collect(inFlight.poll(), imported);
+        }
+    }
+
+    // Waits for a parsed batch and adds its tasks to the result
+    private static void collect(Future<Task[]> batch, List<Task> imported) throws FinchException {
+        try {
+            for (Task task : batch.get()) {
+                imported.add(task);
+            }
+        } catch (ExecutionException e) {
+            // The pool wraps the checked exception that the batch threw
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof FinchException finchException) {
+                    throw finchException;
+                }
+            }
+            throw new FinchException("Failed to import tasks: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FinchException("The import was interrupted.");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.Task;
+import finch.task.TaskList;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A way of reading and writing the data file: as text ({@link TextFileFormat}),
+ * as text decoded only when each task is first read ({@link LazyTextFileFormat}),
+ * or in the compact binary format ({@link BinaryFileFormat}).
+ * <p>
+ * {@link Storage} writes every save in one format, but reads a data file in
+ * whichever format it turns out to be in.
+ */
+interface TaskFileFormat {
+
+    /**
+     * Reads every task in a data file that is in this format and not empty.
+     *
+     * @param file the data file
+     * @param progress started and advanced as the file is read
+     * @return the tasks, in file order
+     * @throws IOException if the file cannot be read
+     * @throws FinchException if the file's contents are invalid
+     */
+    TaskList read(File file, LoadProgress progress) throws IOException, FinchException;
+
+    /**
+     * Writes tasks to a file in this format, replacing it.
+     *
+     * @param tasks the tasks to write
+     * @param count the number of tasks
+     * @param target the file to write
+     * @throws IOException if the file cannot be written
+     */
+    void write(Iterable<Task> tasks, int count, File target) throws IOException;
+}
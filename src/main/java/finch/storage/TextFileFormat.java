@@ -0,0 +1,37 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.Task;
+import finch.task.TaskList;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The text data file: one line per task, as written by {@link Task#encode()}.
+ * The whole file is decoded when it is read, in parallel for large files
+ * (see {@link ChunkedTaskLoader}).
+ */
+class TextFileFormat implements TaskFileFormat {
+
+    @Override
+    public TaskList read(File file, LoadProgress progress) throws FinchException {
+        progress.start(file.length());
+        return new TaskList(ChunkedTaskLoader.load(file, progress));
+    }
+
+    // Writes one encoded line per task
+    @Override
+    public void write(Iterable<Task> tasks, int count, File target) throws IOException {
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(target, StandardCharsets.UTF_8))) {
+            // Loop through all tasks in the list and write their ID and save format
+            for (Task task : tasks) {
+                bw.write(task.encode());
+                bw.newLine(); // Write each task on a new line
+            }
+        }
+    }
+}
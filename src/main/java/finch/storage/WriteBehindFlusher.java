@@ -0,0 +1,204 @@
+package finch.storage;
+
+import finch.exception.FinchException;
+import finch.task.TaskList;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link SaveMode} of {@link Storage} in asynchronous mode, with the
+ * background thread that saves the task list.
+ * <p>
+ * A mutation only marks the list as dirty and returns straight away. The
+ * flusher waits until the oldest unsaved mutation is {@code maxDelayMillis}
+ * old, or until {@code maxPendingMutations} mutations are unsaved. It then
+ * takes a snapshot of the list (see {@link TaskList#snapshot()}) and writes
+ * it. Mutations made while a write is in progress are all collapsed into the
+ * next write. If {@code maxPendingMutations} mutations are still unsaved,
+ * further mutations wait until a write finishes. This bounds how much work
+ * can be lost in a crash.
+ * <p>
+ * A failed write is retried after the delay. The failure is reported to the
+ * next mutation or drain, unless a retry has succeeded by then.
+ */
+class WriteBehindFlusher implements SaveMode, Runnable {
+
+    private final Storage storage;
+    private final long maxDelayNanos;
+    private final int maxPendingMutations;
+
+    // Guards all fields below
+    private final Object lock = new Object();
+
+    // The list to save; set by the first mutation
+    private TaskList tasks;
+
+    // Mutations not yet captured by a snapshot
+    private int dirtyMutations;
+
+    // Mutations not yet written to disk, including those in a snapshot being written
+    private int unsavedMutations;
+
+    // System.nanoTime() of the oldest mutation not yet captured by a snapshot
+    private long dirtySince;
+
+    // Number of threads waiting in drain(), which makes dirty mutations due straight away
+    private int drainers;
+
+    // Failure of the last write, not yet reported
+    private IOException failure;
+
+    /**
+     * Starts a flusher thread for the given storage.
+     *
+     * @param storage the storage whose data file is written
+     * @param maxDelayMillis the longest time a mutation stays unsaved, unless a write is slower
+     * @param maxPendingMutations the most mutations that may be unsaved at once
+     */
+    WriteBehindFlusher(Storage storage, long maxDelayMillis, int maxPendingMutations) {
+        this.storage = storage;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.maxPendingMutations = Math.max(1, maxPendingMutations);
+
+        Thread thread = new Thread(this, "finch-flusher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Records a mutation of the list, waiting only if too many mutations are unsaved.
+     *
+     * @param tasks the list after the mutation
+     * @throws FinchException if an earlier write failed, or the wait is interrupted
+     */
+    void markDirty(TaskList tasks) throws FinchException {
+        synchronized (lock) {
+            reportFailure();
+            this.tasks = tasks;
+            if (dirtyMutations == 0) {
+                dirtySince = System.nanoTime();
+            }
+            dirtyMutations++;
+            unsavedMutations++;
+            lock.notifyAll();
+
+            while (unsavedMutations > maxPendingMutations && failure == null) {
+                await();
+            }
+            reportFailure();
+        }
+    }
+
+    /**
+     * Writes any unsaved mutations and waits until they are on disk.
+     *
+     * @throws FinchException if the write fails, or the wait is interrupted
+     */
+    void drain() throws FinchException {
+        synchronized (lock) {
+            drainers++;
+            lock.notifyAll();
+            try {
+                while (unsavedMutations > 0 && failure == null) {
+                    await();
+                }
+            } finally {
+                drainers--;
+            }
+            reportFailure();
+        }
+    }
+
+    @Override
+    public void record(TaskList tasks, char type, List<String> payloads) throws FinchException {
+        markDirty(tasks);
+    }
+
+    @Override
+    public void saveAll(TaskList tasks, int mutations) throws FinchException {
+        markDirty(tasks);
+    }
+
+    @Override
+    public void flush(TaskList tasks) throws FinchException {
+        drain();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                TaskList target;
+                int captured;
+                synchronized (lock) {
+                    long wait = waitNanos();
+                    while (wait != 0) {
+                        if (wait < 0) {
+                            lock.wait();
+                        } else {
+                            TimeUnit.NANOSECONDS.timedWait(lock, wait);
+                        }
+                        wait = waitNanos();
+                    }
+                    target = tasks;
+                    captured = dirtyMutations;
+                    dirtyMutations = 0;
+                }
+
+                // Mutations made after this point are included in the snapshot as well, and simply saved again later
+                IOException error = null;
+                try {
+                    storage.writeSnapshot(target.snapshot());
+                } catch (IOException e) {
+                    error = e;
+                }
+
+                synchronized (lock) {
+                    if (error == null) {
+                        unsavedMutations -= captured;
+                        failure = null;
+                    } else {
+                        failure = error;
+                        dirtySince = System.nanoTime(); // the retry waits a full delay
+                        dirtyMutations += captured;
+                    }
+                    lock.notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Returns how long until the next write is due: 0 if due now, -1 if nothing is dirty; retries always wait
+    private long waitNanos() {
+        if (dirtyMutations == 0) {
+            return -1;
+        }
+        if (failure == null && (drainers > 0 || dirtyMutations >= maxPendingMutations)) {
+            return 0;
+        }
+        return Math.max(0, dirtySince + maxDelayNanos - System.nanoTime());
+    }
+
+    // Waits on the lock, turning an interrupt into a FinchException
+    private void await() throws FinchException {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FinchException("Interrupted while saving tasks");
+        }
+    }
+
+    // Throws the failure of the last write, if it has not been reported yet
+    private void reportFailure() throws FinchException {
+        if (failure != null) {
+            IOException e = failure;
+            failure = null;
+            throw new FinchException("Failed to save tasks: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package finch.task;
+
+import java.util.List;
+
+/**
+ * One change made to a {@link TaskList} by a command, as kept in its
+ * {@link UndoHistory} for undoing and redoing.
+ * <p>
+ * A change holds only the tasks it touched, never a copy of the list, so
+ * it takes memory in proportion to the change. Added and deleted tasks are
+ * kept as they are; a deleted task remembers its place in the list through
+ * its insertion order number, so undoing the delete puts it back where it
+ * was. Marked and unmarked tasks are kept as they were before the change,
+ * which is all that undoing it needs; redoing it marks or unmarks them all
+ * again.
+ */
+public final class Change {
+
+    /**
+     * What a command did to the tasks of a change.
+     */
+    public enum Kind {
+        ADDED("adding"),
+        DELETED("deleting"),
+        MARKED("marking"),
+        UNMARKED("unmarking");
+
+        private final String action;
+
+        Kind(String action) {
+            this.action = action;
+        }
+
+        // Returns the action as it reads after "undone", e.g. "deleting"
+        public String getAction() {
+            return action;
+        }
+    }
+
+    private final Kind kind;
+
+    // The tasks added or deleted, or the marked and unmarked tasks as they were before; in list order
+    private final List<Task> tasks;
+
+    private Change(Kind kind, List<Task> tasks) {
+        this.kind = kind;
+        this.tasks = tasks;
+    }
+
+    /**
+     * Returns a change that added tasks to the end of the list.
+     *
+     * @param added the tasks as they were added
+     * @return the change
+     */
+    public static Change added(List<Task> added) {
+        return new Change(Kind.ADDED, List.copyOf(added));
+    }
+
+    /**
+     * Returns a change that deleted tasks.
+     *
+     * @param deleted the tasks that were deleted, in list order
+     * @return the change
+     */
+    public static Change deleted(List<Task> deleted) {
+        return new Change(Kind.DELETED, List.copyOf(deleted));
+    }
+
+    /**
+     * Returns a change that marked tasks as done.
+     *
+     * @param before the tasks as they were before they were marked, in list order
+     * @return the change
+     */
+    public static Change marked(List<Task> before) {
+        return new Change(Kind.MARKED, List.copyOf(before));
+    }
+
+    /**
+     * Returns a change that marked tasks as not done.
+     *
+     * @param before the tasks as they were before they were unmarked, in list order
+     * @return the change
+     */
+    public static Change unmarked(List<Task> before) {
+        return new Change(Kind.UNMARKED, List.copyOf(before));
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+}
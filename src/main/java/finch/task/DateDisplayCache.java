@@ -0,0 +1,61 @@
+package finch.task;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Bounded cache of display strings for date-times, keyed by epoch minute.
+ * <p>
+ * The display format has minute resolution, so every date-time within the
+ * same minute formats to the same string. The cache is a fixed-size,
+ * direct-mapped table: each minute has exactly one slot it can live in, and
+ * a new minute simply replaces whatever was in its slot. Memory use is
+ * therefore fixed, and lookups need no locking, since every slot holds an
+ * immutable entry that is replaced as a whole.
+ */
+class DateDisplayCache {
+
+    // Number of slots; a power of two so that a slot is found by masking
+    private static final int CAPACITY = 4096;
+
+    private final Entry[] entries = new Entry[CAPACITY];
+
+    /**
+     * Returns the display string of the given date-time, formatting it only
+     * if its minute is not in the cache.
+     *
+     * @param dateTime the date-time to format
+     * @return the same string as {@link Task#formatDateTimeUncached(LocalDateTime)}
+     */
+    String format(LocalDateTime dateTime) {
+        long minute = Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+        int slot = (int) mix(minute) & (CAPACITY - 1);
+
+        Entry entry = entries[slot];
+        if (entry != null && entry.minute == minute) {
+            return entry.text;
+        }
+        String text = Task.formatDateTimeUncached(dateTime);
+        entries[slot] = new Entry(minute, text);
+        return text;
+    }
+
+    // Spreads nearby minutes (e.g. whole hours, which are 60 apart) across different slots
+    private static long mix(long x) {
+        x *= 0x9E3779B97F4A7C15L;
+        return x ^ (x >>> 32);
+    }
+
+    /**
+     * A cached minute with its display string.
+     */
+    private static class Entry {
+        private final long minute;
+        private final String text;
+
+        Entry(long minute, String text) {
+            this.minute = minute;
+            this.text = text;
+        }
+    }
+}
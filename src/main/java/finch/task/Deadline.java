@@ -27,10 +27,15 @@ public class Deadline extends Task {
         this.by = by;
     }
 
+    // Returns the due date and time of the deadline
+    public LocalDateTime getBy() {
+        return by;
+    }
+
     // Returns a string representation of the Deadline task for display
     @Override
-    public String toString() {
-        return "[D]" + super.toString() + " (by: " + formatDateTime(by) + ")";
+    protected String formatDisplay() {
+        return "[D]" + super.formatDisplay() + " (by: " + formatDateTime(by) + ")";
     }
 
     // Returns a string representation of the Deadline task for saving to file
@@ -0,0 +1,40 @@
+package finch.task;
+
+import finch.exception.FinchException;
+
+/**
+ * Tasks that have been found in a data file but not decoded yet.
+ * <p>
+ * A {@link TaskList} built from these only decodes a task when it is first
+ * read, a chunk of neighbouring tasks at a time (see {@link TaskSnapshot}).
+ * Everything the list needs up front, the number of tasks and their saved
+ * IDs, must be available without decoding.
+ */
+public interface EncodedTasks {
+
+    /**
+     * Returns the number of tasks.
+     *
+     * @return the number of tasks
+     */
+    int size();
+
+    /**
+     * Returns the ID the task at the given position was saved with.
+     *
+     * @param index the zero-based position of the task in the file
+     * @return the saved ID, or 0 if the task was saved without one
+     */
+    long getId(int index);
+
+    /**
+     * Decodes a range of tasks, as {@link Task#decode(String)} would.
+     * This may be called from any thread.
+     *
+     * @param from the position of the first task, inclusive
+     * @param to the position after the last task
+     * @return the decoded tasks, in file order
+     * @throws FinchException if any of the tasks cannot be decoded
+     */
+    Task[] decode(int from, int to) throws FinchException;
+}
@@ -35,10 +35,20 @@ public class Event extends Task {
         this.to = to;
     }
 
+    // Returns the start date and time of the event
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    // Returns the end date and time of the event
+    public LocalDateTime getTo() {
+        return to;
+    }
+
     // Returns a string representation of the Event task for display
     @Override
-    public String toString() {
-        return "[E]" + super.toString()
+    protected String formatDisplay() {
+        return "[E]" + super.formatDisplay()
                 + " (from: " + formatDateTime(from)
                 + ", to: " + formatDateTime(to) + ")";
     }
@@ -0,0 +1,38 @@
+package finch.task;
+
+import java.util.Comparator;
+
+/**
+ * A task found by a fuzzy search, with how far its description is from the query.
+ *
+ * @see TaskList#findFuzzy(String, int)
+ */
+public final class FuzzyMatch {
+
+    // Best match first: fewest edits, then earliest in the list
+    static final Comparator<FuzzyMatch> RANKING = Comparator.comparingInt(FuzzyMatch::getDistance)
+            .thenComparingLong(match -> match.task.order);
+
+    private final Task task;
+    private final int distance;
+
+    FuzzyMatch(Task task, int distance) {
+        this.task = task;
+        this.distance = distance;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    /**
+     * Returns the fewest single-character insertions, deletions or
+     * substitutions that make the query appear in the task's description,
+     * ignoring case.
+     *
+     * @return the number of edits, 0 if the description contains the query
+     */
+    public int getDistance() {
+        return distance;
+    }
+}
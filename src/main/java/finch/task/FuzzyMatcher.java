@@ -0,0 +1,180 @@
+package finch.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Scores descriptions against a fuzzy search query by edit distance, and
+ * keeps the best matches.
+ * <p>
+ * The distance of a description is the fewest single-character edits that
+ * make the query appear anywhere in it, so that a query matches a word or
+ * phrase inside a longer description. It is computed with Myers' bit-parallel
+ * algorithm, which keeps one column of the edit distance table in two
+ * {@code long}s and so takes one pass over the description for queries of up
+ * to {@value #MAX_QUERY_LENGTH} characters. A description only matches if it
+ * is at most a third of the query's length away: queries of one or two
+ * characters must appear exactly, and longer ones tolerate a typo per three
+ * characters.
+ * <p>
+ * A matcher holds no state between calls, so one can be shared by threads.
+ */
+final class FuzzyMatcher {
+
+    /** Longest query accepted, in characters; one bit per character. */
+    static final int MAX_QUERY_LENGTH = 64;
+
+    private final int length;
+
+    // Most edits a matching description may be from the query
+    private final int maxDistance;
+
+    // For each character, the bits of the query positions holding it; ASCII in a table, others in a short list
+    private final long[] asciiMasks = new long[128];
+    private final char[] otherChars;
+    private final long[] otherMasks;
+
+    // Bit of the last query position, whose row is the distance of a match ending at the current character
+    private final long lastBit;
+
+    /**
+     * Prepares a matcher for the given query.
+     *
+     * @param query the query, already lower-cased, of 1 to {@value #MAX_QUERY_LENGTH} characters
+     */
+    FuzzyMatcher(String query) {
+        length = query.length();
+        maxDistance = length / 3;
+        lastBit = 1L << (length - 1);
+
+        int others = 0;
+        char[] chars = new char[length];
+        long[] masks = new long[length];
+        for (int i = 0; i < length; i++) {
+            char c = query.charAt(i);
+            if (c < asciiMasks.length) {
+                asciiMasks[c] |= 1L << i;
+                continue;
+            }
+            int j = 0;
+            while (j < others && chars[j] != c) {
+                j++;
+            }
+            if (j == others) {
+                chars[others++] = c;
+            }
+            masks[j] |= 1L << i;
+        }
+        otherChars = Arrays.copyOf(chars, others);
+        otherMasks = Arrays.copyOf(masks, others);
+    }
+
+    /**
+     * Returns the fewest edits that make the query appear in the given text.
+     *
+     * @param text the lower-cased text to search
+     * @return the distance, from 0 up to the length of the query
+     */
+    int distance(String text) {
+        long pv = -1L; // Bits above the query's length are never read
+        long mv = 0;
+        int score = length;
+        int best = length;
+        for (int i = 0; i < text.length(); i++) {
+            long eq = maskOf(text.charAt(i));
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & lastBit) != 0) {
+                score++;
+            } else if ((mh & lastBit) != 0) {
+                score--;
+            }
+            // A match may start anywhere in the text, so the top row stays 0: nothing is shifted in
+            ph <<= 1;
+            mh <<= 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+            if (score < best) {
+                best = score;
+                if (best == 0) {
+                    return 0;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Scores tasks and offers those that match to the best matches so far.
+     *
+     * @param tasks the tasks to score
+     * @param count how many of them, from the start of the array
+     * @param best the best matches so far
+     */
+    void score(Task[] tasks, int count, Best best) {
+        for (int i = 0; i < count; i++) {
+            Task task = tasks[i];
+            int d = distance(task.lowerDescription());
+            if (d <= maxDistance) {
+                best.offer(task, d);
+            }
+        }
+    }
+
+    private long maskOf(char c) {
+        if (c < asciiMasks.length) {
+            return asciiMasks[c];
+        }
+        for (int j = 0; j < otherChars.length; j++) {
+            if (otherChars[j] == c) {
+                return otherMasks[j];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The best matches seen so far, at most a fixed number of them, in a
+     * heap with the worst of them on top so that it is the one replaced.
+     */
+    static final class Best {
+        private final int limit;
+        private final PriorityQueue<FuzzyMatch> heap;
+
+        Best(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, FuzzyMatch.RANKING.reversed());
+        }
+
+        // Keeps the task if it is among the best so far
+        void offer(Task task, int distance) {
+            if (heap.size() == limit) {
+                FuzzyMatch worst = heap.peek();
+                if (distance > worst.getDistance()
+                        || (distance == worst.getDistance() && task.order > worst.getTask().order)) {
+                    return;
+                }
+                heap.poll();
+            }
+            heap.add(new FuzzyMatch(task, distance));
+        }
+
+        // Keeps the best of both
+        void addAll(Best other) {
+            for (FuzzyMatch match : other.heap) {
+                offer(match.getTask(), match.getDistance());
+            }
+        }
+
+        // Returns the matches, best first
+        List<FuzzyMatch> toList() {
+            List<FuzzyMatch> ranked = new ArrayList<>(heap);
+            ranked.sort(FuzzyMatch.RANKING);
+            return ranked;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package finch.task;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Keeps track of the deadlines and events of a {@link TaskList} that are
+ * still to come, and reports each one when it comes due.
+ * <p>
+ * A deadline comes due at its due date-time, and an event at its start.
+ * Only tasks that are not done and whose time is still ahead are pending.
+ * They are kept in a binary min-heap ordered by date-time and then by
+ * insertion order, where every entry remembers its position in the heap,
+ * so that any entry can be removed. The list updates the heap as tasks are
+ * added, marked, unmarked and deleted, at O(log n) per change, so the list
+ * is never scanned after the heap is first built. The soonest pending task
+ * is always at the top of the heap.
+ * <p>
+ * Once {@link #start(Consumer)} is called, a background thread sleeps until
+ * the soonest pending task comes due and then hands it over. Without that
+ * thread, tasks that have come due are dropped from the heap the next time
+ * {@link #next()} is called, and are not reported.
+ */
+public class ReminderScheduler {
+
+    // The longest the background thread sleeps at a time, so that a change to the system clock is noticed
+    private static final long MAX_SLEEP_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Clock clock;
+
+    // Guards all fields below; the owning list calls in while holding its own lock, never the other way round
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Signalled when a task becomes the soonest pending one, so that the background thread wakes up earlier
+    private final Condition soonestChanged = lock.newCondition();
+
+    // Binary min-heap of pending tasks; entry i's children are at 2i + 1 and 2i + 2
+    private Entry[] heap = new Entry[INITIAL_CAPACITY];
+    private int size;
+
+    // Heap entries by the insertion order of their task, for removing a task that was marked or deleted
+    private final HashMap<Long, Entry> entriesByOrder = new HashMap<>();
+
+    // Tasks due at or before this time have been handed over or dropped; later ones are pending
+    private LocalDateTime reachedTime;
+
+    // Receives each task as it comes due; null until the background thread is started
+    private volatile Consumer<Task> onDue;
+
+    /**
+     * Constructs a scheduler holding the given tasks' pending deadlines and events.
+     *
+     * @param tasks the tasks of the list, in any order
+     * @param clock the clock that decides when tasks come due
+     */
+    ReminderScheduler(Iterable<Task> tasks, Clock clock) {
+        this.clock = clock;
+        this.reachedTime = LocalDateTime.now(clock);
+        for (Task task : tasks) {
+            LocalDateTime time = pendingTime(task);
+            if (time != null) {
+                append(task, time);
+            }
+        }
+
+        // Bottom-up heap construction takes O(n), rather than O(n log n) for one insertion at a time
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Starts a background thread that hands over each pending task as it comes due.
+     * Tasks due at the same time are handed over in list order.
+     *
+     * @param onDue receives each task that comes due, on the background thread
+     */
+    public void start(Consumer<Task> onDue) {
+        lock.lock();
+        try {
+            if (this.onDue != null) {
+                throw new IllegalStateException("Reminders are already running");
+            }
+            this.onDue = onDue;
+        } finally {
+            lock.unlock();
+        }
+
+        Thread thread = new Thread(this::run, "finch-reminders");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the soonest task that has not come due yet. This takes O(1),
+     * plus O(log n) for each task that has come due since the last call.
+     *
+     * @return the pending deadline or event due soonest, or {@code null} if there is none
+     */
+    public Task next() {
+        List<Task> due;
+        Task next;
+        lock.lock();
+        try {
+            due = pollDue();
+            next = size == 0 ? null : heap[0].task;
+        } finally {
+            lock.unlock();
+        }
+        handOver(due);
+        return next;
+    }
+
+    /**
+     * Returns the number of pending deadlines and events.
+     *
+     * @return the number of tasks that have not come due yet
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the time at which a task comes due: a deadline's due
+     * date-time, or an event's start.
+     *
+     * @param task a deadline or event
+     * @return when the task comes due, or {@code null} for other tasks
+     */
+    public static LocalDateTime dueTime(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getBy();
+        } else if (task instanceof Event) {
+            return ((Event) task).getFrom();
+        }
+        return null;
+    }
+
+    // --- Updates from the list ---
+
+    /**
+     * Adds a task that was added to the list, or unmarked, if it is pending.
+     *
+     * @param task the task as it is now in the list
+     */
+    void add(Task task) {
+        lock.lock();
+        try {
+            LocalDateTime time = pendingTime(task);
+            if (time == null) {
+                return;
+            }
+            Entry entry = append(task, time);
+            if (entry == null) {
+                return; // already pending
+            }
+            siftUp(entry.index);
+            if (heap[0] == entry) {
+                soonestChanged.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a task that was deleted from the list, or marked as done, if it is pending.
+     *
+     * @param task the task as it was in the list
+     */
+    void remove(Task task) {
+        lock.lock();
+        try {
+            Entry entry = entriesByOrder.remove(task.order);
+            if (entry != null) {
+                removeAt(entry.index);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- Background thread ---
+
+    // Sleeps until the soonest pending task comes due, then hands over every task due by then
+    private void run() {
+        while (true) {
+            List<Task> due;
+            lock.lock();
+            try {
+                due = pollDue();
+                while (due.isEmpty()) {
+                    long sleepNanos = size == 0 ? MAX_SLEEP_NANOS : nanosUntil(heap[0].time);
+                    soonestChanged.awaitNanos(Math.max(1, sleepNanos));
+                    due = pollDue();
+                }
+            } catch (InterruptedException e) {
+                return; // nobody interrupts this thread except to stop it
+            } finally {
+                lock.unlock();
+            }
+            handOver(due);
+        }
+    }
+
+    // Removes every pending task due by now from the heap, soonest first; call with the lock held
+    private List<Task> pollDue() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (now.isAfter(reachedTime)) {
+            reachedTime = now;
+        }
+        List<Task> due = new ArrayList<>();
+        while (size > 0 && !heap[0].time.isAfter(reachedTime)) {
+            Entry entry = heap[0];
+            entriesByOrder.remove(entry.task.order);
+            removeAt(0);
+            due.add(entry.task);
+        }
+        return due;
+    }
+
+    // Gives tasks that came due to the background thread's receiver, if any; call without the lock
+    private void handOver(List<Task> due) {
+        Consumer<Task> receiver = onDue;
+        if (receiver == null) {
+            return;
+        }
+        for (Task task : due) {
+            receiver.accept(task);
+        }
+    }
+
+    // Returns the time until the given date-time, at most MAX_SLEEP_NANOS
+    private long nanosUntil(LocalDateTime time) {
+        Duration wait = Duration.between(LocalDateTime.now(clock), time);
+        return wait.compareTo(Duration.ofNanos(MAX_SLEEP_NANOS)) > 0 ? MAX_SLEEP_NANOS : wait.toNanos();
+    }
+
+    // Returns when the task comes due if it is an undone deadline or event still ahead; null otherwise
+    private LocalDateTime pendingTime(Task task) {
+        LocalDateTime time = dueTime(task);
+        return time == null || task.isDone() || !time.isAfter(reachedTime) ? null : time;
+    }
+
+    // --- Heap ---
+
+    // Adds an entry at the end of the heap without restoring the heap order; returns null if the task has one
+    private Entry append(Task task, LocalDateTime time) {
+        Entry entry = new Entry(task, time);
+        if (entriesByOrder.putIfAbsent(task.order, entry) != null) {
+            return null;
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        entry.index = size;
+        heap[size++] = entry;
+        return entry;
+    }
+
+    // Removes the entry at the given position, moving the last entry into its place
+    private void removeAt(int index) {
+        Entry last = heap[--size];
+        heap[size] = null;
+        if (index == size) {
+            return;
+        }
+        heap[index] = last;
+        last.index = index;
+        siftDown(index);
+        if (heap[index] == last) {
+            siftUp(index);
+        }
+    }
+
+    private void siftUp(int index) {
+        Entry entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].compareTo(entry) <= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            heap[index].index = index;
+            index = parent;
+        }
+        heap[index] = entry;
+        entry.index = index;
+    }
+
+    private void siftDown(int index) {
+        Entry entry = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].compareTo(heap[child]) < 0) {
+                child++;
+            }
+            if (entry.compareTo(heap[child]) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            heap[index].index = index;
+            index = child;
+        }
+        heap[index] = entry;
+        entry.index = index;
+    }
+
+    /**
+     * A pending task in the heap, with its position there.
+     */
+    private static class Entry implements Comparable<Entry> {
+        private final Task task;
+        private final LocalDateTime time;
+
+        // The due time in whole seconds and the task's insertion order, copied here so that comparing
+        // two entries reads no other objects; a sift compares entries all over the heap
+        private final long seconds;
+        private final long order;
+
+        private int index;
+
+        Entry(Task task, LocalDateTime time) {
+            this.task = task;
+            this.time = time;
+            this.seconds = time.toEpochSecond(ZoneOffset.UTC);
+            this.order = task.order;
+        }
+
+        // Orders by due time, then by insertion order, so that ties come due in list order
+        @Override
+        public int compareTo(Entry other) {
+            if (seconds != other.seconds) {
+                return Long.compare(seconds, other.seconds);
+            }
+            int cmp = time.getNano() == other.time.getNano() ? 0 : time.compareTo(other.time);
+            return cmp != 0 ? cmp : Long.compare(order, other.order);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package finch.task;
 
 import finch.exception.FinchException;
+import finch.metrics.DecodeEvent;
 
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -13,7 +15,7 @@ import java.time.format.DateTimeParseException;
  * Subclasses ({@link ToDo}, {@link Deadline}, {@link Event}) define
  * specific types of tasks with additional attributes (e.g., deadlines or event times).
  */
-public abstract class Task {
+public abstract class Task implements Cloneable {
 
     // The task description provided by the user
     protected String description;
@@ -21,6 +23,18 @@ public abstract class Task {
     // Boolean flag indicating whether the task is done
     protected boolean isDone;
 
+    // Insertion order of the task within its TaskList, used by the secondary indexes
+    long order;
+
+    // Stable ID shown to the user and persisted with the task; 0 until a TaskList assigns one
+    long id;
+
+    // Display string returned by toString(), built on first use; cleared when the task is marked or unmarked
+    private String display;
+
+    // Lower-cased description for keyword search, built on first use; the description never changes
+    private String lower;
+
     /**
      * Constructs a new {@code Task} with the given description.
      * The task is initially marked as not done.
@@ -32,6 +46,43 @@ public abstract class Task {
         this.isDone = false;
     }
 
+    /**
+     * Returns the description of the task.
+     *
+     * @return the task description
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns the stable ID of the task, which does not change when other tasks are deleted.
+     *
+     * @return the task ID, or 0 if the task has not been added to a list yet
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Restores the ID a task was saved with, before it is loaded into a {@link TaskList}.
+     * The list assigns a fresh ID instead if this one is missing or already taken.
+     *
+     * @param id the saved ID, or 0 if the task was saved without one
+     */
+    public void restoreId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns whether the task has been marked as done.
+     *
+     * @return {@code true} if the task is done
+     */
+    public boolean isDone() {
+        return isDone;
+    }
+
     /**
      * Returns the status icon of the task.
      *
@@ -44,28 +95,238 @@ public abstract class Task {
     // Marks the task as done
     public void markAsDone() {
         isDone = true;
+        display = null;
     }
 
     // Marks the task as not done
     public void unmark() {
         isDone = false;
+        display = null;
+    }
+
+    // Returns the description in lower case, as keyword search compares it
+    String lowerDescription() {
+        String l = lower;
+        if (l == null) {
+            l = description.toLowerCase();
+            lower = l;
+        }
+        return l;
+    }
+
+    // Returns a copy of this task to mark or unmark, leaving this one unchanged for snapshots that hold it
+    Task copy() {
+        try {
+            return (Task) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e); // Task is Cloneable
+        }
     }
 
     /**
      * Decodes a task from a saved file line into the corresponding {@link Task} object.
      * <p>
-     * Supports the following formats:
+     * Supports the following formats, each optionally prefixed by the task ID
+     * as {@code #id | } (lines written before IDs existed have no prefix):
      * <ul>
      *     <li>ToDo: {@code T | isDone | description}</li>
      *     <li>Deadline: {@code D | isDone | description | yyyy-MM-ddTHH:mm}</li>
      *     <li>Event: {@code E | isDone | description | startDateTime | endDateTime}</li>
      * </ul>
+     * Well-formed lines are decoded by a single character scan (see
+     * {@link #decodeByScan(String, int)}); anything unusual, including every
+     * invalid line, goes through {@link #decodeBySplit(String)} so that the
+     * result and error messages stay exactly the same.
+     * <p>
+     * A sample of decodes is reported to Flight Recorder as {@link DecodeEvent}s.
+     *
+     * @param line the encoded task string read from storage
+     * @return the corresponding {@link Task} object, with its ID set if the line has one
+     * @throws FinchException if the task ID or type is corrupted or the date format is invalid
+     */
+    public static Task decode(String line) throws FinchException {
+        DecodeEvent event = DecodeEvent.sample();
+        long id = 0;
+        int start = 0;
+        if (line.startsWith("#")) {
+            start = line.indexOf(SEPARATOR);
+            id = start > 1 ? parseId(line, start) : -1;
+            if (id <= 0) {
+                throw new FinchException("Corrupted task id in file: " + line);
+            }
+            start += SEPARATOR.length();
+        }
+
+        Task task = decodeByScan(line, start);
+        if (task == null) {
+            task = decodeBySplit(start == 0 ? line : line.substring(start));
+        }
+        task.id = id;
+        if (event != null) {
+            event.finish(line.length(), task.getClass());
+        }
+        return task;
+    }
+
+    /**
+     * Encodes this task as a line for the data file: the ID prefix followed by
+     * {@link #toSaveFormat()}. The result can be read back by {@link #decode(String)}.
+     *
+     * @return the encoded task, e.g. {@code #3 | T | 0 | read book}
+     */
+    public String encode() {
+        return "#" + id + SEPARATOR + toSaveFormat();
+    }
+
+    // Parses the digits between the leading '#' and the given end index, returning -1 if invalid
+    private static long parseId(String line, int end) {
+        if (end - 1 > 18) {
+            return -1; // would overflow a long
+        }
+        long value = 0;
+        for (int i = 1; i < end; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // Separator between fields in the save format
+    private static final String SEPARATOR = " | ";
+
+    // Length of an ISO timestamp without seconds, e.g. "2025-09-26T18:00"
+    private static final int TIMESTAMP_LENGTH = 16;
+
+    /**
+     * Decodes a well-formed save line, starting at the given index, by scanning
+     * it once without regular expressions or intermediate strings.
+     * <p>
+     * Only lines whose fields are all non-empty, whose done flag is {@code 0} or
+     * {@code 1} and whose timestamps are exactly {@code yyyy-MM-ddTHH:mm} are
+     * accepted; for those, the result is identical to {@link #decodeBySplit(String)}.
+     *
+     * @param line the encoded task string read from storage
+     * @param start the index at which the task type is found
+     * @return the decoded task, or {@code null} if the line should be decoded the slow way
+     * @throws FinchException if the task constructor rejects the decoded fields
+     */
+    private static Task decodeByScan(String line, int start) throws FinchException {
+        // "X | d | " prefix: type, done flag and the separators around it
+        if (line.length() < start + 9
+                || !line.startsWith(SEPARATOR, start + 1) || !line.startsWith(SEPARATOR, start + 5)) {
+            return null;
+        }
+        char type = line.charAt(start);
+        char done = line.charAt(start + 4);
+        if (done != '0' && done != '1') {
+            return null;
+        }
+
+        int descriptionStart = start + 8;
+        int descriptionEnd = fieldEnd(line, descriptionStart);
+        if (descriptionEnd == descriptionStart) {
+            return null;
+        }
+
+        Task task;
+        switch (type) {
+        case 'T':
+            task = new ToDo(line.substring(descriptionStart, descriptionEnd));
+            break;
+        case 'D': {
+            LocalDateTime by = parseTimestamp(line, descriptionEnd + SEPARATOR.length());
+            if (by == null) {
+                return null;
+            }
+            task = new Deadline(line.substring(descriptionStart, descriptionEnd), by);
+            break;
+        }
+        case 'E': {
+            int fromStart = descriptionEnd + SEPARATOR.length();
+            LocalDateTime from = parseTimestamp(line, fromStart);
+            LocalDateTime to = parseTimestamp(line, fromStart + TIMESTAMP_LENGTH + SEPARATOR.length());
+            if (from == null || to == null) {
+                return null;
+            }
+            task = new Event(line.substring(descriptionStart, descriptionEnd), from, to);
+            break;
+        }
+        default:
+            return null;
+        }
+
+        if (done == '1') {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    // Returns the index of the next separator at or after start, or the line length if there is none
+    private static int fieldEnd(String line, int start) {
+        int end = line.indexOf(SEPARATOR, start);
+        return end < 0 ? line.length() : end;
+    }
+
+    /**
+     * Parses a {@code yyyy-MM-ddTHH:mm} field starting at the given index.
+     * The field must span exactly {@link #TIMESTAMP_LENGTH} characters and be
+     * followed by a separator or the end of the line.
+     *
+     * @return the parsed date-time, or {@code null} if the field is not in that exact form
+     */
+    private static LocalDateTime parseTimestamp(String line, int start) {
+        int end = start + TIMESTAMP_LENGTH;
+        if (start > line.length() || fieldEnd(line, start) != end) {
+            return null;
+        }
+        if (line.charAt(start + 4) != '-' || line.charAt(start + 7) != '-'
+                || line.charAt(start + 10) != 'T' || line.charAt(start + 13) != ':') {
+            return null;
+        }
+
+        int year = parseDigits(line, start, 4);
+        int month = parseDigits(line, start + 5, 2);
+        int day = parseDigits(line, start + 8, 2);
+        int hour = parseDigits(line, start + 11, 2);
+        int minute = parseDigits(line, start + 14, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute);
+        } catch (DateTimeException e) {
+            return null; // e.g. February 30th; let the slow path report it
+        }
+    }
+
+    // Parses a run of ASCII digits, returning -1 if any character is not a digit
+    private static int parseDigits(String line, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Decodes a saved file line by splitting it on the field separator.
+     * <p>
+     * This is the reference decoder: it handles every line, including the
+     * irregular ones that {@link #decodeByScan(String, int)} declines.
      *
      * @param line the encoded task string read from storage
      * @return the corresponding {@link Task} object
      * @throws FinchException if the task type is unknown or the date format is invalid
      */
-    public static Task decode(String line) throws FinchException {
+    static Task decodeBySplit(String line) throws FinchException {
         String[] parts = line.split(" \\| ");
         String type = parts[0];
         boolean isDone = parts[1].equals("1");
@@ -102,11 +363,30 @@ public abstract class Task {
 
     /**
      * Returns a string representation of this task for display purposes.
+     * <p>
+     * The string is built by {@link #formatDisplay()} on first use and then
+     * reused until the task is marked or unmarked, so listing the same tasks
+     * again does no formatting work.
      *
-     * @return a string containing the status icon and task description
+     * @return a string containing the task type, status icon, description and any dates
      */
     @Override
-    public String toString() {
+    public final String toString() {
+        String s = display;
+        if (s == null) {
+            s = formatDisplay();
+            display = s;
+        }
+        return s;
+    }
+
+    /**
+     * Builds the display string returned by {@link #toString()}.
+     * Subclasses add their type and dates around this.
+     *
+     * @return a string containing the status icon and task description
+     */
+    protected String formatDisplay() {
         return "[" + getStatusIcon() + "] " + description;
     }
 
@@ -122,7 +402,15 @@ public abstract class Task {
     protected static final DateTimeFormatter DISPLAY_FORMATTER =
             DateTimeFormatter.ofPattern("MMM d yyyy, h:mm a");
 
+    // Formatted date-times shared by all tasks; most lists repeat a small set of dates
+    private static final DateDisplayCache DATE_CACHE = new DateDisplayCache();
+
     protected static String formatDateTime(LocalDateTime dt) {
+        return DATE_CACHE.format(dt);
+    }
+
+    // Formats a date-time for display without the cache
+    static String formatDateTimeUncached(LocalDateTime dt) {
         return dt.format(DISPLAY_FORMATTER)
                 .replace("AM", "am")
                 .replace("PM", "pm");
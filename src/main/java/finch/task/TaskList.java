@@ -2,8 +2,13 @@ package finch.task;
 
 import finch.exception.FinchException;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -12,24 +17,117 @@ import java.util.List;
  * Provides functionality for adding, deleting, marking/unmarking tasks,
  * searching tasks by keyword, and retrieving tasks.
  * Supports {@link ToDo}, {@link Deadline}, and {@link Event} task types.
+ * <p>
+ * Every task has a stable ID that does not change when other tasks are
+ * deleted, so tasks can be addressed either by their displayed position or
+ * by ID.
+ * <p>
+ * The list is safe to share between threads. Its contents are held in an
+ * immutable {@link TaskSnapshot}, and every mutation publishes a new one.
+ * Reads ({@link #size()}, {@link #getTask(int)}, iteration and
+ * {@link #findTasks(String)}) go to the latest snapshot without locking, and
+ * a reader that needs several reads to agree takes one {@link #snapshot()}
+ * and reads from it. Mutations are synchronized, so they happen one at a
+ * time. Marking or unmarking a task replaces it with a marked copy rather
+ * than changing it, so a task in a snapshot never changes either. Date
+ * queries share the mutations' lock, since the date index is updated in place.
  */
-public class TaskList {
-    private final ArrayList<Task> tasks;
+public class TaskList implements Iterable<Task> {
+
+    // Contents as of the last mutation; replaced, never changed, by each mutation
+    private volatile TaskSnapshot current = TaskSnapshot.empty();
+
+    // Task ID -> insertion order number, for finding tasks by ID; guarded by this list's lock
+    private final HashMap<Long, Long> idToOrder = new HashMap<>();
+
+    // IDs of lazily loaded tasks by insertion order number, in ascending order; such tasks are not in idToOrder
+    private long[] loadedIds;
+
+    // Insertion order number for the next task added; list order always follows insertion order
+    private long nextOrder;
+
+    // ID for the next task added; always greater than every ID in use
+    private long nextId = 1;
+
+    // Date index for findDueBy and findBetween; built on the first query and then kept up to date
+    private TimeIndex timeIndex;
+
+    // Pending deadlines and events; built on first use and then kept up to date like the date index
+    private ReminderScheduler reminders;
 
     /**
      * Constructs an empty {@code TaskList}.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
     }
 
     /**
      * Constructs a {@code TaskList} with preloaded tasks.
+     * <p>
+     * Tasks keep the IDs they were loaded with; tasks without an ID, or whose
+     * ID is already taken, are given a new one.
      *
      * @param tasks a list of tasks to initialize with; if {@code null}, an empty list is created
      */
     public TaskList(ArrayList<Task> tasks) {
-        this.tasks = tasks != null ? tasks : new ArrayList<>();
+        if (tasks == null) {
+            return;
+        }
+        for (Task t : tasks) {
+            nextId = Math.max(nextId, t.id + 1);
+        }
+        for (Task t : tasks) {
+            assignLoadedId(t);
+            t.order = nextOrder++;
+            idToOrder.put(t.id, t.order);
+        }
+        current = TaskSnapshot.of(tasks);
+    }
+
+    /**
+     * Constructs a {@code TaskList} whose tasks are decoded only when first
+     * read, in chunks, so that a large file is ready to use at once.
+     * <p>
+     * IDs are kept and assigned as by {@link #TaskList(ArrayList)}. Finding a
+     * loaded task by ID does not decode anything either, as long as the IDs
+     * ascend through the file, which they do in any file Finch has saved.
+     *
+     * @param encoded the tasks found in the data file, in list order
+     * @throws FinchException if one of the last, partly filled chunk's tasks cannot be decoded
+     */
+    public TaskList(EncodedTasks encoded) throws FinchException {
+        long[] ids = new long[encoded.size()];
+        boolean isAscending = true;
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = encoded.getId(i);
+            nextId = Math.max(nextId, ids[i] + 1);
+            isAscending &= ids[i] > 0 && (i == 0 || ids[i] > ids[i - 1]);
+        }
+
+        if (isAscending) {
+            loadedIds = ids;
+        } else {
+            // Same rules as assignLoadedId, which the map is not built yet to check
+            HashSet<Long> taken = new HashSet<>();
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] <= 0 || !taken.add(ids[i])) {
+                    ids[i] = nextId++;
+                }
+                idToOrder.put(ids[i], (long) i);
+            }
+        }
+        nextOrder = ids.length;
+        current = TaskSnapshot.of(encoded, ids);
+    }
+
+    /**
+     * Appends a task that was decoded from storage, keeping its ID if it has a free one.
+     *
+     * @param task the decoded task
+     */
+    public synchronized void addLoaded(Task task) {
+        assignLoadedId(task);
+        append(task);
     }
 
     // --- Add tasks ---
@@ -41,12 +139,10 @@ public class TaskList {
      * @return the newly created ToDo task
      * @throws FinchException if the description is {@code null} or empty
      */
-    public Task addTodo(String description) throws FinchException {
-        if (description == null || description.trim().isEmpty()) {
-            throw new FinchException("ToDo description cannot be empty");
-        }
-        Task t = new ToDo(description.trim());
-        tasks.add(t);
+    public synchronized Task addTodo(String description) throws FinchException {
+        Task t = newTodo(description);
+        t.id = nextId++;
+        append(t);
         return t;
     }
 
@@ -58,30 +154,91 @@ public class TaskList {
      * @return the newly created Deadline task
      * @throws FinchException if the description is {@code null}/empty, or {@code by} is {@code null}
      */
-    public Task addDeadline(String description, LocalDateTime by) throws FinchException {
+    public synchronized Task addDeadline(String description, LocalDateTime by) throws FinchException {
+        Task t = newDeadline(description, by);
+        t.id = nextId++;
+        append(t);
+        return t;
+    }
+
+    /**
+     * Adds a new {@link Event} task to the task list.
+     *
+     * @param description the description of the event
+     * @param from the start date and time of the event
+     * @param to the end date and time of the event
+     * @return the newly created Event task
+     * @throws FinchException if description is {@code null}/empty,
+     *                        if {@code from} or {@code to} are {@code null},
+     *                        or if {@code to} is before {@code from}
+     */
+    public synchronized Task addEvent(String description, LocalDateTime from, LocalDateTime to) throws FinchException {
+        Task t = newEvent(description, from, to);
+        t.id = nextId++;
+        append(t);
+        return t;
+    }
+
+    /**
+     * Appends tasks made by {@link #newTodo}, {@link #newDeadline} or
+     * {@link #newEvent} to the end of the list, giving each a new ID.
+     *
+     * @param created the new tasks, in the order to add them
+     */
+    public synchronized void addAll(List<Task> created) {
+        for (Task t : created) {
+            t.id = nextId++;
+            append(t);
+        }
+    }
+
+    /**
+     * Creates a {@link ToDo} task without adding it, after the checks
+     * {@link #addTodo} makes. Safe to call from any thread.
+     *
+     * @param description the description of the task
+     * @return the new task
+     * @throws FinchException if the description is {@code null} or empty
+     */
+    public static Task newTodo(String description) throws FinchException {
+        if (description == null || description.trim().isEmpty()) {
+            throw new FinchException("ToDo description cannot be empty");
+        }
+        return new ToDo(description.trim());
+    }
+
+    /**
+     * Creates a {@link Deadline} task without adding it, after the checks
+     * {@link #addDeadline} makes. Safe to call from any thread.
+     *
+     * @param description the description of the deadline
+     * @param by the deadline date and time
+     * @return the new task
+     * @throws FinchException if the description is {@code null}/empty, or {@code by} is {@code null}
+     */
+    public static Task newDeadline(String description, LocalDateTime by) throws FinchException {
         if (description == null || description.trim().isEmpty()) {
             throw new FinchException("Deadline description cannot be empty");
         }
         if (by == null) {
             throw new FinchException("Deadline date/time cannot be null");
         }
-        Task t = new Deadline(description.trim(), by);
-        tasks.add(t);
-        return t;
+        return new Deadline(description.trim(), by);
     }
 
     /**
-     * Adds a new {@link Event} task to the task list.
+     * Creates an {@link Event} task without adding it, after the checks
+     * {@link #addEvent} makes. Safe to call from any thread.
      *
      * @param description the description of the event
      * @param from the start date and time of the event
      * @param to the end date and time of the event
-     * @return the newly created Event task
+     * @return the new task
      * @throws FinchException if description is {@code null}/empty,
      *                        if {@code from} or {@code to} are {@code null},
      *                        or if {@code to} is before {@code from}
      */
-    public Task addEvent(String description, LocalDateTime from, LocalDateTime to) throws FinchException {
+    public static Task newEvent(String description, LocalDateTime from, LocalDateTime to) throws FinchException {
         if (description == null || description.trim().isEmpty()) {
             throw new FinchException("Event description cannot be empty");
         }
@@ -91,9 +248,7 @@ public class TaskList {
         if (to.isBefore(from)) {
             throw new FinchException("Event end time cannot be before start time");
         }
-        Task t = new Event(description.trim(), from, to);
-        tasks.add(t);
-        return t;
+        return new Event(description.trim(), from, to);
     }
 
     // --- Task operations ---
@@ -105,31 +260,145 @@ public class TaskList {
      * @return the task that was removed
      * @throws FinchException if the index is invalid
      */
-    public Task deleteTask(int index) throws FinchException {
-        validateIndex(index);
-        return tasks.remove(index);
+    public synchronized Task deleteTask(int index) throws FinchException {
+        TaskSnapshot snapshot = current;
+        Task removed = snapshot.getTask(index);
+        current = snapshot.remove(index);
+        idToOrder.remove(removed.id);
+        if (timeIndex != null) {
+            timeIndex.remove(removed);
+        }
+        if (reminders != null) {
+            reminders.remove(removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the zero-based index of the task with the given ID.
+     *
+     * @param id the ID of the task
+     * @return the current index of that task
+     * @throws FinchException if no task has that ID
+     */
+    public synchronized int indexOfId(long id) throws FinchException {
+        Long order = idToOrder.get(id);
+        if (order == null && loadedIds != null) {
+            int i = Arrays.binarySearch(loadedIds, id);
+            order = i < 0 ? null : (long) i;
+        }
+        int index = order == null ? -1 : current.positionOfOrder(order);
+        if (index < 0) {
+            throw new FinchException("Task #" + id + " does not exist!");
+        }
+        return index;
     }
 
     /**
      * Marks the task at the specified index as done.
+     * The task is replaced by a marked copy, which is returned.
      *
      * @param index the zero-based index of the task
+     * @return the task as it is now, marked as done
      * @throws FinchException if the index is invalid
      */
-    public void markTask(int index) throws FinchException {
-        validateIndex(index);
-        tasks.get(index).markAsDone();
+    public synchronized Task markTask(int index) throws FinchException {
+        Task task = current.getTask(index);
+        Task marked = task.copy();
+        marked.markAsDone();
+        replace(index, task, marked);
+        return marked;
     }
 
     /**
      * Marks the task at the specified index as not done.
+     * The task is replaced by an unmarked copy, which is returned.
      *
      * @param index the zero-based index of the task
+     * @return the task as it is now, marked as not done
      * @throws FinchException if the index is invalid
      */
-    public void unmarkTask(int index) throws FinchException {
-        validateIndex(index);
-        tasks.get(index).unmark();
+    public synchronized Task unmarkTask(int index) throws FinchException {
+        Task task = current.getTask(index);
+        Task unmarked = task.copy();
+        unmarked.unmark();
+        replace(index, task, unmarked);
+        return unmarked;
+    }
+
+    // --- Bulk task operations ---
+
+    /**
+     * Marks the tasks at the given indexes as done, in one pass.
+     * Each task is replaced by a marked copy, as by {@link #markTask(int)}.
+     *
+     * @param indices the zero-based indexes of the tasks, ascending and without repeats
+     * @return the tasks as they are now, marked as done, in list order
+     * @throws FinchException if any index is invalid; then no task is marked
+     */
+    public synchronized List<Task> markTasks(int[] indices) throws FinchException {
+        return replaceAll(indices, true);
+    }
+
+    /**
+     * Marks the tasks at the given indexes as not done, in one pass.
+     * Each task is replaced by an unmarked copy, as by {@link #unmarkTask(int)}.
+     *
+     * @param indices the zero-based indexes of the tasks, ascending and without repeats
+     * @return the tasks as they are now, marked as not done, in list order
+     * @throws FinchException if any index is invalid; then no task is unmarked
+     */
+    public synchronized List<Task> unmarkTasks(int[] indices) throws FinchException {
+        return replaceAll(indices, false);
+    }
+
+    /**
+     * Deletes the tasks at the given indexes.
+     * <p>
+     * The list is compacted in a single pass, in O(n) however many tasks are
+     * deleted, where deleting them one at a time would shift the tasks after
+     * each one in turn.
+     *
+     * @param indices the zero-based indexes of the tasks, ascending and without repeats
+     * @return the tasks that were removed, in list order
+     * @throws FinchException if any index is invalid; then no task is deleted
+     */
+    public synchronized List<Task> deleteTasks(int[] indices) throws FinchException {
+        TaskSnapshot snapshot = current;
+        Task[] removed = tasksAt(snapshot, indices);
+        current = snapshot.removeAll(indices);
+        for (Task task : removed) {
+            idToOrder.remove(task.id);
+            if (timeIndex != null) {
+                timeIndex.remove(task);
+            }
+            if (reminders != null) {
+                reminders.remove(task);
+            }
+        }
+        return Arrays.asList(removed);
+    }
+
+    /**
+     * Puts deleted tasks back in the places they were deleted from, keeping
+     * their IDs. Each task goes back between the tasks that were either side
+     * of it, or as near as the list now allows, since list order always
+     * follows insertion order. This takes O(log n) plus the copying of one
+     * chunk per task, whatever the size of the list.
+     *
+     * @param deleted tasks deleted from this list, in any order
+     */
+    public synchronized void restoreTasks(List<Task> deleted) {
+        for (Task task : deleted) {
+            current = current.insert(task);
+            idToOrder.put(task.id, task.order);
+            if (timeIndex != null) {
+                timeIndex.add(task);
+            }
+            if (reminders != null) {
+                reminders.add(task);
+            }
+        }
     }
 
     // --- Getters ---
@@ -140,7 +409,40 @@ public class TaskList {
      * @return the number of tasks
      */
     public int size() {
-        return tasks.size();
+        return current.size();
+    }
+
+    /**
+     * Returns an iterator over the tasks in list order.
+     * This is cheaper than calling {@link #getTask(int)} for each index in turn.
+     *
+     * @return an iterator over all tasks
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return current.iterator();
+    }
+
+    /**
+     * Returns an iterator over the tasks from the given index to the end of the list.
+     * Only the starting position is looked up, so this is cheap for any index.
+     *
+     * @param fromIndex the zero-based index of the first task returned
+     * @return an iterator over the tasks from that index onwards
+     * @throws FinchException if the index is out of range
+     */
+    public Iterator<Task> iterator(int fromIndex) throws FinchException {
+        return current.iterator(fromIndex);
+    }
+
+    /**
+     * Returns the list as it is now, which later changes to the list do not
+     * affect. This takes O(1) and may be called from any thread.
+     *
+     * @return the latest snapshot of the list
+     */
+    public TaskSnapshot snapshot() {
+        return current;
     }
 
     /**
@@ -151,44 +453,192 @@ public class TaskList {
      * @throws FinchException if the index is invalid
      */
     public Task getTask(int index) throws FinchException {
-        validateIndex(index);
-        return tasks.get(index);
+        return current.getTask(index);
+    }
+
+    /**
+     * Retrieves the tasks at the given indexes, walking the list once.
+     *
+     * @param indices the zero-based indexes of the tasks, ascending
+     * @return the tasks at those indexes, in list order
+     * @throws FinchException if any index is invalid
+     */
+    public List<Task> getTasks(int[] indices) throws FinchException {
+        return Arrays.asList(tasksAt(current, indices));
     }
 
     // --- Find tasks by keyword ---
 
     /**
-     * Finds all tasks containing the given keyword in their description.
+     * Finds all tasks containing the given keyword in their description, ignoring case.
+     * <p>
+     * The search runs on the latest snapshot, through trigram indexes that are
+     * built as searches first need them (see {@link TaskSnapshot}).
      *
      * @param keyword the keyword to search for
-     * @return a list of matching tasks
+     * @return a list of matching tasks, in list order
      * @throws FinchException if the keyword is {@code null} or empty
      */
     public List<Task> findTasks(String keyword) throws FinchException {
-        if (keyword == null || keyword.trim().isEmpty()) {
-            throw new FinchException("Keyword cannot be empty");
-        }
+        return current.findTasks(keyword);
+    }
 
-        List<Task> results = new ArrayList<>();
-        for (Task t : tasks) {
-            if (t.description.toLowerCase().contains(keyword.toLowerCase())) {
-                results.add(t);
-            }
+    /**
+     * Finds the tasks whose descriptions come closest to the query, for
+     * searches that tolerate typos. See {@link TaskSnapshot#findFuzzy}.
+     *
+     * @param query the text to look for
+     * @param top the most matches to return
+     * @return the best matches, fewest edits first, then in list order
+     * @throws FinchException if the query is empty or too long
+     */
+    public List<FuzzyMatch> findFuzzy(String query, int top) throws FinchException {
+        return current.findFuzzy(query, top);
+    }
+
+    // --- Find tasks by date ---
+
+    /**
+     * Finds all deadlines due at or before the given date-time.
+     *
+     * @param end the latest due date-time to include
+     * @return the matching deadlines, earliest first
+     */
+    public synchronized List<Task> findDueBy(LocalDateTime end) {
+        return getTimeIndex().findDueBy(end);
+    }
+
+    /**
+     * Finds all deadlines due within the given range and all events that overlap it.
+     *
+     * @param start the start of the range, inclusive
+     * @param end the end of the range, inclusive
+     * @return the matching tasks, ordered by due or start date-time
+     * @throws FinchException if {@code end} is before {@code start}
+     */
+    public synchronized List<Task> findBetween(LocalDateTime start, LocalDateTime end) throws FinchException {
+        if (end.isBefore(start)) {
+            throw new FinchException("End date cannot be before start date");
         }
-        return results;
+        return getTimeIndex().findBetween(start, end);
     }
 
-    // --- Helper ---
+    // --- Reminders ---
 
     /**
-     * Validates whether the given index is within bounds of the task list.
+     * Returns the scheduler that tracks this list's upcoming deadlines and
+     * events. The first call builds it from the current tasks, in O(n); from
+     * then on, every mutation of the list updates it in O(log n).
      *
-     * @param index the index to validate
-     * @throws FinchException if the index is out of range
+     * @return this list's reminder scheduler
      */
-    private void validateIndex(int index) throws FinchException {
-        if (index < 0 || index >= tasks.size()) {
-            throw new FinchException("Task number " + (index + 1) + " does not exist!");
+    public synchronized ReminderScheduler getReminders() {
+        if (reminders == null) {
+            reminders = new ReminderScheduler(current, Clock.systemDefaultZone());
+        }
+        return reminders;
+    }
+
+    // --- Helper ---
+
+    // Returns the date index, building it from the current tasks on first use
+    private TimeIndex getTimeIndex() {
+        if (timeIndex == null) {
+            timeIndex = new TimeIndex();
+            for (Task t : current) {
+                timeIndex.add(t);
+            }
+        }
+        return timeIndex;
+    }
+
+    // Keeps a loaded task's ID if it is free, and otherwise gives it a new one
+    private void assignLoadedId(Task task) {
+        if (task.id <= 0 || idToOrder.containsKey(task.id) || isLoadedId(task.id)) {
+            task.id = nextId;
+        }
+        nextId = Math.max(nextId, task.id + 1);
+    }
+
+    // Returns whether a lazily loaded task still in the list has the given ID
+    private boolean isLoadedId(long id) {
+        if (loadedIds == null) {
+            return false;
+        }
+        int i = Arrays.binarySearch(loadedIds, id);
+        return i >= 0 && current.positionOfOrder(i) >= 0;
+    }
+
+    // Appends a task, giving it the next insertion order and adding it to the date index if built
+    private void append(Task t) {
+        t.order = nextOrder++;
+        idToOrder.put(t.id, t.order);
+        current = current.append(t);
+        if (timeIndex != null) {
+            timeIndex.add(t);
+        }
+        if (reminders != null) {
+            reminders.add(t);
+        }
+    }
+
+    // Replaces the tasks at the given positions by marked or unmarked copies of them
+    private List<Task> replaceAll(int[] indices, boolean isDone) throws FinchException {
+        TaskSnapshot snapshot = current;
+        Task[] old = tasksAt(snapshot, indices);
+        Task[] copies = new Task[old.length];
+        for (int i = 0; i < old.length; i++) {
+            copies[i] = old[i].copy();
+            if (isDone) {
+                copies[i].markAsDone();
+            } else {
+                copies[i].unmark();
+            }
+        }
+        current = snapshot.replaceAll(indices, copies);
+        for (int i = 0; i < old.length; i++) {
+            if (timeIndex != null) {
+                timeIndex.remove(old[i]);
+                timeIndex.add(copies[i]);
+            }
+            if (reminders != null) {
+                reminders.remove(old[i]);
+                reminders.add(copies[i]);
+            }
+        }
+        return Arrays.asList(copies);
+    }
+
+    // Returns the tasks at the given ascending positions, walking the snapshot once; checks every position first
+    private static Task[] tasksAt(TaskSnapshot snapshot, int[] indices) throws FinchException {
+        Task[] tasks = new Task[indices.length];
+        if (indices.length == 0) {
+            return tasks;
+        }
+        snapshot.getTask(indices[0]);
+        snapshot.getTask(indices[indices.length - 1]);
+        Iterator<Task> it = snapshot.iterator(indices[0]);
+        int position = indices[0];
+        for (int i = 0; i < indices.length; i++) {
+            Task task = it.next();
+            while (position++ < indices[i]) {
+                task = it.next();
+            }
+            tasks[i] = task;
+        }
+        return tasks;
+    }
+
+    // Replaces the task at the given position by a marked or unmarked copy of it
+    private void replace(int index, Task old, Task copy) {
+        current = current.replace(index, copy);
+        if (timeIndex != null) {
+            timeIndex.remove(old);
+            timeIndex.add(copy);
+        }
+        if (reminders != null) {
+            reminders.remove(old);
+            reminders.add(copy);
         }
     }
 }
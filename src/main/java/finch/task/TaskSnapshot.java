@@ -0,0 +1,832 @@
+package finch.task;
+
+import finch.exception.FinchException;
+import finch.exception.UncheckedFinchException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * An immutable view of a {@link TaskList} at one point in time.
+ * <p>
+ * A snapshot never changes once it has been published, and neither do the
+ * tasks in it, so any number of threads may read it without locking while
+ * the list moves on. The list publishes a new snapshot after every mutation;
+ * readers that need several consistent reads, such as a size and then an
+ * iteration, take one snapshot and do all their reads on it.
+ * <p>
+ * Tasks are kept in chunks of up to {@value #CHUNK_SIZE}, in list order. A
+ * mutation copies only the chunk it changes and the small arrays indexing
+ * the chunks, so consecutive snapshots share almost all of their memory.
+ * Appending writes into spare room at the end of the arrays instead, which
+ * no older snapshot can see. A task at a given position is found by binary
+ * search over the chunks, in O(log n).
+ * <p>
+ * Keyword search uses a trigram index per full chunk, built on the first
+ * search that reaches the chunk. Marking and deleting tasks does not change
+ * any description, so every later version of the chunk shares its index and
+ * only has to skip tasks it no longer holds. The last, partly filled chunk
+ * is searched by a plain scan.
+ * <p>
+ * A list loaded lazily from {@link EncodedTasks} starts with chunks that
+ * hold no tasks yet. Such a chunk decodes all its tasks the first time any
+ * of them is read, and keeps them. Until then, it knows its size and its
+ * tasks' insertion order numbers, which run from its first to its last
+ * without gaps. A task that fails to decode is reported by an
+ * {@link UncheckedFinchException} from whichever read reached it.
+ */
+public final class TaskSnapshot implements Iterable<Task> {
+
+    // Most tasks in one chunk
+    static final int CHUNK_SIZE = 1024;
+
+    // A chunk shrunk below this by deletes is merged into a neighbour, if the two fit in one chunk
+    private static final int MIN_CHUNK_SIZE = CHUNK_SIZE / 4;
+
+    // Fuzzy searches score lists of at least this many tasks on the common ForkJoinPool
+    private static final int FUZZY_PARALLEL_SIZE = 32 * CHUNK_SIZE;
+
+    // Chunks scored by one fuzzy search task on the pool
+    private static final int FUZZY_CHUNKS_PER_TASK = 8;
+
+    // Full chunks, in list order; only the first chunkCount belong to this snapshot
+    private final Chunk[] chunks;
+
+    // Position of the first task of each chunk, in step with chunks
+    private final int[] chunkStarts;
+
+    private final int chunkCount;
+
+    // Tasks after the last full chunk, in list order; only the first tailCount belong to this snapshot
+    private final Task[] tail;
+
+    private final int tailCount;
+
+    // Number of tasks in the full chunks
+    private final int chunkedSize;
+
+    private TaskSnapshot(Chunk[] chunks, int[] chunkStarts, int chunkCount, Task[] tail, int tailCount) {
+        this.chunks = chunks;
+        this.chunkStarts = chunkStarts;
+        this.chunkCount = chunkCount;
+        this.tail = tail;
+        this.tailCount = tailCount;
+        this.chunkedSize = chunkCount == 0 ? 0 : chunkStarts[chunkCount - 1] + chunks[chunkCount - 1].size;
+    }
+
+    /**
+     * Returns a new snapshot of an empty list. Each list needs its own, since
+     * appending writes into the snapshot's spare room.
+     *
+     * @return an empty snapshot
+     */
+    static TaskSnapshot empty() {
+        return new TaskSnapshot(new Chunk[4], new int[4], 0, new Task[CHUNK_SIZE], 0);
+    }
+
+    /**
+     * Builds a snapshot holding the given tasks, in O(n).
+     *
+     * @param tasks the tasks in list order, already given their IDs and insertion order numbers
+     * @return a snapshot of those tasks
+     */
+    static TaskSnapshot of(List<Task> tasks) {
+        int chunkCount = tasks.size() / CHUNK_SIZE;
+        Chunk[] chunks = new Chunk[Math.max(4, chunkCount * 2)];
+        int[] chunkStarts = new int[chunks.length];
+        for (int c = 0; c < chunkCount; c++) {
+            int start = c * CHUNK_SIZE;
+            chunks[c] = new Chunk(tasks.subList(start, start + CHUNK_SIZE).toArray(new Task[0]));
+            chunkStarts[c] = start;
+        }
+        Task[] tail = new Task[CHUNK_SIZE];
+        int tailCount = tasks.size() - chunkCount * CHUNK_SIZE;
+        for (int i = 0; i < tailCount; i++) {
+            tail[i] = tasks.get(chunkCount * CHUNK_SIZE + i);
+        }
+        return new TaskSnapshot(chunks, chunkStarts, chunkCount, tail, tailCount);
+    }
+
+    /**
+     * Builds a snapshot of tasks that are only decoded when first read, in
+     * O(n / {@value #CHUNK_SIZE}). The tasks in the last, partly filled
+     * chunk are decoded straight away, since appending needs them.
+     *
+     * @param encoded the tasks in list order
+     * @param ids the IDs to give the tasks, by position; a task's position is also its insertion order number
+     * @return a snapshot of those tasks
+     * @throws FinchException if a task in the last chunk cannot be decoded
+     */
+    static TaskSnapshot of(EncodedTasks encoded, long[] ids) throws FinchException {
+        int chunkCount = encoded.size() / CHUNK_SIZE;
+        Chunk[] chunks = new Chunk[Math.max(4, chunkCount * 2)];
+        int[] chunkStarts = new int[chunks.length];
+        for (int c = 0; c < chunkCount; c++) {
+            chunkStarts[c] = c * CHUNK_SIZE;
+            chunks[c] = new Chunk(encoded, ids, chunkStarts[c], CHUNK_SIZE);
+        }
+        Task[] tail = new Task[CHUNK_SIZE];
+        int tailStart = chunkCount * CHUNK_SIZE;
+        int tailCount = encoded.size() - tailStart;
+        System.arraycopy(decode(encoded, ids, tailStart, tailCount), 0, tail, 0, tailCount);
+        return new TaskSnapshot(chunks, chunkStarts, chunkCount, tail, tailCount);
+    }
+
+    // --- Reads ---
+
+    /**
+     * Returns the number of tasks in this snapshot.
+     *
+     * @return the number of tasks
+     */
+    public int size() {
+        return chunkedSize + tailCount;
+    }
+
+    /**
+     * Retrieves the task at the specified index.
+     *
+     * @param index the zero-based index of the task
+     * @return the task at the given index
+     * @throws FinchException if the index is invalid
+     */
+    public Task getTask(int index) throws FinchException {
+        validateIndex(index);
+        if (index >= chunkedSize) {
+            return tail[index - chunkedSize];
+        }
+        int c = chunkOf(index);
+        return chunks[c].tasks()[index - chunkStarts[c]];
+    }
+
+    /**
+     * Returns an iterator over the tasks in list order.
+     *
+     * @return an iterator over all tasks
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new TaskIterator(0, 0);
+    }
+
+    /**
+     * Returns an iterator over the tasks from the given index to the end of the list.
+     * Only the starting position is looked up, so this is cheap for any index.
+     *
+     * @param fromIndex the zero-based index of the first task returned
+     * @return an iterator over the tasks from that index onwards
+     * @throws FinchException if the index is out of range
+     */
+    public Iterator<Task> iterator(int fromIndex) throws FinchException {
+        validateIndex(fromIndex);
+        if (fromIndex >= chunkedSize) {
+            return new TaskIterator(chunkCount, fromIndex - chunkedSize);
+        }
+        int c = chunkOf(fromIndex);
+        return new TaskIterator(c, fromIndex - chunkStarts[c]);
+    }
+
+    /**
+     * Finds all tasks containing the given keyword in their description, ignoring case.
+     * Matching is the same as {@link String#contains} on both lower-cased with
+     * {@link String#toLowerCase()}.
+     *
+     * @param keyword the keyword to search for
+     * @return a list of matching tasks, in list order
+     * @throws FinchException if the keyword is {@code null} or empty
+     */
+    public List<Task> findTasks(String keyword) throws FinchException {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            throw new FinchException("Keyword cannot be empty.");
+        }
+        String needle = keyword.toLowerCase();
+        long[] grams = TrigramIndex.gramsOf(needle);
+        List<Task> results = new ArrayList<>();
+        for (int c = 0; c < chunkCount; c++) {
+            chunks[c].find(needle, grams, results);
+        }
+        for (int i = 0; i < tailCount; i++) {
+            if (tail[i].lowerDescription().contains(needle)) {
+                results.add(tail[i]);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Finds the tasks whose descriptions come closest to containing the
+     * query, ignoring case, allowing a typo per three characters of it (see
+     * {@link FuzzyMatcher}). Only the best {@code top} are kept while
+     * scoring, in a bounded heap. Large lists are scored in parallel.
+     *
+     * @param query the text to look for
+     * @param top the most matches to return
+     * @return the best matches, fewest edits first, then in list order
+     * @throws FinchException if the query is empty or longer than {@value FuzzyMatcher#MAX_QUERY_LENGTH} characters
+     */
+    public List<FuzzyMatch> findFuzzy(String query, int top) throws FinchException {
+        if (query == null || query.trim().isEmpty()) {
+            throw new FinchException("Keyword cannot be empty.");
+        }
+        String needle = query.trim().toLowerCase();
+        if (needle.length() > FuzzyMatcher.MAX_QUERY_LENGTH) {
+            throw new FinchException("A fuzzy search can be at most " + FuzzyMatcher.MAX_QUERY_LENGTH
+                    + " characters long.");
+        }
+
+        FuzzyMatcher matcher = new FuzzyMatcher(needle);
+        FuzzyMatcher.Best best;
+        if (size() < FUZZY_PARALLEL_SIZE) {
+            best = new FuzzyMatcher.Best(top);
+            for (int c = 0; c < chunkCount; c++) {
+                matcher.score(chunks[c].tasks(), chunks[c].size, best);
+            }
+        } else {
+            best = ForkJoinPool.commonPool().invoke(new FuzzyAction(matcher, top, 0, chunkCount));
+        }
+        matcher.score(tail, tailCount, best);
+        return best.toList();
+    }
+
+    /**
+     * Scores a range of chunks for {@link #findFuzzy}, splitting it in half
+     * until it is small enough, and keeps the best matches of both halves.
+     */
+    @SuppressWarnings("serial")
+    private final class FuzzyAction extends RecursiveTask<FuzzyMatcher.Best> {
+        private final FuzzyMatcher matcher;
+        private final int top;
+        private final int from;
+        private final int to;
+
+        FuzzyAction(FuzzyMatcher matcher, int top, int from, int to) {
+            this.matcher = matcher;
+            this.top = top;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected FuzzyMatcher.Best compute() {
+            if (to - from <= FUZZY_CHUNKS_PER_TASK) {
+                FuzzyMatcher.Best best = new FuzzyMatcher.Best(top);
+                for (int c = from; c < to; c++) {
+                    matcher.score(chunks[c].tasks(), chunks[c].size, best);
+                }
+                return best;
+            }
+            int mid = (from + to) >>> 1;
+            FuzzyAction left = new FuzzyAction(matcher, top, from, mid);
+            left.fork();
+            FuzzyMatcher.Best best = new FuzzyAction(matcher, top, mid, to).compute();
+            best.addAll(left.join());
+            return best;
+        }
+    }
+
+    /**
+     * Returns the position of the task with the given insertion order number.
+     *
+     * @param order the task's insertion order number
+     * @return its zero-based position, or -1 if it is not in this snapshot
+     */
+    int positionOfOrder(long order) {
+        if (tailCount > 0 && tail[0].order <= order) {
+            int i = searchOrder(tail, 0, tailCount, order);
+            return i < 0 ? -1 : chunkedSize + i;
+        }
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Chunk chunk = chunks[mid];
+            if (order < chunk.firstOrder()) {
+                high = mid - 1;
+            } else if (order > chunk.lastOrder()) {
+                low = mid + 1;
+            } else {
+                int i = chunk.indexOfOrder(order);
+                return i < 0 ? -1 : chunkStarts[mid] + i;
+            }
+        }
+        return -1;
+    }
+
+    // --- Writes, used by TaskList on its latest snapshot only ---
+
+    /**
+     * Returns a snapshot with the task appended. This may write into spare
+     * room in this snapshot's arrays, which is safe only if no snapshot has
+     * been derived from this one yet.
+     *
+     * @param task the task to append, with the highest insertion order number so far
+     * @return the new snapshot
+     */
+    TaskSnapshot append(Task task) {
+        if (tailCount < tail.length) {
+            tail[tailCount] = task;
+            return new TaskSnapshot(chunks, chunkStarts, chunkCount, tail, tailCount + 1);
+        }
+
+        // The tail is full: it becomes a chunk as it is, and the task starts a new tail
+        Chunk[] newChunks = chunks;
+        int[] newStarts = chunkStarts;
+        if (chunkCount == chunks.length) {
+            newChunks = Arrays.copyOf(chunks, chunkCount * 2);
+            newStarts = Arrays.copyOf(chunkStarts, chunkCount * 2);
+        }
+        newChunks[chunkCount] = new Chunk(tail);
+        newStarts[chunkCount] = chunkedSize;
+        Task[] newTail = new Task[CHUNK_SIZE];
+        newTail[0] = task;
+        return new TaskSnapshot(newChunks, newStarts, chunkCount + 1, newTail, 1);
+    }
+
+    /**
+     * Returns a snapshot with the task at the given position replaced by
+     * another with the same description and insertion order number.
+     *
+     * @param index the zero-based position, which must be within bounds
+     * @param task the replacement
+     * @return the new snapshot
+     */
+    TaskSnapshot replace(int index, Task task) {
+        if (index >= chunkedSize) {
+            Task[] newTail = tail.clone();
+            newTail[index - chunkedSize] = task;
+            return new TaskSnapshot(chunks, chunkStarts, chunkCount, newTail, tailCount);
+        }
+        int c = chunkOf(index);
+        Task[] tasks = chunks[c].tasks().clone();
+        tasks[index - chunkStarts[c]] = task;
+        Chunk[] newChunks = chunks.clone();
+        newChunks[c] = new Chunk(tasks, chunks[c].search);
+        return new TaskSnapshot(newChunks, chunkStarts, chunkCount, tail, tailCount);
+    }
+
+    /**
+     * Returns a snapshot without the task at the given position.
+     *
+     * @param index the zero-based position, which must be within bounds
+     * @return the new snapshot
+     */
+    TaskSnapshot remove(int index) {
+        if (index >= chunkedSize) {
+            int i = index - chunkedSize;
+            Task[] newTail = new Task[CHUNK_SIZE];
+            System.arraycopy(tail, 0, newTail, 0, i);
+            System.arraycopy(tail, i + 1, newTail, i, tailCount - i - 1);
+            return new TaskSnapshot(chunks, chunkStarts, chunkCount, newTail, tailCount - 1);
+        }
+
+        int c = chunkOf(index);
+        Task[] old = chunks[c].tasks();
+        int i = index - chunkStarts[c];
+        Task[] tasks = new Task[old.length - 1];
+        System.arraycopy(old, 0, tasks, 0, i);
+        System.arraycopy(old, i + 1, tasks, i, tasks.length - i);
+
+        Chunk[] newChunks = Arrays.copyOf(chunks, chunks.length);
+        int[] newStarts = Arrays.copyOf(chunkStarts, chunkStarts.length);
+        for (int k = c + 1; k < chunkCount; k++) {
+            newStarts[k]--;
+        }
+        newChunks[c] = new Chunk(tasks, chunks[c].search);
+
+        int newCount = chunkCount;
+        if (tasks.length == 0) {
+            newCount = dropChunk(newChunks, newStarts, newCount, c);
+        } else if (tasks.length < MIN_CHUNK_SIZE) {
+            if (c + 1 < newCount && tasks.length + newChunks[c + 1].size <= CHUNK_SIZE) {
+                newCount = mergeChunks(newChunks, newStarts, newCount, c);
+            } else if (c > 0 && tasks.length + newChunks[c - 1].size <= CHUNK_SIZE) {
+                newCount = mergeChunks(newChunks, newStarts, newCount, c - 1);
+            }
+        }
+        return new TaskSnapshot(newChunks, newStarts, newCount, tail, tailCount);
+    }
+
+    /**
+     * Returns a snapshot with a task put back in its place by insertion order
+     * number, such as a deleted task being restored. Only the chunk it goes
+     * into is copied, and split in two if it would grow past
+     * {@value #CHUNK_SIZE}. That chunk gets a new search index, since its
+     * old one does not know the task.
+     *
+     * @param task the task, whose insertion order number no task in this snapshot has
+     * @return the new snapshot
+     */
+    TaskSnapshot insert(Task task) {
+        long order = task.order;
+        if (chunkCount == 0 || order > chunks[chunkCount - 1].lastOrder()) {
+            Task[] merged = insertInto(tail, tailCount, order, task);
+            if (tailCount < CHUNK_SIZE) {
+                Task[] newTail = Arrays.copyOf(merged, CHUNK_SIZE);
+                return new TaskSnapshot(chunks, chunkStarts, chunkCount, newTail, tailCount + 1);
+            }
+
+            // The tail is full: all but its last task become a chunk, as append would do
+            Chunk[] newChunks = Arrays.copyOf(chunks, Math.max(chunks.length, chunkCount * 2));
+            int[] newStarts = Arrays.copyOf(chunkStarts, newChunks.length);
+            newChunks[chunkCount] = new Chunk(Arrays.copyOf(merged, CHUNK_SIZE));
+            newStarts[chunkCount] = chunkedSize;
+            Task[] newTail = new Task[CHUNK_SIZE];
+            newTail[0] = merged[CHUNK_SIZE];
+            return new TaskSnapshot(newChunks, newStarts, chunkCount + 1, newTail, 1);
+        }
+
+        // The first chunk ending after the task holds the tasks either side of it
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (chunks[mid].lastOrder() < order) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int c = low;
+        Task[] merged = insertInto(chunks[c].tasks(), chunks[c].size, order, task);
+
+        Chunk[] newChunks = Arrays.copyOf(chunks, Math.max(chunks.length, chunkCount + 1));
+        int[] newStarts = Arrays.copyOf(chunkStarts, newChunks.length);
+        int newCount = chunkCount;
+        if (merged.length <= CHUNK_SIZE) {
+            newChunks[c] = new Chunk(merged);
+        } else {
+            int half = merged.length / 2;
+            System.arraycopy(newChunks, c + 1, newChunks, c + 2, chunkCount - c - 1);
+            System.arraycopy(newStarts, c + 1, newStarts, c + 2, chunkCount - c - 1);
+            newChunks[c] = new Chunk(Arrays.copyOf(merged, half));
+            newChunks[c + 1] = new Chunk(Arrays.copyOfRange(merged, half, merged.length));
+            newStarts[c + 1] = newStarts[c] + half;
+            newCount++;
+        }
+        for (int k = c + 1 + (newCount - chunkCount); k < newCount; k++) {
+            newStarts[k]++;
+        }
+        return new TaskSnapshot(newChunks, newStarts, newCount, tail, tailCount);
+    }
+
+    /**
+     * Returns a snapshot with the tasks at the given positions replaced, as
+     * by {@link #replace(int, Task)}, copying each chunk they are in once.
+     *
+     * @param indices the zero-based positions, ascending and within bounds
+     * @param replacements the replacement for each position, in the same order
+     * @return the new snapshot
+     */
+    TaskSnapshot replaceAll(int[] indices, Task[] replacements) {
+        Chunk[] newChunks = chunks.clone();
+        Task[] newTail = tail;
+        int i = 0;
+        while (i < indices.length && indices[i] < chunkedSize) {
+            int c = chunkOf(indices[i]);
+            int end = chunkStarts[c] + chunks[c].size;
+            Task[] tasks = chunks[c].tasks().clone();
+            for (; i < indices.length && indices[i] < end; i++) {
+                tasks[indices[i] - chunkStarts[c]] = replacements[i];
+            }
+            newChunks[c] = new Chunk(tasks, chunks[c].search);
+        }
+        if (i < indices.length) {
+            newTail = tail.clone();
+            for (; i < indices.length; i++) {
+                newTail[indices[i] - chunkedSize] = replacements[i];
+            }
+        }
+        return new TaskSnapshot(newChunks, chunkStarts, chunkCount, newTail, tailCount);
+    }
+
+    /**
+     * Returns a snapshot without the tasks at the given positions, in one
+     * pass over the chunks. Chunks that lose no task are shared with this
+     * snapshot as they are, and so stay undecoded if they were; the others
+     * are compacted, and merged with a neighbour as by {@link #remove(int)}
+     * if they shrink too far.
+     *
+     * @param indices the zero-based positions, ascending and within bounds
+     * @return the new snapshot
+     */
+    TaskSnapshot removeAll(int[] indices) {
+        Chunk[] newChunks = new Chunk[chunks.length];
+        int[] newStarts = new int[chunks.length];
+        int newCount = 0;
+        int newSize = 0;
+        int i = 0;
+        for (int c = 0; c < chunkCount; c++) {
+            Chunk chunk = chunks[c];
+            int end = chunkStarts[c] + chunk.size;
+            Chunk kept = chunk;
+            if (i < indices.length && indices[i] < end) {
+                Task[] old = chunk.tasks();
+                Task[] tasks = new Task[old.length];
+                int count = 0;
+                for (int k = 0; k < old.length; k++) {
+                    if (i < indices.length && indices[i] == chunkStarts[c] + k) {
+                        i++;
+                    } else {
+                        tasks[count++] = old[k];
+                    }
+                }
+                if (count == 0) {
+                    continue;
+                }
+                kept = new Chunk(Arrays.copyOf(tasks, count), chunk.search);
+            }
+
+            // Merge with the chunk before if either is too small and both fit in one
+            if (newCount > 0 && (kept.size < MIN_CHUNK_SIZE || newChunks[newCount - 1].size < MIN_CHUNK_SIZE)
+                    && newChunks[newCount - 1].size + kept.size <= CHUNK_SIZE) {
+                Task[] first = newChunks[newCount - 1].tasks();
+                Task[] second = kept.tasks();
+                Task[] merged = Arrays.copyOf(first, first.length + second.length);
+                System.arraycopy(second, 0, merged, first.length, second.length);
+                newChunks[newCount - 1] = new Chunk(merged);
+            } else {
+                newChunks[newCount] = kept;
+                newStarts[newCount++] = newSize;
+            }
+            newSize += kept.size;
+        }
+
+        Task[] newTail = new Task[CHUNK_SIZE];
+        int newTailCount = 0;
+        for (int k = 0; k < tailCount; k++) {
+            if (i < indices.length && indices[i] == chunkedSize + k) {
+                i++;
+            } else {
+                newTail[newTailCount++] = tail[k];
+            }
+        }
+        return new TaskSnapshot(newChunks, newStarts, newCount, newTail, newTailCount);
+    }
+
+    // --- Helpers ---
+
+    // Returns the chunk holding the given position, which must be before the tail
+    private int chunkOf(int index) {
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (chunkStarts[mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    // Removes chunk c from the (already copied) arrays, returning the new chunk count
+    private static int dropChunk(Chunk[] chunks, int[] starts, int count, int c) {
+        System.arraycopy(chunks, c + 1, chunks, c, count - c - 1);
+        System.arraycopy(starts, c + 1, starts, c, count - c - 1);
+        chunks[count - 1] = null;
+        return count - 1;
+    }
+
+    // Replaces chunks c and c + 1 of the (already copied) arrays by one chunk holding both, returning the new count
+    private static int mergeChunks(Chunk[] chunks, int[] starts, int count, int c) {
+        Task[] first = chunks[c].tasks();
+        Task[] second = chunks[c + 1].tasks();
+        Task[] merged = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, merged, first.length, second.length);
+        chunks[c] = new Chunk(merged);
+        return dropChunk(chunks, starts, count, c + 1);
+    }
+
+    // Returns a new array of the first count tasks with the task inserted in insertion order
+    private static Task[] insertInto(Task[] tasks, int count, long order, Task task) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tasks[mid].order < order) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        Task[] merged = new Task[count + 1];
+        System.arraycopy(tasks, 0, merged, 0, low);
+        merged[low] = task;
+        System.arraycopy(tasks, low, merged, low + 1, count - low);
+        return merged;
+    }
+
+    // Binary searches tasks sorted by insertion order number, returning the index or -1
+    private static int searchOrder(Task[] tasks, int from, int to, long order) {
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midOrder = tasks[mid].order;
+            if (midOrder < order) {
+                low = mid + 1;
+            } else if (midOrder > order) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Decodes tasks from the given position, giving them their IDs and insertion order numbers
+    private static Task[] decode(EncodedTasks encoded, long[] ids, int start, int count) throws FinchException {
+        Task[] tasks = encoded.decode(start, start + count);
+        for (int i = 0; i < count; i++) {
+            tasks[i].id = ids[start + i];
+            tasks[i].order = start + i;
+        }
+        return tasks;
+    }
+
+    private void validateIndex(int index) throws FinchException {
+        if (index < 0 || index >= size()) {
+            throw new FinchException("Task number " + (index + 1) + " does not exist!");
+        }
+    }
+
+    /**
+     * A full chunk of tasks, sorted by insertion order number. The chunks of
+     * a lazily loaded list decode their tasks on first use.
+     */
+    private static final class Chunk {
+        private final int size;
+
+        // Position and insertion order number of the first task, for a lazily loaded chunk
+        private final int start;
+
+        // The tasks, or null until a lazily loaded chunk is first read
+        private volatile Task[] tasks;
+
+        // What a lazily loaded chunk decodes its tasks from; cleared, under this chunk's lock, once decoded
+        private EncodedTasks encoded;
+        private long[] ids;
+
+        // Search index shared by every version of this chunk since it was filled
+        private final LazyIndex search;
+
+        Chunk(Task[] tasks) {
+            this.size = tasks.length;
+            this.start = 0;
+            this.tasks = tasks;
+            this.search = new LazyIndex(this);
+        }
+
+        Chunk(Task[] tasks, LazyIndex search) {
+            this.size = tasks.length;
+            this.start = 0;
+            this.tasks = tasks;
+            this.search = search;
+        }
+
+        Chunk(EncodedTasks encoded, long[] ids, int start, int size) {
+            this.size = size;
+            this.start = start;
+            this.encoded = encoded;
+            this.ids = ids;
+            this.search = new LazyIndex(this);
+        }
+
+        // Returns the tasks, decoding them first if this chunk has not been read yet
+        Task[] tasks() {
+            Task[] decoded = tasks;
+            return decoded != null ? decoded : decode();
+        }
+
+        // Decodes the tasks once; readers racing here wait for the first, so all of them see the same tasks
+        private synchronized Task[] decode() {
+            if (tasks == null) {
+                try {
+                    tasks = TaskSnapshot.decode(encoded, ids, start, size);
+                } catch (FinchException e) {
+                    throw new UncheckedFinchException(e);
+                }
+                encoded = null;
+                ids = null;
+            }
+            return tasks;
+        }
+
+        // Insertion order numbers of a chunk not decoded yet run without gaps from its start
+        long firstOrder() {
+            Task[] decoded = tasks;
+            return decoded == null ? start : decoded[0].order;
+        }
+
+        long lastOrder() {
+            Task[] decoded = tasks;
+            return decoded == null ? start + size - 1 : decoded[size - 1].order;
+        }
+
+        // Returns the index of the task with the given insertion order number, or -1
+        int indexOfOrder(long order) {
+            Task[] decoded = tasks;
+            return decoded == null ? (int) (order - start) : searchOrder(decoded, 0, size, order);
+        }
+
+        // Adds the tasks of this chunk that contain the needle to results, in list order
+        void find(String needle, long[] grams, List<Task> results) {
+            Task[] tasks = tasks();
+            if (grams.length == 0) {
+                for (Task task : tasks) {
+                    if (task.lowerDescription().contains(needle)) {
+                        results.add(task);
+                    }
+                }
+                return;
+            }
+
+            // The index may list tasks deleted since it was built; those are simply not found here
+            TrigramIndex index = search.get();
+            int gram = index.rarest(grams);
+            if (gram < 0) {
+                return;
+            }
+            int from = 0;
+            for (int p = index.postingsStart(gram); p < index.postingsEnd(gram); p++) {
+                int i = searchOrder(tasks, from, tasks.length, index.order(p));
+                if (i >= 0) {
+                    from = i + 1;
+                    if (tasks[i].lowerDescription().contains(needle)) {
+                        results.add(tasks[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A chunk's search index, built from the chunk as it was when it filled up
+     * and only once some search needs it. Building is idempotent, so two
+     * readers racing to build it do no harm.
+     */
+    private static final class LazyIndex {
+        private volatile Chunk source;
+        private volatile TrigramIndex index;
+
+        LazyIndex(Chunk source) {
+            this.source = source;
+        }
+
+        TrigramIndex get() {
+            TrigramIndex built = index;
+            if (built != null) {
+                return built;
+            }
+            Chunk chunk = source;
+            if (chunk == null) {
+                return index; // another reader has just built it
+            }
+            built = TrigramIndex.build(chunk.tasks());
+            index = built;
+            source = null; // later versions of the chunk no longer need to keep its deleted tasks alive
+            return built;
+        }
+    }
+
+    /**
+     * Iterates over the chunks and then the tail, from a given starting point.
+     */
+    private final class TaskIterator implements Iterator<Task> {
+        private int chunk;
+        private int offset;
+
+        TaskIterator(int chunk, int offset) {
+            this.chunk = chunk;
+            this.offset = offset;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return chunk < chunkCount || offset < tailCount;
+        }
+
+        @Override
+        public Task next() {
+            if (chunk < chunkCount) {
+                Task[] tasks = chunks[chunk].tasks();
+                Task task = tasks[offset++];
+                if (offset == tasks.length) {
+                    chunk++;
+                    offset = 0;
+                }
+                return task;
+            }
+            if (offset >= tailCount) {
+                throw new NoSuchElementException();
+            }
+            return tail[offset++];
+        }
+    }
+}
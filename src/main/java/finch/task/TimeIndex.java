@@ -0,0 +1,247 @@
+package finch.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Time-ordered index over deadlines and events, used to answer date range queries.
+ * <p>
+ * Deadlines are kept in a sorted map keyed by due date-time. Events are kept in
+ * an interval tree: a treap ordered by start date-time, where every node also
+ * records the latest end date-time in its subtree so that whole subtrees which
+ * end before the queried range can be skipped. Both answer a range query in
+ * O(log n + k) time for k results, and are updated as tasks are added and deleted.
+ * <p>
+ * Ties between tasks at the same date-time are broken by the tasks' insertion
+ * order, so results come out in list order within the same minute.
+ */
+class TimeIndex {
+
+    // Deadlines keyed by (due date-time, insertion order)
+    private final TreeMap<TimeKey, Deadline> deadlines = new TreeMap<>();
+
+    // Root of the event interval tree
+    private EventNode events;
+
+    /**
+     * Indexes a task; tasks without a date are ignored.
+     *
+     * @param task the task that was added to the list
+     */
+    void add(Task task) {
+        if (task instanceof Deadline) {
+            Deadline deadline = (Deadline) task;
+            deadlines.put(new TimeKey(deadline.getBy(), task.order), deadline);
+        } else if (task instanceof Event) {
+            events = insert(events, new EventNode((Event) task));
+        }
+    }
+
+    /**
+     * Removes a deleted task from the index.
+     *
+     * @param task the task that was deleted from the list
+     */
+    void remove(Task task) {
+        if (task instanceof Deadline) {
+            deadlines.remove(new TimeKey(((Deadline) task).getBy(), task.order));
+        } else if (task instanceof Event) {
+            events = delete(events, ((Event) task).getFrom(), task.order);
+        }
+    }
+
+    /**
+     * Returns the deadlines due at or before the given date-time, earliest first.
+     *
+     * @param end the latest due date-time to include
+     * @return the matching deadlines
+     */
+    List<Task> findDueBy(LocalDateTime end) {
+        return new ArrayList<>(deadlines.headMap(new TimeKey(end, Long.MAX_VALUE), true).values());
+    }
+
+    /**
+     * Returns the deadlines due within the range and the events overlapping it,
+     * ordered by due or start date-time.
+     *
+     * @param start the start of the range, inclusive
+     * @param end the end of the range, inclusive
+     * @return the matching deadlines and events
+     */
+    List<Task> findBetween(LocalDateTime start, LocalDateTime end) {
+        List<Deadline> due = new ArrayList<>(deadlines.subMap(
+                new TimeKey(start, Long.MIN_VALUE), true, new TimeKey(end, Long.MAX_VALUE), true).values());
+        List<Event> overlapping = new ArrayList<>();
+        collectOverlapping(events, start, end, overlapping);
+
+        // Merge the two lists, which are each already sorted by date-time
+        List<Task> results = new ArrayList<>(due.size() + overlapping.size());
+        int d = 0;
+        int e = 0;
+        while (d < due.size() || e < overlapping.size()) {
+            boolean takeDeadline = e == overlapping.size()
+                    || (d < due.size() && compare(due.get(d).getBy(), due.get(d).order,
+                            overlapping.get(e).getFrom(), overlapping.get(e).order) <= 0);
+            results.add(takeDeadline ? due.get(d++) : overlapping.get(e++));
+        }
+        return results;
+    }
+
+    // --- Interval tree ---
+
+    // Adds the events in the subtree that overlap [start, end] to the results, in start order
+    private static void collectOverlapping(EventNode node, LocalDateTime start, LocalDateTime end,
+            List<Event> results) {
+        if (node == null || node.maxTo.isBefore(start)) {
+            return; // every event in this subtree ends before the range
+        }
+        collectOverlapping(node.left, start, end, results);
+        if (node.from.isAfter(end)) {
+            return; // this event and everything to its right start after the range
+        }
+        if (!node.event.getTo().isBefore(start)) {
+            results.add(node.event);
+        }
+        collectOverlapping(node.right, start, end, results);
+    }
+
+    // Inserts a node into the treap rooted at root, returning the new root
+    private static EventNode insert(EventNode root, EventNode node) {
+        if (root == null) {
+            return node;
+        }
+        if (compare(node.from, node.order, root.from, root.order) < 0) {
+            root.left = insert(root.left, node);
+            if (root.left.priority > root.priority) {
+                root = rotateRight(root);
+            }
+        } else {
+            root.right = insert(root.right, node);
+            if (root.right.priority > root.priority) {
+                root = rotateLeft(root);
+            }
+        }
+        root.update();
+        return root;
+    }
+
+    // Deletes the node with the given key from the treap rooted at root, returning the new root
+    private static EventNode delete(EventNode root, LocalDateTime from, long order) {
+        if (root == null) {
+            return null;
+        }
+        int cmp = compare(from, order, root.from, root.order);
+        if (cmp < 0) {
+            root.left = delete(root.left, from, order);
+        } else if (cmp > 0) {
+            root.right = delete(root.right, from, order);
+        } else {
+            root = merge(root.left, root.right);
+        }
+        if (root != null) {
+            root.update();
+        }
+        return root;
+    }
+
+    // Joins two treaps where every key in left is smaller than every key in right
+    private static EventNode merge(EventNode left, EventNode right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static EventNode rotateRight(EventNode node) {
+        EventNode pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        return pivot;
+    }
+
+    private static EventNode rotateLeft(EventNode node) {
+        EventNode pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        return pivot;
+    }
+
+    // Orders by date-time, then by insertion order
+    private static int compare(LocalDateTime time1, long order1, LocalDateTime time2, long order2) {
+        int cmp = time1.compareTo(time2);
+        return cmp != 0 ? cmp : Long.compare(order1, order2);
+    }
+
+    /**
+     * Key of a deadline in the sorted map.
+     */
+    private static class TimeKey implements Comparable<TimeKey> {
+        private final LocalDateTime time;
+        private final long order;
+
+        TimeKey(LocalDateTime time, long order) {
+            this.time = time;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(TimeKey other) {
+            return compare(time, order, other.time, other.order);
+        }
+    }
+
+    /**
+     * Node of the event interval tree.
+     */
+    private static class EventNode {
+        private final Event event;
+        private final LocalDateTime from;
+        private final long order;
+        private final long priority;
+
+        // Latest end date-time of any event in this subtree
+        private LocalDateTime maxTo;
+        private EventNode left;
+        private EventNode right;
+
+        EventNode(Event event) {
+            this.event = event;
+            this.from = event.getFrom();
+            this.order = event.order;
+            this.priority = mix(event.order);
+            this.maxTo = event.getTo();
+        }
+
+        // Recomputes maxTo from this node's event and its children
+        void update() {
+            maxTo = event.getTo();
+            if (left != null && left.maxTo.isAfter(maxTo)) {
+                maxTo = left.maxTo;
+            }
+            if (right != null && right.maxTo.isAfter(maxTo)) {
+                maxTo = right.maxTo;
+            }
+        }
+
+        // Scrambles the insertion order into a well-spread heap priority (SplitMix64 finalizer)
+        private static long mix(long x) {
+            x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+            x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+            return x ^ (x >>> 31);
+        }
+    }
+}
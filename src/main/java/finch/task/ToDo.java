@@ -14,8 +14,8 @@ public class ToDo extends Task {
 
     // Returns a string representation of the Todo task for display
     @Override
-    public String toString() {
-        return "  [T]" + super.toString();
+    protected String formatDisplay() {
+        return "  [T]" + super.formatDisplay();
     }
 
     // Returns a string representation of the Todo task for saving to file
@@ -0,0 +1,167 @@
+package finch.task;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Immutable trigram index over the descriptions of a fixed set of tasks,
+ * used by {@link TaskSnapshot} to answer keyword searches one chunk at a time.
+ * <p>
+ * Every three-character sequence of a task's lower-cased description maps to
+ * the sorted insertion order numbers of the tasks containing it. A search
+ * only verifies the tasks listed under the rarest of the keyword's
+ * trigrams, instead of every task. The index is stored in three flat arrays:
+ * the sorted trigram keys, where each key's postings start, and the postings.
+ */
+final class TrigramIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private static final long[] NO_KEYS = {};
+
+    // Distinct trigram keys, sorted
+    private final long[] grams;
+
+    // Postings of grams[i] are orders[starts[i]] up to orders[starts[i + 1]]
+    private final int[] starts;
+
+    // Insertion order numbers, ascending within each trigram
+    private final long[] orders;
+
+    private TrigramIndex(long[] grams, int[] starts, long[] orders) {
+        this.grams = grams;
+        this.starts = starts;
+        this.orders = orders;
+    }
+
+    /**
+     * Indexes the descriptions of the given tasks.
+     *
+     * @param tasks the tasks to index, sorted by insertion order number
+     * @return the index
+     */
+    static TrigramIndex build(Task[] tasks) {
+        // First pass: count the tasks under each trigram, counting repeats within a description once
+        HashMap<Long, Posting> postings = new HashMap<>();
+        for (Task task : tasks) {
+            String lower = task.lowerDescription();
+            for (int i = 0; i + GRAM_LENGTH <= lower.length(); i++) {
+                Posting posting = postings.computeIfAbsent(gramKey(lower, i), k -> new Posting());
+                if (posting.lastOrder != task.order) {
+                    posting.lastOrder = task.order;
+                    posting.count++;
+                }
+            }
+        }
+
+        long[] grams = new long[postings.size()];
+        int g = 0;
+        for (Long gram : postings.keySet()) {
+            grams[g++] = gram;
+        }
+        Arrays.sort(grams);
+        int[] starts = new int[grams.length + 1];
+        for (int i = 0; i < grams.length; i++) {
+            Posting posting = postings.get(grams[i]);
+            posting.next = starts[i];
+            posting.lastOrder = -1;
+            starts[i + 1] = starts[i] + posting.count;
+        }
+
+        // Second pass: fill in the postings, which come out ascending since the tasks are
+        long[] orders = new long[starts[grams.length]];
+        for (Task task : tasks) {
+            String lower = task.lowerDescription();
+            for (int i = 0; i + GRAM_LENGTH <= lower.length(); i++) {
+                Posting posting = postings.get(gramKey(lower, i));
+                if (posting.lastOrder != task.order) {
+                    posting.lastOrder = task.order;
+                    orders[posting.next++] = task.order;
+                }
+            }
+        }
+        return new TrigramIndex(grams, starts, orders);
+    }
+
+    /**
+     * Returns the distinct trigram keys of a lower-cased keyword.
+     *
+     * @param needle the lower-cased keyword
+     * @return its trigram keys, or an empty array if it is shorter than a trigram
+     */
+    static long[] gramsOf(String needle) {
+        if (needle.length() < GRAM_LENGTH) {
+            return NO_KEYS;
+        }
+        long[] keys = new long[needle.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = gramKey(needle, i);
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the rarest of the given trigrams. Its postings are the only
+     * tasks that can contain all of them.
+     * <p>
+     * The trigram that decided the answer, either a missing one or the
+     * rarest, is moved to the front of {@code keys}. Chunks of the same list
+     * tend to agree on it, so searching the next chunk usually looks it up
+     * first and can stop there if it is missing.
+     *
+     * @param keys the keyword's trigram keys, which may be reordered; must not be empty
+     * @return the position of the rarest trigram, or -1 if any trigram is missing
+     */
+    int rarest(long[] keys) {
+        int best = -1;
+        int bestKey = 0;
+        for (int k = 0; k < keys.length; k++) {
+            int i = Arrays.binarySearch(grams, keys[k]);
+            if (i < 0) {
+                moveToFront(keys, k);
+                return -1;
+            }
+            if (best < 0 || starts[i + 1] - starts[i] < starts[best + 1] - starts[best]) {
+                best = i;
+                bestKey = k;
+            }
+        }
+        moveToFront(keys, bestKey);
+        return best;
+    }
+
+    // Returns where the postings of the trigram at the given position start
+    int postingsStart(int gram) {
+        return starts[gram];
+    }
+
+    // Returns where the postings of the trigram at the given position end
+    int postingsEnd(int gram) {
+        return starts[gram + 1];
+    }
+
+    // Returns the insertion order number at the given posting
+    long order(int posting) {
+        return orders[posting];
+    }
+
+    private static void moveToFront(long[] keys, int k) {
+        long key = keys[k];
+        keys[k] = keys[0];
+        keys[0] = key;
+    }
+
+    // Packs three UTF-16 chars into a single key
+    private static long gramKey(String s, int start) {
+        return ((long) s.charAt(start) << 32) | ((long) s.charAt(start + 1) << 16) | s.charAt(start + 2);
+    }
+
+    /**
+     * Build-time state of one trigram's postings.
+     */
+    private static final class Posting {
+        private int count;
+        private int next;
+        private long lastOrder = -1;
+    }
+}
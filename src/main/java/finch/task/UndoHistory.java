@@ -0,0 +1,106 @@
+package finch.task;
+
+import java.util.ArrayDeque;
+
+/**
+ * The changes made to a {@link TaskList} by one session that can be undone,
+ * and the undone changes that can be redone.
+ * <p>
+ * The console and every {@code --serve} client each have a history of their
+ * own, so one client's undo never reverts another's change, and a new change
+ * only forgets the undone changes of the session that made it.
+ * <p>
+ * Commands record each change they make (see {@link Change}). Only the
+ * latest changes are kept, up to the history's depth, so the history takes
+ * memory in proportion to those changes and never to the list. Recording a
+ * new change forgets the changes that were undone before it, as in any
+ * editor. A depth of 0 turns the history off.
+ * <p>
+ * A session runs one command at a time, so its history lists its changes
+ * in the order they were made. All methods are synchronized all the same,
+ * so that a history never needs locking from outside.
+ */
+public class UndoHistory {
+
+    /** Number of changes kept when no other depth is set. */
+    public static final int DEFAULT_DEPTH = 100;
+
+    // Most changes kept on each side
+    private int depth = DEFAULT_DEPTH;
+
+    // Changes that can be undone, latest first
+    private final ArrayDeque<Change> done = new ArrayDeque<>();
+
+    // Changes that were undone and can be redone, latest undone first
+    private final ArrayDeque<Change> undone = new ArrayDeque<>();
+
+    /**
+     * Sets how many changes are kept, forgetting the oldest ones if there are more.
+     *
+     * @param depth the number of changes to keep, or 0 to keep none
+     */
+    public synchronized void setDepth(int depth) {
+        this.depth = depth;
+        trim(done);
+        trim(undone);
+    }
+
+    public synchronized int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Records a change that was just made, forgetting every change that was undone.
+     *
+     * @param change the change
+     */
+    public synchronized void record(Change change) {
+        if (depth == 0) {
+            return;
+        }
+        undone.clear();
+        done.push(change);
+        trim(done);
+    }
+
+    /**
+     * Takes the latest change for undoing. It can then be redone.
+     *
+     * @return the change to undo, or {@code null} if there is none
+     */
+    public synchronized Change undo() {
+        Change change = done.poll();
+        if (change != null) {
+            undone.push(change);
+        }
+        return change;
+    }
+
+    /**
+     * Takes the latest undone change for redoing. It can then be undone again.
+     *
+     * @return the change to redo, or {@code null} if there is none
+     */
+    public synchronized Change redo() {
+        Change change = undone.poll();
+        if (change != null) {
+            done.push(change);
+        }
+        return change;
+    }
+
+    /**
+     * Forgets every change, for when the list no longer matches the history.
+     */
+    public synchronized void clear() {
+        done.clear();
+        undone.clear();
+    }
+
+    // Drops the oldest changes beyond the depth
+    private void trim(ArrayDeque<Change> changes) {
+        while (changes.size() > depth) {
+            changes.removeLast();
+        }
+    }
+}
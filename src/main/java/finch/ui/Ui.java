@@ -1,8 +1,25 @@
 package finch.ui;
 
+import finch.metrics.CommandStats;
+import finch.metrics.LatencyHistogram;
+import finch.metrics.Metrics;
+import finch.metrics.StorageStats;
+import finch.task.FuzzyMatch;
 import finch.task.Task;
 import finch.task.TaskList;
+import finch.task.TaskSnapshot;
 
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -18,6 +35,10 @@ import java.util.Scanner;
  *     <li>Displaying feedback when tasks are added, deleted, marked, or unmarked</li>
  *     <li>Providing a list of all available commands</li>
  * </ul>
+ *
+ * <p>Output is not printed line by line. It is collected in a reusable buffer
+ * and written as UTF-8 to standard output. {@link #flush()}
+ * writes out everything collected so far, and is called once per command.</p>
  */
 public class Ui {
 
@@ -27,25 +48,67 @@ public class Ui {
      */
     public Ui(){
         this.scanner = new Scanner(System.in);
+        this.out = openWriter(new FileOutputStream(FileDescriptor.out));
+    }
+
+    /**
+     * Constructs a {@code Ui} instance that reads commands from a batch script.
+     *
+     * @param in the script to read commands from, decoded as UTF-8
+     */
+    public Ui(InputStream in) {
+        this(in, new FileOutputStream(FileDescriptor.out));
+    }
+
+    /**
+     * Constructs a {@code Ui} instance that reads commands from the given stream
+     * and writes its output to another, such as a file or a benchmark sink.
+     *
+     * @param in the stream to read commands from, decoded as UTF-8
+     * @param output the stream to write output to, encoded as UTF-8
+     */
+    public Ui(InputStream in, OutputStream output) {
+        this.scanner = new Scanner(in, StandardCharsets.UTF_8);
+        this.out = openWriter(output);
     }
 
     // Scanner object for reading user input from console
     private final Scanner scanner;
 
+    // Once the buffer holds this many chars, it is handed on to the writer without flushing
+    private static final int BUFFER_LIMIT = 1 << 16;
+
+    // Starting size of the buffers, which grow to fit the longest output seen; small, since a server has one per client
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private static final String NEWLINE = System.lineSeparator();
+
+    // Output collected since the last flush; reused across commands
+    private final StringBuilder buffer = new StringBuilder(INITIAL_CAPACITY);
+
+    // Scratch array the buffer is copied into for writing; grows with the buffer
+    private char[] chars = new char[INITIAL_CAPACITY];
+
+    // UTF-8 writer, by default straight onto standard output to avoid the per-call locking of System.out
+    private final Writer out;
+
     // Divider string for consistent output formatting
     private static final String DIVIDER = "    ____________________________________________________________";
 
     // Prints a divider line for better readability in the console
     public void showLine(){
-        System.out.println(DIVIDER);
+        println(DIVIDER);
     }
 
+    // Most tasks listed after a command that changed several at once
+    private static final int PREVIEW_LIMIT = 10;
+
     // Constant for the bot's name
     private static final String NAME = "Finch";
 
     // Displays the welcome message when the application starts
     public void showWelcomeMessage(){
-        System.out.println("""
+        println("""
                         ███████╗██╗███╗   ██╗ ██████╗██╗  ██╗
                         ██╔════╝██║████╗  ██║██╔════╝██║  ██║
                         █████╗  ██║██╔██╗ ██║██║     ███████║
@@ -54,23 +117,35 @@ public class Ui {
                         ╚═╝     ╚═╝╚═╝  ╚═══╝ ╚═════╝╚═╝  ╚═╝
                 """.stripTrailing());
         showLine();
-        System.out.println("    Hello! I'm " + NAME);
-        System.out.println("    What can I do for you?");
+        println("    Hello! I'm " + NAME);
+        println("    What can I do for you?");
         showLine();
     }
 
     /**
-     * Reads a full line of input entered by the user.
+     * Reads a full line of input entered by the user, after writing out any pending output.
      *
      * @return the raw input command string
      */
     public String readCommand() {
+        flush();
         return scanner.nextLine();
     }
 
+    /**
+     * Checks whether there is another line of input to read, waiting for one if necessary.
+     * Any pending output is written out first.
+     *
+     * @return {@code false} once the input has ended
+     */
+    public boolean hasNextCommand() {
+        flush();
+        return scanner.hasNextLine();
+    }
+
     // Show goodbye message when the application exits
     public void showGoodbye(){
-        System.out.println("    Bye! Hope to see you again soon!");
+        println("    Bye! Hope to see you again soon!");
     }
 
     /**
@@ -79,28 +154,75 @@ public class Ui {
      * @param message the error message to display
      */
     public void showError(String message){
-        System.out.println("    OOPS!!! " + message);
+        println("    OOPS!!! " + message);
     }
 
     /**
-     * Displays all tasks in the given {@link TaskList}.
+     * Displays all tasks in the given snapshot of the {@link TaskList}.
      * If the list is empty, notifies the user that no tasks exist.
      *
-     * @param tasks the {@code TaskList} containing all tasks
+     * @param tasks the {@code TaskSnapshot} containing all tasks
+     * @param isShowingIds whether each task is followed by its ID
      */
-    public void showTasks(TaskList tasks) {
+    public void showTasks(TaskSnapshot tasks, boolean isShowingIds) {
         if (tasks.size() == 0) {
-            System.out.println("    There are no tasks in your list yet!");
+            println("    There are no tasks in your list yet!");
             return;
         }
 
-        System.out.println("    Here are your tasks:");
+        println("    Here are your tasks:");
+        int number = 1;
+        for (Task task : tasks) {
+            appendTask(number++, task, isShowingIds);
+        }
+    }
+
+    /**
+     * Displays a window of the task list.
+     * Tasks keep the numbers they have in the whole list, and only the tasks
+     * in the window are formatted.
+     *
+     * @param tasks an iterator positioned at the first task of the window
+     * @param from the zero-based index of the first task shown
+     * @param to the zero-based index just past the last task shown
+     * @param total the number of tasks in the whole list
+     * @param isShowingIds whether each task is followed by its ID
+     */
+    public void showTaskWindow(Iterator<Task> tasks, int from, int to, int total, boolean isShowingIds) {
+        println("    Here are tasks " + (from + 1) + "-" + to + " of " + total + ":");
+        for (int number = from + 1; number <= to && tasks.hasNext(); number++) {
+            appendTask(number, tasks.next(), isShowingIds);
+        }
+    }
+
+    // Appends one numbered line of a list, with the task's ID if asked for
+    private void appendTask(int number, Task task, boolean isShowingIds) {
+        buffer.append("    ").append(number).append(". ").append(task);
+        if (isShowingIds) {
+            buffer.append(" (#").append(task.getId()).append(')');
+        }
+        buffer.append(NEWLINE);
+        spillIfFull();
+    }
+
+    /**
+     * Displays the tasks matching a query, numbered from 1.
+     * If there are no matches, shows the given message instead.
+     *
+     * @param tasks the matching tasks, in the order they should be shown
+     * @param header the line to show above the matching tasks
+     * @param emptyMessage the message to show when nothing matches
+     */
+    public void showMatchingTasks(List<Task> tasks, String header, String emptyMessage) {
+        if (tasks.isEmpty()) {
+            println("    " + emptyMessage);
+            return;
+        }
+
+        println("    " + header);
         for (int i = 0; i < tasks.size(); i++) {
-            try {
-                System.out.printf("    %d. %s%n", i + 1, tasks.getTask(i));
-            } catch (Exception e) {
-                System.out.println("    Error retrieving task: " + e.getMessage());
-            }
+            buffer.append("    ").append(i + 1).append(". ").append(tasks.get(i)).append(NEWLINE);
+            spillIfFull();
         }
     }
 
@@ -111,9 +233,9 @@ public class Ui {
      * @param totalTasks the total number of tasks after the addition
      */
     public void showAdded(Task task, int totalTasks) {
-        System.out.println("    Got it. I've added this task:");
-        System.out.println("    " + task);
-        System.out.println("    Now you have " + totalTasks + " tasks in your list.");
+        println("    Got it. I've added this task:");
+        println("    " + task);
+        println("    Now you have " + totalTasks + " tasks in your list.");
     }
 
     /**
@@ -123,9 +245,9 @@ public class Ui {
      * @param totalTasks the total number of tasks remaining
      */
     public void showDeleted(Task task,  int totalTasks) {
-        System.out.println("    Noted. I've removed this task:");
-        System.out.println("    " + task);
-        System.out.println("    Now you have " + totalTasks + " tasks in your list.");
+        println("    Noted. I've removed this task:");
+        println("    " + task);
+        println("    Now you have " + totalTasks + " tasks in your list.");
     }
 
     /**
@@ -134,8 +256,8 @@ public class Ui {
      * @param task the task that was marked as done
      */
     public void showMarked(Task task) {
-        System.out.println("    Nice! I've marked this task as done:");
-        System.out.println("    " + task);
+        println("    Nice! I've marked this task as done:");
+        println("    " + task);
     }
 
     /**
@@ -144,8 +266,99 @@ public class Ui {
      * @param task the task that was unmarked
      */
     public void showUnmarked(Task task) {
-        System.out.println("    OK, I've marked this task as not done yet:");
-        System.out.println("    " + task);
+        println("    OK, I've marked this task as not done yet:");
+        println("    " + task);
+    }
+
+    /**
+     * Displays a confirmation message after several tasks are deleted at once.
+     * Only the first few are listed.
+     *
+     * @param tasks the tasks that were deleted, in list order
+     * @param totalTasks the total number of tasks remaining
+     */
+    public void showDeleted(List<Task> tasks, int totalTasks) {
+        println("    Noted. I've removed " + plural(tasks.size(), "task") + ":");
+        showPreview(tasks);
+        println("    Now you have " + totalTasks + " tasks in your list.");
+    }
+
+    /**
+     * Displays a message after marking several tasks as done at once.
+     * Only the first few are listed.
+     *
+     * @param tasks the tasks that were marked as done, in list order
+     */
+    public void showMarked(List<Task> tasks) {
+        println("    Nice! I've marked " + plural(tasks.size(), "task") + " as done:");
+        showPreview(tasks);
+    }
+
+    /**
+     * Displays a message after marking several tasks as not done at once.
+     * Only the first few are listed.
+     *
+     * @param tasks the tasks that were unmarked, in list order
+     */
+    public void showUnmarked(List<Task> tasks) {
+        println("    OK, I've marked " + plural(tasks.size(), "task") + " as not done yet:");
+        showPreview(tasks);
+    }
+
+    /**
+     * Displays a message after the latest change was undone.
+     * Only the first few tasks it touched are listed.
+     *
+     * @param action what the change did, e.g. "deleting"
+     * @param tasks the tasks the change touched, as they are now
+     * @param totalTasks the total number of tasks in the list
+     */
+    public void showUndone(String action, List<Task> tasks, int totalTasks) {
+        println("    OK, I've undone " + action + " " + plural(tasks.size(), "task") + ":");
+        showPreview(tasks);
+        println("    Now you have " + totalTasks + " tasks in your list.");
+    }
+
+    /**
+     * Displays a message after an undone change was redone.
+     * Only the first few tasks it touched are listed.
+     *
+     * @param action what the change did, e.g. "deleting"
+     * @param tasks the tasks the change touched, as they are now
+     * @param totalTasks the total number of tasks in the list
+     */
+    public void showRedone(String action, List<Task> tasks, int totalTasks) {
+        println("    OK, I've redone " + action + " " + plural(tasks.size(), "task") + ":");
+        showPreview(tasks);
+        println("    Now you have " + totalTasks + " tasks in your list.");
+    }
+
+    /**
+     * Displays a message after tasks were imported from a file.
+     * Only the first few of them are listed.
+     *
+     * @param tasks the tasks that were imported
+     * @param path the file they were imported from
+     * @param totalTasks the total number of tasks in the list
+     */
+    public void showImported(List<Task> tasks, String path, int totalTasks) {
+        if (tasks.isEmpty()) {
+            println("    There are no tasks in " + path + ".");
+            return;
+        }
+        println("    Got it. I've imported " + plural(tasks.size(), "task") + " from " + path + ":");
+        showPreview(tasks);
+        println("    Now you have " + totalTasks + " tasks in your list.");
+    }
+
+    /**
+     * Displays a message after the tasks were exported to a file.
+     *
+     * @param count the number of tasks exported
+     * @param path the file they were exported to
+     */
+    public void showExported(int count, String path) {
+        println("    OK, I've exported " + plural(count, "task") + " to " + path + ".");
     }
 
     /**
@@ -154,20 +367,263 @@ public class Ui {
      * @param message the error message from storage
      */
     public void showLoadingError(String message){
-        System.out.println("    OOPS! Could not load tasks: " + message);
+        println("    OOPS! Could not load tasks: " + message);
+    }
+
+    /**
+     * Tells the user that a command is waiting for the tasks to finish loading.
+     *
+     * @param percent how much of the data file has been loaded, from 0 to 100
+     */
+    public void showLoadingProgress(int percent) {
+        println("    Still loading your tasks... " + percent + "%");
+    }
+
+    /**
+     * Tells the user that Finch is serving clients instead of reading commands.
+     *
+     * @param totalTasks the number of tasks being served
+     * @param port the port clients connect to on localhost
+     */
+    public void showServing(int totalTasks, int port) {
+        showLine();
+        println("    Serving " + totalTasks + " tasks on localhost:" + port);
+        println("    Connect with any line-based client, e.g. nc localhost " + port);
+        showLine();
     }
 
     // Displays a list of all available commands to the user
     public void showCommands() {
-        System.out.println("    Available commands:");
-        System.out.println("      list                - Show all tasks");
-        System.out.println("      todo <desc>         - Add a ToDo");
-        System.out.println("      deadline <desc> /by <date> - Add a Deadline");
-        System.out.println("      event <desc> /from <start> /to <end> - Add an Event");
-        System.out.println("      mark <number>       - Mark a task as done");
-        System.out.println("      unmark <number>     - Mark a task as not done");
-        System.out.println("      delete <number>     - Delete a task");
-        System.out.println("      find <keyword>      - Find tasks containing a keyword");
-        System.out.println("      bye                 - Exit Finch");
+        println("    Available commands:");
+        println("      list                - Show all tasks");
+        println("      list <from>-<to>    - Show tasks by number range");
+        println("      list --page <n> [--size <m>] - Show one page of tasks");
+        println("      list --tail <n>     - Show the last n tasks");
+        println("      list ... --ids      - Also show each task's ID, for use as #<id>");
+        println("      todo <desc>         - Add a ToDo");
+        println("      deadline <desc> /by <date> - Add a Deadline");
+        println("      event <desc> /from <start> /to <end> - Add an Event");
+        println("      mark <numbers>      - Mark tasks as done, e.g. mark 2 or mark 1-5,#12");
+        println("      unmark <numbers>    - Mark tasks as not done");
+        println("      delete <numbers>    - Delete tasks, e.g. delete 3,7,10-400");
+        println("      find <keyword>      - Find tasks containing a keyword");
+        println("      find --fuzzy <query> [--top K] - Find the K tasks closest to a query, allowing typos");
+        println("      due <date>          - Show deadlines due by a date");
+        println("      on <date>           - Show deadlines and events on a date");
+        println("      between <start> <end> - Show deadlines and events between two dates");
+        println("      next                - Show the deadline or event coming up next");
+        println("      undo                - Undo your latest change");
+        println("      redo                - Redo the change you last undid");
+        println("      import <file>       - Add the tasks in a .csv, .jsonl or .ics file");
+        println("      export <file>       - Write all tasks to a .csv, .jsonl or .ics file");
+        println("      stats               - Show command and storage timings");
+        println("      bye                 - Exit Finch");
+    }
+
+    /**
+     * Displays the deadline or event that comes due soonest.
+     *
+     * @param task the task coming up next, or {@code null} if there is none
+     * @param timeLeft how long until the task comes due
+     */
+    public void showNextReminder(Task task, Duration timeLeft) {
+        if (task == null) {
+            println("    No upcoming deadlines or events.");
+            return;
+        }
+        println("    Coming up next, in " + formatTimeLeft(timeLeft) + ":");
+        println("    " + task);
+    }
+
+    /**
+     * Displays deadlines and events that have come due since the last command.
+     *
+     * @param tasks the tasks that came due, in the order they did
+     */
+    public void showReminders(List<Task> tasks) {
+        println("    Reminder! " + (tasks.size() == 1 ? "This is" : "These are") + " due now:");
+        for (Task task : tasks) {
+            println("    " + task);
+        }
+    }
+
+    // Formats a wait in its largest whole unit, e.g. "3 days" or "less than a minute"
+    private static String formatTimeLeft(Duration timeLeft) {
+        if (timeLeft.toDays() > 0) {
+            return plural(timeLeft.toDays(), "day");
+        } else if (timeLeft.toHours() > 0) {
+            return plural(timeLeft.toHours(), "hour");
+        } else if (timeLeft.toMinutes() > 0) {
+            return plural(timeLeft.toMinutes(), "minute");
+        }
+        return "less than a minute";
+    }
+
+    private static String plural(long count, String unit) {
+        return count + " " + unit + (count == 1 ? "" : "s");
+    }
+
+    // Lists the first PREVIEW_LIMIT tasks, then how many more there are
+    private void showPreview(List<Task> tasks) {
+        int shown = Math.min(tasks.size(), PREVIEW_LIMIT);
+        for (int i = 0; i < shown; i++) {
+            println("    " + tasks.get(i));
+        }
+        if (tasks.size() > shown) {
+            println("    ...and " + (tasks.size() - shown) + " more.");
+        }
+    }
+
+    /**
+     * Displays the tasks found by a keyword search, numbered from 1.
+     *
+     * @param tasks the matching tasks, in list order
+     * @param keyword the keyword that was searched for
+     */
+    public void showFoundTasks(List<Task> tasks, String keyword) {
+        if (tasks.isEmpty()) {
+            println("    No tasks match your search: " + keyword);
+            return;
+        }
+
+        println("    Here are the matching tasks in your list:");
+        for (int i = 0; i < tasks.size(); i++) {
+            buffer.append("    ").append(i + 1).append('.').append(tasks.get(i)).append(NEWLINE);
+            spillIfFull();
+        }
+    }
+
+    /**
+     * Displays the results of a fuzzy search, best match first, with the
+     * number of typos each match differs from the query by.
+     *
+     * @param matches the matches, in ranked order
+     * @param query the query that was searched for
+     */
+    public void showFuzzyMatches(List<FuzzyMatch> matches, String query) {
+        if (matches.isEmpty()) {
+            println("    No tasks are close to: " + query);
+            return;
+        }
+
+        println("    Here are the closest matches in your list:");
+        for (int i = 0; i < matches.size(); i++) {
+            FuzzyMatch match = matches.get(i);
+            buffer.append("    ").append(i + 1).append('.').append(match.getTask());
+            if (match.getDistance() == 0) {
+                buffer.append(" (exact match)");
+            } else {
+                buffer.append(" (").append(plural(match.getDistance(), "edit")).append(')');
+            }
+            buffer.append(NEWLINE);
+            spillIfFull();
+        }
+    }
+
+    /**
+     * Displays the timings, allocations and bytes moved by every command and
+     * storage operation so far, one line per command class or operation.
+     * Each timing is shown as its median, 99th percentile and maximum.
+     *
+     * @param metrics the metrics to show
+     */
+    public void showStats(Metrics metrics) {
+        List<CommandStats> commands = metrics.getCommands();
+        if (commands.isEmpty()) {
+            println("    No commands have run yet.");
+        } else {
+            println("    Commands since Finch started (p50 / p99 / max):");
+            println(String.format("      %-20s %9s  %-30s  %-30s  %9s",
+                    "command", "count", "parse", "execute", "alloc/cmd"));
+            for (CommandStats stats : commands) {
+                long allocated = stats.getAllocatedBytesPerCommand();
+                println(String.format("      %-20s %,9d  %-30s  %-30s  %9s",
+                        stats.getName(), stats.getExecuteTimes().getCount(), formatTimes(stats.getParseTimes()),
+                        formatTimes(stats.getExecuteTimes()), allocated < 0 ? "-" : formatBytes(allocated)));
+            }
+        }
+
+        println("    Storage (p50 / p99 / max):");
+        println(String.format("      %-20s %9s  %-30s  %9s", "operation", "count", "time", "bytes"));
+        for (StorageStats stats : metrics.getStorage()) {
+            println(String.format("      %-20s %,9d  %-30s  %9s", stats.getName(), stats.getTimes().getCount(),
+                    formatTimes(stats.getTimes()), formatBytes(stats.getBytes())));
+        }
+    }
+
+    // Formats a histogram's median, 99th percentile and maximum
+    private static String formatTimes(LatencyHistogram times) {
+        if (times.getCount() == 0) {
+            return "-";
+        }
+        return formatNanos(times.getPercentile(0.5)) + " / " + formatNanos(times.getPercentile(0.99))
+                + " / " + formatNanos(times.getMax());
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + "ns";
+        } else if (nanos < 1_000_000) {
+            return String.format("%.1fus", nanos / 1e3);
+        } else if (nanos < 1_000_000_000) {
+            return String.format("%.1fms", nanos / 1e6);
+        }
+        return String.format("%.2fs", nanos / 1e9);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + "B";
+        } else if (bytes < 1024 * 1024) {
+            return String.format("%.1fKB", bytes / 1024.0);
+        } else if (bytes < 1024L * 1024 * 1024) {
+            return String.format("%.1fMB", bytes / (1024.0 * 1024));
+        }
+        return String.format("%.2fGB", bytes / (1024.0 * 1024 * 1024));
+    }
+
+    /**
+     * Writes out all output collected since the last flush, and flushes the stream.
+     */
+    public void flush() {
+        try {
+            writeBuffer();
+            out.flush();
+        } catch (IOException e) {
+            // Standard output is gone; there is nowhere left to report this
+        }
+    }
+
+    // Wraps an output stream in the UTF-8 writer that output is written to; the buffer already batches writes
+    private static Writer openWriter(OutputStream output) {
+        return new OutputStreamWriter(output, StandardCharsets.UTF_8);
+    }
+
+    // Adds a line to the output buffer
+    private void println(String line) {
+        buffer.append(line).append(NEWLINE);
+        spillIfFull();
+    }
+
+    // Hands a full buffer on to the writer, so that a long listing does not grow it without bound
+    private void spillIfFull() {
+        if (buffer.length() >= BUFFER_LIMIT) {
+            try {
+                writeBuffer();
+            } catch (IOException e) {
+                // Standard output is gone; there is nowhere left to report this
+            }
+        }
+    }
+
+    // Moves the buffer's contents into the writer without flushing it, and empties the buffer
+    private void writeBuffer() throws IOException {
+        int length = buffer.length();
+        if (length > chars.length) {
+            chars = new char[length];
+        }
+        buffer.getChars(0, length, chars, 0);
+        buffer.setLength(0);
+        out.write(chars, 0, length);
     }
 }
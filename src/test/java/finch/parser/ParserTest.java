@@ -0,0 +1,60 @@
+package finch.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import finch.command.UnknownCommand;
+import finch.exception.FinchException;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks that the command words the {@link Tokenizer} matches without
+ * copying are exactly the ones {@link Parser} dispatches on.
+ */
+public class ParserTest {
+
+    // The cases of the switch in Parser.parse
+    private static final List<String> PARSER_WORDS = List.of(
+            "todo", "deadline", "event", "list", "mark", "unmark", "delete", "find", "due", "on",
+            "between", "next", "undo", "redo", "import", "export", "stats", "bye");
+
+    @Test
+    public void everyParserCommandWordIsMatchedWithoutCopying() {
+        for (String word : PARSER_WORDS) {
+            // The literal is interned, so only a word taken from COMMAND_WORDS is the same instance
+            assertSame(word, Tokenizer.ofLine(word.toUpperCase() + " 1").commandWord(), word);
+        }
+    }
+
+    @Test
+    public void everyMatchedCommandWordIsDispatched() {
+        for (String word : Tokenizer.COMMAND_WORDS) {
+            try {
+                assertFalse(Parser.parse(word) instanceof UnknownCommand, word);
+            } catch (FinchException e) {
+                // Recognised, but missing its arguments
+            }
+        }
+        Set<String> matched = new HashSet<>(Arrays.asList(Tokenizer.COMMAND_WORDS));
+        assertEquals(new HashSet<>(PARSER_WORDS), matched);
+        assertEquals(List.of(Tokenizer.COMMAND_WORDS), Parser.commandWords());
+    }
+
+    @Test
+    public void unknownWordsAreLowerCased() {
+        assertEquals("frobnicate", Tokenizer.ofLine("FrobNicate now").commandWord());
+    }
+
+    @Test
+    public void unknownWordsAreCopiedOnce() {
+        Tokenizer tokens = Tokenizer.ofLine("FrobNicate now");
+        assertSame(tokens.commandWord(), tokens.commandWord());
+    }
+}
@@ -0,0 +1,106 @@
+package finch.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import finch.exception.FinchException;
+import finch.task.Deadline;
+import finch.task.Event;
+import finch.task.Task;
+import finch.task.TaskList;
+import finch.task.ToDo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that tasks survive the binary format, and migrating a text data file
+ * to binary and back, exactly, including dates with seconds.
+ */
+public class BinaryTaskFormatTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void tasksRoundTrip() throws IOException, FinchException {
+        List<Task> tasks = randomTasks(new Random(4), 5000);
+        File file = directory.resolve("tasks.bin").toFile();
+        BinaryTaskFormat.write(tasks, tasks.size(), file);
+        assertEquals(encode(tasks), encode(BinaryTaskFormat.read(file, new LoadProgress())));
+    }
+
+    @Test
+    public void textToBinaryToTextIsLossless() throws IOException, FinchException {
+        List<Task> tasks = randomTasks(new Random(5), 2000);
+        Path text = directory.resolve("tasks.txt");
+        Files.write(text, encode(tasks));
+
+        Storage binary = new Storage(text.toString());
+        binary.setBinary(true);
+        binary.load(); // Migrates the file to binary
+        assertEquals(true, BinaryTaskFormat.isBinary(text.toFile()));
+
+        Storage back = new Storage(text.toString());
+        TaskList loaded = back.load();
+        back.save(loaded);
+        assertEquals(encode(tasks), Files.readAllLines(text));
+    }
+
+    @Test
+    public void minuteDatesTakeNoExtraSpace() throws IOException, FinchException {
+        Deadline deadline = new Deadline("submit", LocalDateTime.of(2025, 9, 26, 18, 0));
+        File file = directory.resolve("one.bin").toFile();
+        BinaryTaskFormat.write(List.of(deadline), 1, file);
+        // Header, then type, flags, ID, one date, description length and bytes
+        assertEquals(4 + 2 + 4 + 1 + 1 + 8 + 8 + 4 + 6, file.length());
+    }
+
+    private static List<Task> randomTasks(Random random, int count) throws FinchException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String description = "task " + i;
+            Task task = switch (random.nextInt(3)) {
+            case 0 -> new ToDo(description);
+            case 1 -> new Deadline(description, randomDate(random));
+            default -> {
+                LocalDateTime from = randomDate(random);
+                yield new Event(description, from, from.plusSeconds(random.nextInt(100_000)));
+            }
+            };
+            if (random.nextBoolean()) {
+                task.markAsDone();
+            }
+            task.restoreId(i + 1);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    // Mostly whole minutes, as Finch takes them, but some with seconds or a fraction of one
+    private static LocalDateTime randomDate(Random random) {
+        LocalDateTime date = LocalDateTime.of(1900 + random.nextInt(300), 1 + random.nextInt(12),
+                1 + random.nextInt(28), random.nextInt(24), random.nextInt(60));
+        return switch (random.nextInt(4)) {
+        case 0 -> date.withSecond(random.nextInt(60));
+        case 1 -> date.withSecond(random.nextInt(60)).withNano(random.nextInt(1_000_000_000));
+        default -> date;
+        };
+    }
+
+    private static List<String> encode(List<Task> tasks) {
+        List<String> lines = new ArrayList<>();
+        for (Task task : tasks) {
+            lines.add(task.encode());
+        }
+        return lines;
+    }
+}
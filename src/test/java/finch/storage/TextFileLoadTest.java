@@ -0,0 +1,121 @@
+package finch.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import finch.exception.FinchException;
+import finch.task.Task;
+import finch.task.TaskList;
+import finch.task.ToDo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that a text data file loads line for line, whether it is read whole,
+ * in parallel chunks or lazily, and that the file can be saved over right
+ * after it has been loaded.
+ */
+public class TextFileLoadTest {
+
+    // Enough tasks to take the file past the size that is decoded in parallel chunks
+    private static final int MANY = 60_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void smallFileLoadsInOrder() throws IOException, FinchException {
+        List<String> lines = encodedTasks(50);
+        Path file = write(lines);
+        assertEquals(lines, encode(new TextFileFormat().read(file.toFile(), new LoadProgress())));
+    }
+
+    @Test
+    public void largeFileLoadsInOrderAcrossChunks() throws IOException, FinchException {
+        List<String> lines = encodedTasks(MANY);
+        Path file = write(lines);
+        assertEquals(lines, encode(new TextFileFormat().read(file.toFile(), new LoadProgress())));
+    }
+
+    @Test
+    public void firstBadLineIsReported() throws IOException, FinchException {
+        List<String> lines = encodedTasks(MANY);
+        lines.set(MANY / 2, "#x | " + lines.get(MANY / 2));
+        lines.set(MANY - 1, "#y | " + lines.get(MANY - 1));
+        Path file = write(lines);
+
+        FinchException e = assertThrows(FinchException.class,
+                () -> new TextFileFormat().read(file.toFile(), new LoadProgress()));
+        assertEquals("Failed to load tasks: Corrupted task id in file: " + lines.get(MANY / 2), e.getMessage());
+    }
+
+    @Test
+    public void loadedFileCanBeSavedOver() throws IOException, FinchException {
+        for (int count : new int[] {50, MANY}) {
+            List<String> lines = encodedTasks(count);
+            Path file = write(lines);
+
+            Storage storage = new Storage(file.toString());
+            TaskList tasks = storage.load();
+            tasks.addTodo("one more");
+            storage.save(tasks);
+            assertEquals(encode(tasks), Files.readAllLines(file));
+        }
+    }
+
+    @Test
+    public void lazilyLoadedFileCanBeSavedOver() throws IOException, FinchException {
+        for (int count : new int[] {50, MANY}) {
+            List<String> lines = encodedTasks(count);
+            Path file = write(lines);
+
+            Storage storage = new Storage(file.toString());
+            storage.setLazy(true);
+            TaskList tasks = storage.load();
+            tasks.addTodo("one more");
+            storage.save(tasks);
+
+            List<String> saved = new ArrayList<>(lines);
+            saved.add(tasks.getTask(count).encode());
+            assertEquals(saved, Files.readAllLines(file));
+        }
+    }
+
+    // Returns the encoded lines of the given number of tasks, with IDs from 1
+    private static List<String> encodedTasks(int count) throws FinchException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = new ToDo("task " + i + " with a description long enough to fill the file");
+            task.restoreId(i + 1);
+            lines.add(task.encode());
+        }
+        return lines;
+    }
+
+    // Writes the lines to the data file, ending every third one with "\r\n" so that both line breaks are read
+    private Path write(List<String> lines) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            text.append(lines.get(i)).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        Path file = directory.resolve("tasks.txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static List<String> encode(Iterable<Task> tasks) {
+        List<String> lines = new ArrayList<>();
+        for (Task task : tasks) {
+            lines.add(task.encode());
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,155 @@
+package finch.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import finch.exception.FinchException;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Checks that {@link Task#decode(String)}, which decodes well-formed lines by
+ * a single scan, gives the same task or the same error as the reference
+ * {@link Task#decodeBySplit(String)} on randomized save lines.
+ */
+public class TaskDecodeTest {
+
+    private static final int LINES = 200_000;
+
+    private static final String[] TYPES = {"T", "D", "E", "X", "", "TT", "t"};
+    private static final String[] DONE_FLAGS = {"0", "1", "0", "1", "2", "", "00", " 1"};
+    private static final String[] DESCRIPTIONS = {"read book", "x", "café au lait", " padded ", "a|b",
+        "a |b", "pipe | inside", "", "  ", "tab\there", "2025-09-26T18:00"};
+    private static final String[] SEPARATORS = {" | ", " | ", " | ", " | ", " |", "| ", " || ", ""};
+
+    @Test
+    public void decodeAgreesWithSplitDecoder() {
+        Random random = new Random(20250926);
+        for (int i = 0; i < LINES; i++) {
+            String line = randomLine(random);
+            assertEquals(describe(() -> Task.decodeBySplit(line)), describe(() -> Task.decode(line)), line);
+        }
+    }
+
+    @Test
+    public void decodeAgreesWithSplitDecoderAfterIdPrefix() {
+        Random random = new Random(15);
+        for (int i = 0; i < LINES; i++) {
+            long id = 1 + random.nextInt(1_000_000);
+            String body = randomLine(random);
+            String line = "#" + id + " | " + body;
+            String expected = describe(() -> Task.decodeBySplit(body));
+            if (!expected.startsWith("error")) {
+                expected = "#" + id + " " + expected;
+            }
+            assertEquals(expected, describe(() -> {
+                Task task = Task.decode(line);
+                return new IdTask(task);
+            }), line);
+        }
+    }
+
+    @Test
+    public void encodedTasksRoundTrip() throws FinchException {
+        Random random = new Random(7);
+        for (int i = 0; i < LINES / 10; i++) {
+            Task task = Task.decodeBySplit(wellFormedLine(random));
+            task.id = 1 + random.nextInt(1000);
+            Task decoded = Task.decode(task.encode());
+            assertEquals(task.id, decoded.getId());
+            assertEquals(describe(task), describe(decoded), task.encode());
+        }
+    }
+
+    // Builds a save line, usually well formed, sometimes with a field or separator that is not
+    private static String randomLine(Random random) {
+        if (random.nextInt(3) == 0) {
+            return wellFormedLine(random);
+        }
+        StringBuilder line = new StringBuilder(pick(random, TYPES));
+        line.append(pick(random, SEPARATORS)).append(pick(random, DONE_FLAGS));
+        line.append(pick(random, SEPARATORS)).append(pick(random, DESCRIPTIONS));
+        int dates = random.nextInt(4);
+        for (int d = 0; d < dates; d++) {
+            line.append(pick(random, SEPARATORS)).append(randomDateTime(random));
+        }
+        return line.toString();
+    }
+
+    // Builds a save line that both decoders accept, as the list writes them
+    private static String wellFormedLine(Random random) {
+        // A description cannot hold the separator or start or end with a space; the save format has no escapes
+        String description = pick(random, DESCRIPTIONS).replace(" | ", " / ").trim() + "w";
+        String prefix = " | " + (random.nextBoolean() ? "1" : "0") + " | " + description;
+        return switch (random.nextInt(3)) {
+        case 0 -> "T" + prefix;
+        case 1 -> "D" + prefix + " | " + validDateTime(random);
+        default -> {
+            String from = validDateTime(random);
+            String to = LocalDateTime.parse(from).plusMinutes(random.nextInt(100_000)).toString();
+            yield "E" + prefix + " | " + from + " | " + to;
+        }
+        };
+    }
+
+    // Returns a date-time that is valid, has seconds, is out of range, or is not a date-time at all
+    private static String randomDateTime(Random random) {
+        return switch (random.nextInt(8)) {
+        case 0 -> validDateTime(random) + ":30";
+        case 1 -> String.format("2025-02-%02dT10:00", 28 + random.nextInt(4));
+        case 2 -> String.format("2025-%02d-01T%02d:%02d", random.nextInt(14), random.nextInt(26),
+                random.nextInt(62));
+        case 3 -> "2025-09-26 18:00";
+        case 4 -> "2025-9-26T18:00";
+        case 5 -> "tomorrow";
+        default -> validDateTime(random);
+        };
+    }
+
+    private static String validDateTime(Random random) {
+        return String.format("%04d-%02d-%02dT%02d:%02d", 1970 + random.nextInt(100), 1 + random.nextInt(12),
+                1 + random.nextInt(28), random.nextInt(24), random.nextInt(60));
+    }
+
+    private static String pick(Random random, String[] choices) {
+        return choices[random.nextInt(choices.length)];
+    }
+
+    // Decodes a line, describing the task, or the error, as a string that can be compared
+    private static String describe(Decoder decoder) {
+        try {
+            Object decoded = decoder.decode();
+            return decoded instanceof IdTask idTask
+                    ? "#" + idTask.task.getId() + " " + describe(idTask.task)
+                    : describe((Task) decoded);
+        } catch (FinchException e) {
+            return "error: " + e.getMessage();
+        } catch (RuntimeException e) {
+            // The JIT drops the messages of exceptions it throws often, so only their type can be compared
+            return "error " + e.getClass().getName();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String describe(Task task) {
+        String dates = "";
+        if (task instanceof Deadline deadline) {
+            dates = " by " + deadline.getBy();
+        } else if (task instanceof Event event) {
+            dates = " from " + event.getFrom() + " to " + event.getTo();
+        }
+        return task.getClass().getSimpleName() + " done=" + task.isDone() + " [" + task.getDescription() + "]"
+                + dates;
+    }
+
+    private interface Decoder {
+        Object decode() throws Exception;
+    }
+
+    // A decoded task whose ID is part of what is compared
+    private record IdTask(Task task) {
+    }
+}
@@ -0,0 +1,209 @@
+package finch.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import finch.exception.FinchException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Checks that {@link TaskList#snapshot()} readers always see a consistent
+ * list while another thread keeps changing it.
+ * <p>
+ * One writer adds, marks, unmarks and deletes tasks at random. It adds
+ * todos named {@code task <n> tag<k>} with {@code n} counting up from 0, so
+ * task {@code n} gets ID {@code n + 1}, and only ever marks the first undone
+ * task or unmarks the last done one. So in any consistent state the numbers
+ * ascend, each ID matches its number, and the done tasks form a prefix of
+ * the list. Reader threads take snapshots and check this, and also that
+ * {@code size}, {@code getTask} and {@code findTasks} agree with iterating
+ * the same snapshot, and that a snapshot still reads the same afterwards.
+ * The writer keeps its own copy of the list, which the final list must
+ * match exactly, so no task is lost or duplicated.
+ */
+public class TaskListStressTest {
+
+    private static final int READERS = 3;
+
+    private static final long RUN_MILLIS = 2000;
+
+    // The writer deletes more than it adds once the list is this long
+    private static final int TARGET_SIZE = 20_000;
+
+    private static final int TAGS = 50;
+
+    private final TaskList tasks = new TaskList();
+    private final AtomicBoolean isRunning = new AtomicBoolean(true);
+    private final AtomicLong checks = new AtomicLong();
+
+    // The first inconsistency seen by any thread
+    private final AtomicReference<String> violation = new AtomicReference<>();
+
+    @Test
+    @Timeout(60)
+    public void snapshotsStayConsistentWhileTheListChanges() throws InterruptedException {
+        List<Long> expected = new ArrayList<>();
+        int[] expectedDone = new int[1];
+        Thread writer = new Thread(() -> expectedDone[0] = write(expected));
+        Thread[] readers = new Thread[READERS];
+        for (int i = 0; i < READERS; i++) {
+            readers[i] = new Thread(this::read);
+        }
+        writer.start();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+
+        Thread.sleep(RUN_MILLIS);
+        isRunning.set(false);
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(violation.get());
+        List<Task> last = list(tasks.snapshot());
+        assertEquals(expected.size(), tasks.size());
+        assertEquals(expected.size(), last.size());
+        for (int i = 0; i < last.size(); i++) {
+            assertEquals(expected.get(i), numberOf(last.get(i)));
+            assertEquals(expected.get(i) + 1, last.get(i).getId());
+            assertEquals(i < expectedDone[0], last.get(i).isDone());
+        }
+        if (checks.get() == 0) {
+            throw new AssertionError("No snapshot was checked");
+        }
+    }
+
+    // Changes the list at random until stopped, keeping the numbers of its tasks; returns how many are done
+    private int write(List<Long> numbers) {
+        SplittableRandom random = new SplittableRandom(42);
+        long next = 0;
+        int doneCount = 0;
+        try {
+            while (isRunning.get()) {
+                int size = tasks.size();
+                int op = random.nextInt(10);
+                if (size == 0 || op < (size < TARGET_SIZE ? 5 : 3)) {
+                    numbers.add(next);
+                    tasks.addTodo("task " + next++ + " tag" + random.nextInt(TAGS));
+                } else if (op < 7) {
+                    int index = random.nextInt(size);
+                    tasks.deleteTask(index);
+                    numbers.remove(index);
+                    if (index < doneCount) {
+                        doneCount--;
+                    }
+                } else if (op < 9) {
+                    if (doneCount < size) {
+                        tasks.markTask(doneCount++);
+                    }
+                } else if (doneCount > 0) {
+                    tasks.unmarkTask(--doneCount);
+                }
+            }
+        } catch (FinchException e) {
+            violation("writer: " + e.getMessage());
+        }
+        return doneCount;
+    }
+
+    // Checks snapshots until stopped, re-checking each one against the one before it
+    private void read() {
+        SplittableRandom random = new SplittableRandom();
+        TaskSnapshot previous = null;
+        List<Task> previousTasks = null;
+        while (isRunning.get()) {
+            TaskSnapshot snapshot = tasks.snapshot();
+            List<Task> seen = check(snapshot, random);
+            if (previous != null && !list(previous).equals(previousTasks)) {
+                violation("a snapshot changed after it was taken");
+            }
+            previous = snapshot;
+            previousTasks = seen;
+            checks.incrementAndGet();
+        }
+    }
+
+    // Checks one snapshot's invariants and returns its tasks as iterated
+    private List<Task> check(TaskSnapshot snapshot, SplittableRandom random) {
+        List<Task> seen = list(snapshot);
+        if (seen.size() != snapshot.size()) {
+            violation("size " + snapshot.size() + " but iterated " + seen.size());
+        }
+
+        long lastNumber = -1;
+        boolean isDonePrefix = true;
+        for (Task task : seen) {
+            long number = numberOf(task);
+            if (number <= lastNumber) {
+                violation("task " + number + " after task " + lastNumber);
+            }
+            if (task.getId() != number + 1) {
+                violation("task " + number + " has ID " + task.getId());
+            }
+            lastNumber = number;
+            if (task.isDone() && !isDonePrefix) {
+                violation("done task " + number + " after an undone task");
+            }
+            isDonePrefix &= task.isDone();
+        }
+
+        try {
+            for (int i = 0; i < 20 && !seen.isEmpty(); i++) {
+                int index = random.nextInt(seen.size());
+                if (snapshot.getTask(index) != seen.get(index)) {
+                    violation("getTask(" + index + ") differs from iteration");
+                }
+            }
+            // Tags go through the trigram indexes, while one- and two-digit numbers are scanned
+            String keyword = random.nextBoolean()
+                    ? "tag" + random.nextInt(TAGS)
+                    : Integer.toString(random.nextInt(100));
+            if (!snapshot.findTasks(keyword).equals(filter(seen, keyword))) {
+                violation("find " + keyword + " differs from a linear scan");
+            }
+        } catch (FinchException e) {
+            violation("reader: " + e.getMessage());
+        }
+        return seen;
+    }
+
+    private static List<Task> list(TaskSnapshot snapshot) {
+        List<Task> tasks = new ArrayList<>(snapshot.size());
+        for (Task task : snapshot) {
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static List<Task> filter(List<Task> tasks, String keyword) {
+        List<Task> matches = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.getDescription().toLowerCase().contains(keyword.toLowerCase())) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    // Returns n from a description of the form "task <n> tag<k>"
+    private static long numberOf(Task task) {
+        String description = task.getDescription();
+        return Long.parseLong(description.substring(5, description.indexOf(' ', 5)));
+    }
+
+    // Keeps the first violation, which the test reports
+    private void violation(String message) {
+        violation.compareAndSet(null, message);
+    }
+}
@@ -0,0 +1,156 @@
+package finch.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import finch.exception.FinchException;
+import finch.parser.Parser;
+import finch.storage.Storage;
+import finch.ui.Ui;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that undo and redo, run through the commands the way a session
+ * runs them, put the list back exactly as it was, and that each session's
+ * {@link UndoHistory} only ever covers that session's own changes.
+ */
+public class UndoRedoTest {
+
+    @TempDir
+    Path directory;
+
+    private TaskList tasks;
+    private Storage storage;
+    private Ui ui;
+
+    @BeforeEach
+    public void setUp() throws FinchException {
+        tasks = new TaskList();
+        storage = new Storage(directory.resolve("tasks.txt").toString());
+        ui = new Ui(InputStream.nullInputStream(), new ByteArrayOutputStream());
+    }
+
+    @Test
+    public void undoingDeleteInMiddleRestoresPositionAndId() throws FinchException {
+        UndoHistory history = new UndoHistory();
+        run(history, "todo a", "todo b", "todo c");
+        List<String> before = describe();
+
+        run(history, "delete 2", "undo");
+        assertEquals(before, describe());
+    }
+
+    @Test
+    public void undoingDeleteAtEndRestoresTask() throws FinchException {
+        UndoHistory history = new UndoHistory();
+        run(history, "todo a", "todo b", "todo c");
+        List<String> before = describe();
+
+        run(history, "delete 3", "undo");
+        assertEquals(before, describe());
+    }
+
+    @Test
+    public void redoRepeatsUndoneChange() throws FinchException {
+        UndoHistory history = new UndoHistory();
+        run(history, "todo a", "todo b", "todo c", "mark 1,3", "delete 2");
+        List<String> after = describe();
+
+        run(history, "undo");
+        assertEquals(List.of("#1 [X] a", "#2 [ ] b", "#3 [X] c"), describe());
+        run(history, "undo");
+        assertEquals(List.of("#1 [ ] a", "#2 [ ] b", "#3 [ ] c"), describe());
+
+        run(history, "redo", "redo");
+        assertEquals(after, describe());
+    }
+
+    @Test
+    public void newChangeClearsRedo() throws FinchException {
+        UndoHistory history = new UndoHistory();
+        run(history, "todo a", "todo b", "undo", "todo c");
+
+        FinchException e = assertThrows(FinchException.class, () -> run(history, "redo"));
+        assertEquals("Nothing to redo.", e.getMessage());
+        assertEquals(List.of("#1 [ ] a", "#3 [ ] c"), describe());
+    }
+
+    @Test
+    public void undoDepthEvictsOldestChanges() throws FinchException {
+        UndoHistory history = new UndoHistory();
+        history.setDepth(2);
+        run(history, "todo a", "todo b", "todo c", "undo", "undo");
+
+        FinchException e = assertThrows(FinchException.class, () -> run(history, "undo"));
+        assertEquals("Nothing to undo.", e.getMessage());
+        assertEquals(List.of("#1 [ ] a"), describe());
+    }
+
+    @Test
+    public void zeroDepthTurnsUndoOff() throws FinchException {
+        UndoHistory history = new UndoHistory();
+        history.setDepth(0);
+        run(history, "todo a");
+
+        assertThrows(FinchException.class, () -> run(history, "undo"));
+        assertEquals(List.of("#1 [ ] a"), describe());
+    }
+
+    @Test
+    public void taskNoLongerInListClearsHistory() throws FinchException {
+        UndoHistory first = new UndoHistory();
+        UndoHistory second = new UndoHistory();
+        run(first, "todo a", "todo b", "mark 2");
+        run(second, "delete 2");
+
+        FinchException e = assertThrows(FinchException.class, () -> run(first, "undo"));
+        assertTrue(e.getMessage().endsWith("The undo history has been cleared."), e.getMessage());
+        assertEquals(List.of("#1 [ ] a"), describe());
+
+        // Nothing is left to undo or redo, not even the add of a, which still fits the list
+        assertThrows(FinchException.class, () -> run(first, "undo"));
+        assertThrows(FinchException.class, () -> run(first, "redo"));
+    }
+
+    @Test
+    public void sessionsUndoOnlyTheirOwnChanges() throws FinchException {
+        UndoHistory first = new UndoHistory();
+        UndoHistory second = new UndoHistory();
+        run(first, "todo a");
+        run(second, "todo b");
+
+        run(first, "undo");
+        assertEquals(List.of("#2 [ ] b"), describe());
+
+        // A new change by one session leaves the other's redo alone, and redo puts the task back in place
+        run(second, "todo c");
+        run(first, "redo");
+        assertEquals(List.of("#1 [ ] a", "#2 [ ] b", "#3 [ ] c"), describe());
+    }
+
+    // Parses and executes each command in turn, as a session with the given history would
+    private void run(UndoHistory history, String... commands) throws FinchException {
+        for (String command : commands) {
+            Parser.parse(command).execute(tasks, history, ui, storage);
+        }
+    }
+
+    // Returns each task as its ID, done state and description, in list order
+    private List<String> describe() {
+        List<String> described = new ArrayList<>();
+        for (Task task : tasks) {
+            described.add("#" + task.getId() + " [" + (task.isDone() ? "X" : " ") + "] " + task.getDescription());
+        }
+        return described;
+    }
+}
@@ -6,14 +6,15 @@ then
     mkdir ../bin
 fi
 
-# delete output from previous run
+# delete output and tasks from previous run
 if [ -e "./ACTUAL.TXT" ]
 then
     rm ACTUAL.TXT
 fi
+rm -rf ./data
 
 # compile the code into the bin folder, terminates if error occurred
-if ! javac -cp ../src/main/java -Xlint:none -d ../bin ../src/main/java/finch/ui/*.java ../src/main/java/finch/task/*.java ../src/main/java/finch/exception/*.java
+if ! javac -encoding UTF-8 -sourcepath ../src/main/java -Xlint:none -d ../bin ../src/main/java/finch/Finch.java
 then
     echo "********** BUILD FAILURE **********"
     exit 1